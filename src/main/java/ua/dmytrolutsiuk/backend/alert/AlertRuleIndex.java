@@ -0,0 +1,161 @@
+package ua.dmytrolutsiuk.backend.alert;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ua.dmytrolutsiuk.backend.model.AlertType;
+import ua.dmytrolutsiuk.backend.repository.AlertRuleRepository;
+import ua.dmytrolutsiuk.backend.repository.IndexedAlertRule;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class AlertRuleIndex {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int PERCENT_SCALE = 6;
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CurrencyRules> byCurrency = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean loaded;
+
+    public AlertRuleIndex(AlertRuleRepository alertRuleRepository, MeterRegistry meterRegistry) {
+        this.alertRuleRepository = alertRuleRepository;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("alert.rules.indexed", size, AtomicInteger::get)
+                .description("Alert rules held in the in-memory threshold index")
+                .register(meterRegistry);
+    }
+
+    public int collectTriggered(String currencyCode, BigDecimal previous, BigDecimal current,
+                                Collection<Long> subscriptionIds) {
+        ensureLoaded();
+        CurrencyRules rules = byCurrency.get(currencyCode);
+        if (rules == null || previous == null || current == null) {
+            return 0;
+        }
+
+        int before = subscriptionIds.size();
+        int comparison = current.compareTo(previous);
+        if (comparison > 0) {
+            count(AlertType.CROSSES_ABOVE, rules.above().collectAboveUpTo(previous, current, subscriptionIds));
+        } else if (comparison < 0) {
+            count(AlertType.CROSSES_BELOW, rules.below().collectFromBelow(current, previous, subscriptionIds));
+        }
+        if (comparison != 0 && previous.signum() != 0) {
+            BigDecimal change = current.subtract(previous).abs()
+                    .multiply(HUNDRED)
+                    .divide(previous.abs(), PERCENT_SCALE, RoundingMode.HALF_UP);
+            count(AlertType.CHANGE_PERCENT, rules.change().collectUpTo(change, subscriptionIds));
+        }
+        return subscriptionIds.size() - before;
+    }
+
+    // A rule may already be indexed when the index was loaded after the rule was committed, as happens when
+    // another node's announcement arrives first; it is replaced rather than added twice.
+    public synchronized void add(IndexedAlertRule rule) {
+        ensureLoaded();
+        byCurrency.compute(rule.currencyCode(), (currency, rules) -> {
+            CurrencyRules current = rules == null ? CurrencyRules.EMPTY : rules;
+            CurrencyRules remaining = current.without(rule);
+            if (remaining == current) {
+                size.incrementAndGet();
+            }
+            return remaining.with(rule);
+        });
+    }
+
+    public synchronized void remove(IndexedAlertRule rule) {
+        ensureLoaded();
+        byCurrency.computeIfPresent(rule.currencyCode(), (currency, rules) -> {
+            CurrencyRules remaining = rules.without(rule);
+            if (remaining != rules) {
+                size.decrementAndGet();
+            }
+            return remaining.isEmpty() ? null : remaining;
+        });
+    }
+
+    public synchronized void reload() {
+        List<IndexedAlertRule> rules = alertRuleRepository.findAllIndexed();
+
+        Map<String, CurrencyRules> rebuilt = new HashMap<>();
+        rules.stream()
+                .collect(Collectors.groupingBy(IndexedAlertRule::currencyCode))
+                .forEach((currencyCode, currencyRules) -> rebuilt.put(currencyCode, CurrencyRules.of(currencyRules)));
+        byCurrency.clear();
+        byCurrency.putAll(rebuilt);
+        size.set(rules.size());
+        loaded = true;
+
+        log.info("Indexed {} alert rules across {} currencies", rules.size(), rebuilt.size());
+    }
+
+    public int size() {
+        ensureLoaded();
+        return size.get();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private void count(AlertType type, int matches) {
+        if (matches > 0) {
+            meterRegistry.counter("alert.rules.triggered", "type", type.name()).increment(matches);
+        }
+    }
+
+    private record CurrencyRules(SortedThresholds above, SortedThresholds below, SortedThresholds change) {
+
+        private static final CurrencyRules EMPTY =
+                new CurrencyRules(SortedThresholds.EMPTY, SortedThresholds.EMPTY, SortedThresholds.EMPTY);
+
+        static CurrencyRules of(List<IndexedAlertRule> rules) {
+            Map<AlertType, List<IndexedAlertRule>> byType = rules.stream()
+                    .collect(Collectors.groupingBy(IndexedAlertRule::type));
+            return new CurrencyRules(
+                    SortedThresholds.of(byType.getOrDefault(AlertType.CROSSES_ABOVE, List.of())),
+                    SortedThresholds.of(byType.getOrDefault(AlertType.CROSSES_BELOW, List.of())),
+                    SortedThresholds.of(byType.getOrDefault(AlertType.CHANGE_PERCENT, List.of())));
+        }
+
+        CurrencyRules with(IndexedAlertRule rule) {
+            return switch (rule.type()) {
+                case CROSSES_ABOVE -> new CurrencyRules(above.with(rule), below, change);
+                case CROSSES_BELOW -> new CurrencyRules(above, below.with(rule), change);
+                case CHANGE_PERCENT -> new CurrencyRules(above, below, change.with(rule));
+            };
+        }
+
+        CurrencyRules without(IndexedAlertRule rule) {
+            return switch (rule.type()) {
+                case CROSSES_ABOVE -> above.contains(rule.id()) ? new CurrencyRules(above.without(rule.id()), below, change) : this;
+                case CROSSES_BELOW -> below.contains(rule.id()) ? new CurrencyRules(above, below.without(rule.id()), change) : this;
+                case CHANGE_PERCENT -> change.contains(rule.id()) ? new CurrencyRules(above, below, change.without(rule.id())) : this;
+            };
+        }
+
+        boolean isEmpty() {
+            return above.size() == 0 && below.size() == 0 && change.size() == 0;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package ua.dmytrolutsiuk.backend.alert;
+
+import ua.dmytrolutsiuk.backend.repository.IndexedAlertRule;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+final class SortedThresholds {
+
+    static final SortedThresholds EMPTY = new SortedThresholds(new BigDecimal[0], new long[0], new long[0]);
+
+    private final BigDecimal[] thresholds;
+    private final long[] ruleIds;
+    private final long[] subscriptionIds;
+
+    private SortedThresholds(BigDecimal[] thresholds, long[] ruleIds, long[] subscriptionIds) {
+        this.thresholds = thresholds;
+        this.ruleIds = ruleIds;
+        this.subscriptionIds = subscriptionIds;
+    }
+
+    static SortedThresholds of(List<IndexedAlertRule> rules) {
+        if (rules.isEmpty()) {
+            return EMPTY;
+        }
+        IndexedAlertRule[] sorted = rules.toArray(IndexedAlertRule[]::new);
+        Arrays.sort(sorted, Comparator.comparing(IndexedAlertRule::threshold));
+
+        BigDecimal[] thresholds = new BigDecimal[sorted.length];
+        long[] ruleIds = new long[sorted.length];
+        long[] subscriptionIds = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            thresholds[i] = sorted[i].threshold();
+            ruleIds[i] = sorted[i].id();
+            subscriptionIds[i] = sorted[i].subscriptionId();
+        }
+        return new SortedThresholds(thresholds, ruleIds, subscriptionIds);
+    }
+
+    int size() {
+        return thresholds.length;
+    }
+
+    int collectAboveUpTo(BigDecimal previous, BigDecimal current, Collection<Long> out) {
+        return collect(upperBound(previous), upperBound(current), out);
+    }
+
+    int collectFromBelow(BigDecimal current, BigDecimal previous, Collection<Long> out) {
+        return collect(lowerBound(current), lowerBound(previous), out);
+    }
+
+    int collectUpTo(BigDecimal value, Collection<Long> out) {
+        return collect(0, upperBound(value), out);
+    }
+
+    boolean contains(long ruleId) {
+        return indexOf(ruleId) >= 0;
+    }
+
+    SortedThresholds with(IndexedAlertRule rule) {
+        int position = upperBound(rule.threshold());
+        return new SortedThresholds(
+                insert(thresholds, position, rule.threshold()),
+                insert(ruleIds, position, rule.id()),
+                insert(subscriptionIds, position, rule.subscriptionId()));
+    }
+
+    SortedThresholds without(long ruleId) {
+        int position = indexOf(ruleId);
+        if (position < 0) {
+            return this;
+        }
+        if (thresholds.length == 1) {
+            return EMPTY;
+        }
+        BigDecimal[] remainingThresholds = new BigDecimal[thresholds.length - 1];
+        long[] remainingRuleIds = new long[ruleIds.length - 1];
+        long[] remainingSubscriptionIds = new long[subscriptionIds.length - 1];
+        for (int from = 0, to = 0; from < thresholds.length; from++) {
+            if (from != position) {
+                remainingThresholds[to] = thresholds[from];
+                remainingRuleIds[to] = ruleIds[from];
+                remainingSubscriptionIds[to++] = subscriptionIds[from];
+            }
+        }
+        return new SortedThresholds(remainingThresholds, remainingRuleIds, remainingSubscriptionIds);
+    }
+
+    private int collect(int from, int to, Collection<Long> out) {
+        for (int i = from; i < to; i++) {
+            out.add(subscriptionIds[i]);
+        }
+        return Math.max(0, to - from);
+    }
+
+    private int lowerBound(BigDecimal value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid].compareTo(value) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(BigDecimal value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid].compareTo(value) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(long ruleId) {
+        for (int i = 0; i < ruleIds.length; i++) {
+            if (ruleIds[i] == ruleId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static BigDecimal[] insert(BigDecimal[] values, int position, BigDecimal value) {
+        BigDecimal[] result = new BigDecimal[values.length + 1];
+        System.arraycopy(values, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(values, position, result, position + 1, values.length - position);
+        return result;
+    }
+
+    private static long[] insert(long[] values, int position, long value) {
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(values, position, result, position + 1, values.length - position);
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import ua.dmytrolutsiuk.backend.dto.CrossRateMatrixResponse;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+public final class CrossRateMatrix {
+
+    public static final String UAH = "UAH";
+    public static final int UAH_R030 = 980;
+
+    private static final int R030_LIMIT = 1000;
+
+    private final short[] indexByR030;
+    private final Map<String, Integer> r030ByCode;
+    private final String[] currencyCodes;
+    private final LocalDate[] exchangeDates;
+    private final double[][] rates;
+    private final String fingerprint;
+    private final CrossRateMatrixResponse response;
+
+    private CrossRateMatrix(short[] indexByR030, Map<String, Integer> r030ByCode, String[] currencyCodes,
+                            LocalDate[] exchangeDates, double[][] rates, String fingerprint,
+                            LocalDate latestExchangeDate) {
+        this.indexByR030 = indexByR030;
+        this.r030ByCode = r030ByCode;
+        this.currencyCodes = currencyCodes;
+        this.exchangeDates = exchangeDates;
+        this.rates = rates;
+        this.fingerprint = fingerprint;
+        this.response = new CrossRateMatrixResponse(latestExchangeDate, List.of(currencyCodes), rows(rates));
+    }
+
+    public static CrossRateMatrix of(Collection<ExchangeRate> latestRates) {
+        Map<Integer, Entry> byR030 = new HashMap<>();
+        for (ExchangeRate rate : latestRates) {
+            Integer r030 = rate.getR030();
+            if (r030 == null || r030 < 0 || r030 >= R030_LIMIT || r030 == UAH_R030
+                    || rate.getRate() == null || rate.getRate().signum() <= 0) {
+                log.warn("Leaving {} (r030 {}) out of the cross-rate matrix", rate.getCurrencyCode(), r030);
+                continue;
+            }
+            byR030.put(r030, new Entry(
+                    rate.getCurrencyCode(), r030, rate.getRate().doubleValue(), rate.getExchangeDate()));
+        }
+
+        LocalDate latestExchangeDate = byR030.values().stream()
+                .map(Entry::exchangeDate)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+        byR030.put(UAH_R030, new Entry(UAH, UAH_R030, 1.0, latestExchangeDate));
+
+        Entry[] entries = byR030.values().toArray(Entry[]::new);
+        Arrays.sort(entries, Comparator.comparing(Entry::currencyCode));
+
+        int size = entries.length;
+        short[] indexByR030 = new short[R030_LIMIT];
+        Arrays.fill(indexByR030, (short) -1);
+        Map<String, Integer> r030ByCode = new HashMap<>();
+        String[] currencyCodes = new String[size];
+        LocalDate[] exchangeDates = new LocalDate[size];
+        double[][] rates = new double[size][size];
+
+        for (int i = 0; i < size; i++) {
+            indexByR030[entries[i].r030()] = (short) i;
+            r030ByCode.put(entries[i].currencyCode(), entries[i].r030());
+            currencyCodes[i] = entries[i].currencyCode();
+            exchangeDates[i] = entries[i].exchangeDate();
+            for (int j = 0; j < size; j++) {
+                rates[i][j] = i == j ? 1.0 : entries[i].uahPerUnit() / entries[j].uahPerUnit();
+            }
+        }
+
+        return new CrossRateMatrix(indexByR030, Map.copyOf(r030ByCode), currencyCodes, exchangeDates, rates,
+                fingerprint(entries), latestExchangeDate);
+    }
+
+    public int r030(String currencyCode) {
+        Integer r030 = r030ByCode.get(currencyCode);
+        return r030 != null ? r030 : -1;
+    }
+
+    public double rate(int baseR030, int quoteR030) {
+        int base = index(baseR030);
+        int quote = index(quoteR030);
+        return base < 0 || quote < 0 ? Double.NaN : rates[base][quote];
+    }
+
+    public LocalDate exchangeDate(int baseR030, int quoteR030) {
+        int base = index(baseR030);
+        int quote = index(quoteR030);
+        if (base < 0 || quote < 0) {
+            return null;
+        }
+        LocalDate baseDate = exchangeDates[base];
+        LocalDate quoteDate = exchangeDates[quote];
+        if (baseDate == null || quoteDate == null) {
+            return baseDate != null ? baseDate : quoteDate;
+        }
+        return baseDate.isBefore(quoteDate) ? baseDate : quoteDate;
+    }
+
+    public String currencyCode(int r030) {
+        int index = index(r030);
+        return index < 0 ? null : currencyCodes[index];
+    }
+
+    public int size() {
+        return currencyCodes.length;
+    }
+
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public CrossRateMatrixResponse toResponse() {
+        return response;
+    }
+
+    private int index(int r030) {
+        return r030 < 0 || r030 >= R030_LIMIT ? -1 : indexByR030[r030];
+    }
+
+    private static List<List<Double>> rows(double[][] rates) {
+        List<List<Double>> rows = new ArrayList<>(rates.length);
+        for (double[] row : rates) {
+            rows.add(Arrays.stream(row).boxed().toList());
+        }
+        return List.copyOf(rows);
+    }
+
+    // Every cell is derived from the per-currency inputs, so hashing those identifies the whole matrix.
+    private static String fingerprint(Entry[] entries) {
+        return Fingerprints.of(Arrays.asList(entries), entry -> entry.currencyCode() + '|' + entry.r030() + '|'
+                + entry.uahPerUnit() + '|' + entry.exchangeDate());
+    }
+
+    private record Entry(String currencyCode, int r030, double uahPerUnit, LocalDate exchangeDate) {
+    }
+}
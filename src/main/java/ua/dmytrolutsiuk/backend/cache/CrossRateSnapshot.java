@@ -0,0 +1,7 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+public record CrossRateSnapshot(
+        SnapshotVersion version,
+        CrossRateMatrix matrix
+) {
+}
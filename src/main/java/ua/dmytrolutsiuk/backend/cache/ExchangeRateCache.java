@@ -0,0 +1,175 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+@Slf4j
+public class ExchangeRateCache {
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ExchangeRateCache(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("exchange.rate.cache.requests")
+                .description("Latest-rate lookups served by the in-memory cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("exchange.rate.cache.requests")
+                .description("Latest-rate lookups served by the in-memory cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("exchange.rate.cache.size", snapshot, ref -> ref.get().rates().size())
+                .description("Number of currencies in the current latest-rate snapshot")
+                .register(meterRegistry);
+        Gauge.builder("exchange.rate.cache.body.bytes", snapshot, ref -> ref.get().json() == null ? 0 : ref.get().json().length)
+                .description("Size of the precomputed all-currencies JSON body")
+                .tag("encoding", "identity")
+                .register(meterRegistry);
+        Gauge.builder("exchange.rate.cache.body.bytes", snapshot, ref -> ref.get().gzip() == null ? 0 : ref.get().gzip().length)
+                .description("Size of the precomputed all-currencies JSON body")
+                .tag("encoding", "gzip")
+                .register(meterRegistry);
+        Gauge.builder("exchange.rate.cross.size", snapshot,
+                        ref -> ref.get().crossRates() == null ? 0 : ref.get().crossRates().size())
+                .description("Currencies in the precomputed cross-rate matrix, UAH included")
+                .register(meterRegistry);
+    }
+
+    public Optional<ExchangeRateResponse> getLatest(
+            String currencyCode, Function<String, Optional<ExchangeRateResponse>> loader) {
+        Snapshot current = snapshot.get();
+
+        ExchangeRateResponse cached = current.rates().get(currencyCode);
+        if (cached != null || current.complete()) {
+            hits.increment();
+            return Optional.ofNullable(cached);
+        }
+
+        misses.increment();
+        Optional<ExchangeRateResponse> loaded = loader.apply(currencyCode);
+        loaded.ifPresent(rate -> snapshot.updateAndGet(latest ->
+                latest.version() == current.version() ? latest.with(currencyCode, rate) : latest));
+        return loaded;
+    }
+
+    // Rates, serialized bodies, cross rates and version are published together by one reference swap, so a
+    // reader never combines parts of two different refreshes.
+    public void replaceAll(Collection<ExchangeRateResponse> rates, CrossRateMatrix crossRates) {
+        Map<String, ExchangeRateResponse> byCurrency = new HashMap<>();
+        for (ExchangeRateResponse rate : rates) {
+            byCurrency.put(rate.getCurrencyCode(), rate);
+        }
+
+        String fingerprint = fingerprint(new TreeMap<>(byCurrency).values());
+        LocalDate latestExchangeDate = byCurrency.values().stream()
+                .map(ExchangeRateResponse::getExchangeDate)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+        Instant refreshedAt = Instant.now();
+        byte[] json = serialize(byCurrency);
+        byte[] gzip = gzip(json);
+
+        Snapshot replaced = snapshot.updateAndGet(previous -> new Snapshot(
+                previous.version() + 1, Map.copyOf(byCurrency), true, fingerprint, latestExchangeDate, refreshedAt,
+                json, gzip, crossRates));
+        log.info("Latest-rate cache refreshed: version {}, {} currencies, fingerprint {}, body {} bytes ({} gzipped), "
+                        + "cross-rate matrix {} x {}",
+                replaced.version(), byCurrency.size(), fingerprint, json.length, gzip.length,
+                crossRates.size(), crossRates.size());
+    }
+
+    public long getVersion() {
+        return snapshot.get().version();
+    }
+
+    public Optional<SnapshotVersion> getCompleteVersion() {
+        Snapshot current = snapshot.get();
+        if (!current.complete()) {
+            return Optional.empty();
+        }
+        return Optional.of(current.toVersion());
+    }
+
+    public Optional<CrossRateSnapshot> getCrossRateSnapshot() {
+        Snapshot current = snapshot.get();
+        if (!current.complete()) {
+            return Optional.empty();
+        }
+        return Optional.of(new CrossRateSnapshot(current.toVersion(), current.crossRates()));
+    }
+
+    public Optional<SerializedSnapshot> getSerializedSnapshot() {
+        Snapshot current = snapshot.get();
+        if (!current.complete()) {
+            return Optional.empty();
+        }
+        return Optional.of(new SerializedSnapshot(
+                current.toVersion(),
+                current.json(),
+                current.gzip()));
+    }
+
+    private byte[] serialize(Map<String, ExchangeRateResponse> byCurrency) {
+        try {
+            return objectMapper.writeValueAsBytes(new TreeMap<>(byCurrency).values());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize exchange rate snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    static String fingerprint(Collection<ExchangeRateResponse> rates) {
+        return Fingerprints.of(rates, rate -> rate.getCurrencyCode() + '|' + rate.getCurrencyName() + '|'
+                + rate.getRate().toPlainString() + '|' + rate.getExchangeDate());
+    }
+
+    private record Snapshot(long version, Map<String, ExchangeRateResponse> rates, boolean complete,
+                            String fingerprint, LocalDate latestExchangeDate, Instant refreshedAt,
+                            byte[] json, byte[] gzip, CrossRateMatrix crossRates) {
+
+        static final Snapshot EMPTY = new Snapshot(0, Map.of(), false, null, null, null, null, null, null);
+
+        SnapshotVersion toVersion() {
+            return new SnapshotVersion(version, fingerprint, latestExchangeDate, refreshedAt);
+        }
+
+        Snapshot with(String currencyCode, ExchangeRateResponse rate) {
+            Map<String, ExchangeRateResponse> copy = new HashMap<>(rates);
+            copy.put(currencyCode, rate);
+            return new Snapshot(version, Map.copyOf(copy), false, null, null, null, null, null, null);
+        }
+    }
+}
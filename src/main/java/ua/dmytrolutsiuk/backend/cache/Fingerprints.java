@@ -0,0 +1,30 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+public final class Fingerprints {
+
+    private Fingerprints() {
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // One line per item; the first 8 bytes of the digest keep ETags short and still tell snapshots apart.
+    static <T> String of(Iterable<T> items, Function<T, String> line) {
+        MessageDigest digest = sha256();
+        for (T item : items) {
+            digest.update((line.apply(item) + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+}
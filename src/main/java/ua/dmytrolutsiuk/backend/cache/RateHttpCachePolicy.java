@@ -0,0 +1,120 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class RateHttpCachePolicy {
+
+    private final ExchangeRateCache exchangeRateCache;
+    private final CronExpression refreshCron;
+    private final Duration historicalMaxAge;
+    private final Duration pendingRefreshMaxAge;
+    private final Clock clock;
+
+    @Autowired
+    public RateHttpCachePolicy(
+            ExchangeRateCache exchangeRateCache,
+            @Value("${scheduler.exchange-rate.cron}") String refreshCron,
+            @Value("${http.cache.rates.historical-max-age:365d}") Duration historicalMaxAge,
+            @Value("${http.cache.rates.pending-refresh-max-age:60s}") Duration pendingRefreshMaxAge) {
+        this(exchangeRateCache, refreshCron, historicalMaxAge, pendingRefreshMaxAge, Clock.systemDefaultZone());
+    }
+
+    RateHttpCachePolicy(ExchangeRateCache exchangeRateCache, String refreshCron, Duration historicalMaxAge,
+                        Duration pendingRefreshMaxAge, Clock clock) {
+        this.exchangeRateCache = exchangeRateCache;
+        this.refreshCron = ScheduledTaskRegistrar.CRON_DISABLED.equals(refreshCron)
+                ? null
+                : CronExpression.parse(refreshCron);
+        this.historicalMaxAge = historicalMaxAge;
+        this.pendingRefreshMaxAge = pendingRefreshMaxAge;
+        this.clock = clock;
+    }
+
+    public RateValidators cross(CrossRateSnapshot snapshot) {
+        return new RateValidators(
+                "\"x-" + snapshot.matrix().fingerprint() + "\"",
+                snapshot.version().refreshedAt(),
+                latestCacheControl(snapshot.version()));
+    }
+
+    public Optional<RateValidators> latest(ExchangeRateResponse rate) {
+        return exchangeRateCache.getCompleteVersion().map(version -> new RateValidators(
+                contentTag(List.of(rate)),
+                version.refreshedAt(),
+                latestCacheControl(version)));
+    }
+
+    public Optional<RateValidators> byDate(String currencyCode, LocalDate date) {
+        return dated(currencyCode.toUpperCase(), date);
+    }
+
+    public Optional<RateValidators> snapshotByDate(LocalDate date) {
+        return dated("all", date);
+    }
+
+    public RateValidators snapshot(SnapshotVersion version, String contentCoding) {
+        RateValidators validators = latestValidators(version);
+        if (contentCoding == null) {
+            return validators;
+        }
+        return new RateValidators(
+                "\"" + version.fingerprint() + "-" + contentCoding + "\"",
+                validators.lastModified(),
+                validators.cacheControl());
+    }
+
+    // Dated validators are computed without reading the rows, so a 304 costs no query. Every write to the rates
+    // table, ingest or backfill, republishes the snapshot on every node, so tying the tag to the snapshot's
+    // refresh time gives a backfilled day or a corrected rate a new one. Days before the latest snapshot are
+    // marked immutable; anything else may still change.
+    private Optional<RateValidators> dated(String scope, LocalDate date) {
+        return exchangeRateCache.getCompleteVersion().map(version -> {
+            String eTag = "\"" + scope + "-" + date + "-" + Long.toHexString(version.refreshedAt().toEpochMilli()) + "\"";
+            if (version.latestExchangeDate() == null || !date.isBefore(version.latestExchangeDate())) {
+                return new RateValidators(eTag, version.refreshedAt(), latestCacheControl(version));
+            }
+            return new RateValidators(
+                    eTag,
+                    date.atStartOfDay().toInstant(ZoneOffset.UTC),
+                    CacheControl.maxAge(historicalMaxAge).cachePublic().immutable());
+        });
+    }
+
+    private static String contentTag(List<ExchangeRateResponse> rates) {
+        return "\"" + ExchangeRateCache.fingerprint(rates) + "\"";
+    }
+
+    private RateValidators latestValidators(SnapshotVersion version) {
+        return new RateValidators(
+                "\"" + version.fingerprint() + "\"",
+                version.refreshedAt(),
+                latestCacheControl(version));
+    }
+
+    private CacheControl latestCacheControl(SnapshotVersion version) {
+        if (refreshCron == null) {
+            return CacheControl.noCache();
+        }
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime nextRefresh = refreshCron.next(version.refreshedAt().atZone(clock.getZone()));
+        if (nextRefresh == null || !nextRefresh.isAfter(now)) {
+            return CacheControl.maxAge(pendingRefreshMaxAge).cachePublic();
+        }
+        return CacheControl.maxAge(Duration.between(now, nextRefresh)).cachePublic();
+    }
+}
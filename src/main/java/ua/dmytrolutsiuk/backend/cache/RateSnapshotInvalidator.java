@@ -0,0 +1,277 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.dmytrolutsiuk.backend.alert.AlertRuleIndex;
+import ua.dmytrolutsiuk.backend.event.AlertRuleChangedEvent;
+import ua.dmytrolutsiuk.backend.event.ExchangeRatesUpdatedEvent;
+import ua.dmytrolutsiuk.backend.repository.IndexedAlertRule;
+import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
+import ua.dmytrolutsiuk.backend.service.SchedulerLockService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+public class RateSnapshotInvalidator implements DisposableBean {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final ExchangeRateService exchangeRateService;
+    private final AlertRuleIndex alertRuleIndex;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final boolean enabled;
+    private final String channel;
+    private final String rulesChannel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final AtomicLong unapplied = new AtomicLong();
+    private final Timer propagation;
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listener;
+
+    public RateSnapshotInvalidator(
+            ExchangeRateService exchangeRateService,
+            AlertRuleIndex alertRuleIndex,
+            ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            SchedulerLockService schedulerLockService,
+            MeterRegistry meterRegistry,
+            @Value("${exchange-rate.cache.invalidation.enabled:true}") boolean enabled,
+            @Value("${exchange-rate.cache.invalidation.channel:rate_snapshot}") String channel,
+            @Value("${exchange-rate.cache.invalidation.rules-channel:alert_rules}") String rulesChannel,
+            @Value("${exchange-rate.cache.invalidation.poll-timeout:10s}") Duration pollTimeout,
+            @Value("${exchange-rate.cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        for (String name : List.of(channel, rulesChannel)) {
+            if (!CHANNEL_NAME.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid invalidation channel name: " + name);
+            }
+        }
+        this.exchangeRateService = exchangeRateService;
+        this.alertRuleIndex = alertRuleIndex;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = schedulerLockService.getNodeId();
+        this.enabled = enabled && isPostgres(dataSourceProperties.determineUrl());
+        this.channel = channel;
+        this.rulesChannel = rulesChannel;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.propagation = Timer.builder("exchange.rate.snapshot.propagation")
+                .description("Time from receiving another node's snapshot announcement to serving the reloaded rates")
+                .register(meterRegistry);
+        Gauge.builder("exchange.rate.snapshot.announcements.pending", unapplied, AtomicLong::get)
+                .description("Snapshot announcements from other nodes that this node has not reloaded for yet")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled) {
+            log.info("Cross-node rate cache invalidation is disabled for {}", dataSourceProperties.determineUrl());
+            return;
+        }
+        if (running) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofVirtual().name("rate-snapshot-listener").start(this::listen);
+    }
+
+    // The announcement only names the sending node. Node clocks are not comparable, so every announcement
+    // from another node triggers a reload; announcements that arrive together share one reload.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExchangeRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, nodeId);
+            log.info("Announced a new rate snapshot on channel {}", channel);
+        } catch (Exception e) {
+            log.warn("Failed to announce a new rate snapshot; other nodes keep serving their current rates", e);
+        }
+    }
+
+    // Rule changes are announced with the rule itself, so other nodes update their index in place instead of
+    // rebuilding it from every subscription's rules.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertRuleChanged(AlertRuleChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            String payload = objectMapper.writeValueAsString(new RuleAnnouncement(nodeId, event.removed(), event.rule()));
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", rulesChannel, payload);
+        } catch (Exception e) {
+            log.warn("Failed to announce a change to alert rule {}; other nodes keep their current rules until "
+                    + "their listener reconnects", event.rule().id(), e);
+        }
+    }
+
+    void onRuleNotifications(List<String> payloads) {
+        for (String payload : payloads) {
+            RuleAnnouncement announcement;
+            try {
+                announcement = objectMapper.readValue(payload, RuleAnnouncement.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Ignoring malformed alert rule announcement: {}", payload, e);
+                continue;
+            }
+            if (announcement.node().equals(nodeId)) {
+                continue;
+            }
+            if (announcement.removed()) {
+                alertRuleIndex.remove(announcement.rule());
+            } else {
+                alertRuleIndex.add(announcement.rule());
+            }
+        }
+    }
+
+    void onNotifications(List<String> payloads) {
+        long received = System.nanoTime();
+        int foreign = 0;
+        for (String payload : payloads) {
+            if (!payload.equals(nodeId)) {
+                foreign++;
+            }
+        }
+        if (foreign == 0) {
+            return;
+        }
+
+        unapplied.addAndGet(foreign);
+        reload("notification");
+        propagation.record(System.nanoTime() - received, TimeUnit.NANOSECONDS);
+    }
+
+    long pendingAnnouncements() {
+        return unapplied.get();
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        closeConnection();
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                    statement.execute("LISTEN " + rulesChannel);
+                }
+                log.info("Listening for rate snapshot versions on channel {} and alert rules on channel {}",
+                        channel, rulesChannel);
+                if (reconnect) {
+                    reload("reconnect");
+                    alertRuleIndex.reload();
+                }
+
+                PGConnection pgConnection = listening.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        List<String> payloads = new ArrayList<>(notifications.length);
+                        List<String> rulePayloads = new ArrayList<>();
+                        for (PGNotification notification : notifications) {
+                            if (rulesChannel.equals(notification.getName())) {
+                                rulePayloads.add(notification.getParameter());
+                            } else {
+                                payloads.add(notification.getParameter());
+                            }
+                        }
+                        if (!rulePayloads.isEmpty()) {
+                            onRuleNotifications(rulePayloads);
+                        }
+                        if (!payloads.isEmpty()) {
+                            onNotifications(payloads);
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Rate snapshot listener lost its connection; reconnecting in {}", reconnectDelay, e);
+                reconnect = true;
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void reload(String reason) {
+        long pending = unapplied.get();
+        exchangeRateService.refreshLatestRates();
+        unapplied.addAndGet(-pending);
+        meterRegistry.counter("exchange.rate.snapshot.reloads", "reason", reason).increment();
+        log.info("Reloaded latest rates after {} ({} announcements applied)", reason, pending);
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close rate snapshot listener connection", e);
+        }
+    }
+
+    private static boolean isPostgres(String url) {
+        return url != null && url.startsWith("jdbc:postgresql:");
+    }
+
+    record RuleAnnouncement(String node, boolean removed, IndexedAlertRule rule) {
+    }
+}
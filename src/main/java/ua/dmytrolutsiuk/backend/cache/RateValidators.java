@@ -0,0 +1,12 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Instant;
+
+public record RateValidators(
+        String eTag,
+        Instant lastModified,
+        CacheControl cacheControl
+) {
+}
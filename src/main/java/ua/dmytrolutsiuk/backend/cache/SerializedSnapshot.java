@@ -0,0 +1,8 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+public record SerializedSnapshot(
+        SnapshotVersion version,
+        byte[] json,
+        byte[] gzip
+) {
+}
@@ -0,0 +1,12 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record SnapshotVersion(
+        long version,
+        String fingerprint,
+        LocalDate latestExchangeDate,
+        Instant refreshedAt
+) {
+}
@@ -0,0 +1,45 @@
+package ua.dmytrolutsiuk.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ua.dmytrolutsiuk.backend.mail.PooledJavaMailSender;
+
+import java.time.Duration;
+import java.util.Properties;
+
+@Configuration
+@ConditionalOnProperty(name = "mail.pool.enabled", havingValue = "true")
+@EnableConfigurationProperties(MailProperties.class)
+public class MailPoolConfig {
+
+    @Bean
+    public PooledJavaMailSender pooledJavaMailSender(
+            MailProperties mailProperties,
+            @Value("${mail.pool.size:8}") int poolSize,
+            @Value("${mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${mail.pool.idle-timeout:30s}") Duration idleTimeout) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(poolSize, maxMessagesPerConnection, idleTimeout);
+
+        sender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            sender.setPort(mailProperties.getPort());
+        }
+        sender.setUsername(mailProperties.getUsername());
+        sender.setPassword(mailProperties.getPassword());
+        sender.setProtocol(mailProperties.getProtocol());
+        if (mailProperties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+        }
+        if (!mailProperties.getProperties().isEmpty()) {
+            Properties javaMailProperties = new Properties();
+            javaMailProperties.putAll(mailProperties.getProperties());
+            sender.setJavaMailProperties(javaMailProperties);
+        }
+
+        return sender;
+    }
+}
@@ -0,0 +1,33 @@
+package ua.dmytrolutsiuk.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.ClientHttpRequestFactorySettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+import ua.dmytrolutsiuk.backend.service.NbuApiClient;
+
+import java.time.Duration;
+
+@Configuration
+public class RateProviderConfig {
+
+    @Bean
+    public NbuApiClient nbuApiClient(
+            RestClient.Builder restClientBuilder,
+            ObjectMapper objectMapper,
+            @Value("${nbu.api.url}") String nbuApiUrl,
+            @Value("${nbu.api.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${nbu.api.read-timeout:5s}") Duration readTimeout) {
+        ClientHttpRequestFactorySettings settings = ClientHttpRequestFactorySettings.defaults()
+                .withConnectTimeout(connectTimeout)
+                .withReadTimeout(readTimeout);
+
+        return new NbuApiClient(
+                restClientBuilder.clone().requestFactory(ClientHttpRequestFactoryBuilder.detect().build(settings)),
+                objectMapper,
+                nbuApiUrl);
+    }
+}
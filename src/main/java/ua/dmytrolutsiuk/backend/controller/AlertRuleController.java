@@ -0,0 +1,111 @@
+package ua.dmytrolutsiuk.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ua.dmytrolutsiuk.backend.dto.AlertRuleRequest;
+import ua.dmytrolutsiuk.backend.dto.AlertRuleResponse;
+import ua.dmytrolutsiuk.backend.service.AlertRuleService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/subscriptions/{subscriptionId}/alerts")
+@RequiredArgsConstructor
+@Tag(name = "Alerts", description = "API for conditional notifications on rate thresholds and changes")
+public class AlertRuleController {
+
+    private final AlertRuleService alertRuleService;
+
+    @Operation(
+            summary = "Add an alert rule to a subscription",
+            description = "A subscription with at least one alert rule is no longer notified every day. Instead it is "
+                    + "notified on the day an ingested rate crosses a threshold or moves by the given percent"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Alert rule created",
+                    content = @Content(schema = @Schema(implementation = AlertRuleResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid alert type or threshold",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Subscription not found",
+                    content = @Content
+            )
+    })
+    @PostMapping
+    public ResponseEntity<AlertRuleResponse> addRule(
+            @Parameter(description = "Subscription identifier", example = "1", required = true)
+            @PathVariable Long subscriptionId,
+            @RequestBody(description = "Alert type and threshold", required = true)
+            @Valid @org.springframework.web.bind.annotation.RequestBody AlertRuleRequest request
+    ) {
+        AlertRuleResponse response = alertRuleService.addRule(subscriptionId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @Operation(summary = "List alert rules of a subscription")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Alert rules returned",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = AlertRuleResponse.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Subscription not found",
+                    content = @Content
+            )
+    })
+    @GetMapping
+    public ResponseEntity<List<AlertRuleResponse>> getRules(
+            @Parameter(description = "Subscription identifier", example = "1", required = true)
+            @PathVariable Long subscriptionId
+    ) {
+        return ResponseEntity.ok(alertRuleService.getRules(subscriptionId));
+    }
+
+    @Operation(
+            summary = "Delete an alert rule",
+            description = "Once the last rule is removed the subscription is notified every day again"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Alert rule deleted",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Subscription or alert rule not found",
+                    content = @Content
+            )
+    })
+    @DeleteMapping("/{alertId}")
+    public ResponseEntity<Void> deleteRule(
+            @Parameter(description = "Subscription identifier", example = "1", required = true)
+            @PathVariable Long subscriptionId,
+            @Parameter(description = "Alert rule identifier", example = "1", required = true)
+            @PathVariable Long alertId
+    ) {
+        alertRuleService.deleteRule(subscriptionId, alertId);
+        return ResponseEntity.noContent().build();
+    }
+}
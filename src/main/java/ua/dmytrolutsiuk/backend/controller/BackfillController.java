@@ -0,0 +1,71 @@
+package ua.dmytrolutsiuk.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ua.dmytrolutsiuk.backend.dto.BackfillStatus;
+import ua.dmytrolutsiuk.backend.service.ExchangeRateBackfillService;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/backfill")
+@RequiredArgsConstructor
+@Tag(name = "Backfill", description = "Administrative API for loading historical exchange rates from NBU")
+public class BackfillController {
+
+    private final ExchangeRateBackfillService backfillService;
+
+    @Operation(
+            summary = "Start a historical backfill",
+            description = "Fetches every day in the range from NBU in the background. Days that were already "
+                    + "backfilled are skipped, so an interrupted run can simply be started again"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Backfill started",
+                    content = @Content(schema = @Schema(implementation = BackfillStatus.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Another backfill is already running",
+                    content = @Content(schema = @Schema(implementation = BackfillStatus.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid date range",
+                    content = @Content
+            )
+    })
+    @PostMapping
+    public ResponseEntity<BackfillStatus> startBackfill(
+            @Parameter(description = "First date to backfill in ISO format", example = "2024-01-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last date to backfill in ISO format", example = "2024-12-31", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        boolean started = backfillService.startBackfill(from, to);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(backfillService.getStatus());
+    }
+
+    @Operation(summary = "Get backfill status", description = "Reports whether a backfill is running and the result of the last one")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Current backfill status",
+            content = @Content(schema = @Schema(implementation = BackfillStatus.class))
+    )
+    @GetMapping
+    public ResponseEntity<BackfillStatus> getStatus() {
+        return ResponseEntity.ok(backfillService.getStatus());
+    }
+}
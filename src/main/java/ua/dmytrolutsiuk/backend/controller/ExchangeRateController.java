@@ -2,6 +2,7 @@ package ua.dmytrolutsiuk.backend.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,12 +10,29 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.dmytrolutsiuk.backend.cache.CrossRateSnapshot;
+import ua.dmytrolutsiuk.backend.cache.RateHttpCachePolicy;
+import ua.dmytrolutsiuk.backend.cache.RateValidators;
+import ua.dmytrolutsiuk.backend.cache.SerializedSnapshot;
+import ua.dmytrolutsiuk.backend.dto.CrossRateMatrixResponse;
+import ua.dmytrolutsiuk.backend.dto.CrossRateResponse;
 import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.dto.RateHistoryQuery;
+import ua.dmytrolutsiuk.backend.history.HistoryFormat;
+import ua.dmytrolutsiuk.backend.history.RateHistoryExporter;
 import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/rates")
@@ -23,6 +41,86 @@ import java.time.LocalDate;
 public class ExchangeRateController {
 
     private final ExchangeRateService exchangeRateService;
+    private final RateHistoryExporter rateHistoryExporter;
+    private final RateHttpCachePolicy rateHttpCachePolicy;
+
+    @Operation(
+            summary = "Get latest exchange rates for all currencies",
+            description = "Returns the full latest-rate snapshot sorted by currency code. The body is serialized "
+                    + "once per ingest and served as-is, gzip-encoded when the client accepts it"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved the snapshot",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ExchangeRateResponse.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Snapshot unchanged since the ETag sent in If-None-Match",
+                    content = @Content
+            )
+    })
+    @GetMapping(params = "!date")
+    public ResponseEntity<byte[]> getLatestSnapshot(
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        SerializedSnapshot snapshot = exchangeRateService.getLatestSnapshot();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        RateValidators validators = rateHttpCachePolicy.snapshot(snapshot.version(), gzip ? "gzip" : null);
+
+        if (request.checkNotModified(validators.eTag(), validators.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(validators.cacheControl())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(validators.cacheControl())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? snapshot.gzip() : snapshot.json());
+    }
+
+    @Operation(
+            summary = "Get exchange rates for all currencies on a date",
+            description = "Returns every currency's exchange rate for the given date, sorted by currency code"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved the snapshot",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ExchangeRateResponse.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Snapshot unchanged since the ETag sent in If-None-Match",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid date format",
+                    content = @Content
+            )
+    })
+    @GetMapping(params = "date")
+    public ResponseEntity<List<ExchangeRateResponse>> getSnapshotByDate(
+            @Parameter(description = "Date of the snapshot in ISO format", example = "2024-01-15", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        return conditional(request, rateHttpCachePolicy.snapshotByDate(date), () -> {
+            List<ExchangeRateResponse> rates = exchangeRateService.getRatesByDate(date);
+            if (rates.isEmpty()) {
+                throw new RuntimeException("Exchange rates not found for date: " + date);
+            }
+            return rates;
+        });
+    }
 
     @Operation(
             summary = "Get latest exchange rate",
@@ -34,6 +132,11 @@ public class ExchangeRateController {
                     description = "Successfully retrieved exchange rate",
                     content = @Content(schema = @Schema(implementation = ExchangeRateResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Rate unchanged since the ETag sent in If-None-Match",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Currency not found",
@@ -48,9 +151,67 @@ public class ExchangeRateController {
     @GetMapping("/{currencyCode}")
     public ResponseEntity<ExchangeRateResponse> getLatestRate(
             @Parameter(description = "ISO 4217 currency code (e.g., USD, EUR, GBP)", example = "USD", required = true)
-            @PathVariable String currencyCode) {
+            @PathVariable String currencyCode,
+            WebRequest request) {
         ExchangeRateResponse rate = exchangeRateService.getLatestRate(currencyCode);
-        return ResponseEntity.ok(rate);
+        return conditional(request, rateHttpCachePolicy.latest(rate), () -> rate);
+    }
+
+    @Operation(
+            summary = "Get all cross rates",
+            description = "Returns the cross-rate matrix between every pair of latest official rates, UAH included. "
+                    + "The matrix is computed once per ingest"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved the cross-rate matrix",
+                    content = @Content(schema = @Schema(implementation = CrossRateMatrixResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Matrix unchanged since the ETag sent in If-None-Match",
+                    content = @Content
+            )
+    })
+    @GetMapping("/cross")
+    public ResponseEntity<CrossRateMatrixResponse> getCrossRateMatrix(WebRequest request) {
+        CrossRateSnapshot snapshot = exchangeRateService.getCrossRateSnapshot();
+        return conditional(request, Optional.of(rateHttpCachePolicy.cross(snapshot)), snapshot.matrix()::toResponse);
+    }
+
+    @Operation(
+            summary = "Get a cross rate",
+            description = "Returns how many units of the quote currency one unit of the base currency buys, derived "
+                    + "from the latest official UAH rates. UAH can be used on either side"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved the cross rate",
+                    content = @Content(schema = @Schema(implementation = CrossRateResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Rate unchanged since the ETag sent in If-None-Match",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Currency not found",
+                    content = @Content
+            )
+    })
+    @GetMapping("/cross/{base}/{quote}")
+    public ResponseEntity<CrossRateResponse> getCrossRate(
+            @Parameter(description = "Base currency code", example = "EUR", required = true)
+            @PathVariable String base,
+            @Parameter(description = "Quote currency code", example = "USD", required = true)
+            @PathVariable String quote,
+            WebRequest request) {
+        CrossRateSnapshot snapshot = exchangeRateService.getCrossRateSnapshot();
+        CrossRateResponse rate = exchangeRateService.getCrossRate(snapshot.matrix(), base, quote);
+        return conditional(request, Optional.of(rateHttpCachePolicy.cross(snapshot)), () -> rate);
     }
 
     @Operation(
@@ -63,6 +224,11 @@ public class ExchangeRateController {
                     description = "Successfully retrieved exchange rate",
                     content = @Content(schema = @Schema(implementation = ExchangeRateResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Rate unchanged since the ETag sent in If-None-Match",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Currency or date not found",
@@ -84,8 +250,98 @@ public class ExchangeRateController {
             @Parameter(description = "ISO 4217 currency code (e.g., USD, EUR, GBP)", example = "USD", required = true)
             @PathVariable String currencyCode,
             @Parameter(description = "Date for historical rate in ISO format", example = "2024-01-15", required = true)
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        ExchangeRateResponse rate = exchangeRateService.getRateByDate(currencyCode, date);
-        return ResponseEntity.ok(rate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        return conditional(request, rateHttpCachePolicy.byDate(currencyCode, date),
+                () -> exchangeRateService.getRateByDate(currencyCode, date));
+    }
+
+    @Operation(
+            summary = "Get exchange rate history for a date range",
+            description = "Streams exchange rates between two dates for one or more currencies. "
+                    + "JSON responses are columnar: one series per currency with parallel dates and rates arrays"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully streamed exchange rate history",
+                    content = {
+                            @Content(mediaType = "application/json"),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid date range or format",
+                    content = @Content
+            )
+    })
+    @GetMapping("/history")
+    public ResponseEntity<StreamingResponseBody> getRateHistory(
+            @Parameter(description = "First date of the range in ISO format", example = "2024-01-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last date of the range in ISO format", example = "2024-12-31", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "ISO 4217 currency codes; all currencies when omitted", example = "USD,EUR")
+            @RequestParam(required = false) List<String> currencies,
+            @Parameter(description = "Response format: json or csv", example = "json")
+            @RequestParam(defaultValue = "json") String format) {
+        RateHistoryQuery query = new RateHistoryQuery(from, to, currencies);
+        HistoryFormat historyFormat = HistoryFormat.fromName(format);
+
+        return ResponseEntity.ok()
+                .contentType(historyFormat.mediaType())
+                .body(out -> rateHistoryExporter.export(query, historyFormat, out));
+    }
+
+    // The body is produced only when the request is not answered with 304.
+    private static <T> ResponseEntity<T> conditional(
+            WebRequest request, Optional<RateValidators> validators, Supplier<T> body) {
+        if (validators.isEmpty()) {
+            return ResponseEntity.ok(body.get());
+        }
+
+        RateValidators current = validators.get();
+        if (request.checkNotModified(current.eTag(), current.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(current.cacheControl())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(current.cacheControl())
+                .body(body.get());
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                gzip = quality(parts) > 0;
+            } else if (name.equals("*")) {
+                wildcard = quality(parts) > 0;
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 }
@@ -0,0 +1,86 @@
+package ua.dmytrolutsiuk.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.stream.RateStreamBroadcaster;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/rates/stream")
+@RequiredArgsConstructor
+@Tag(name = "Exchange Rates", description = "API for retrieving exchange rates from the National Bank of Ukraine")
+public class RateStreamController {
+
+    private static final String RETRY_AFTER_SECONDS = "30";
+
+    private final RateStreamBroadcaster rateStreamBroadcaster;
+
+    @Operation(
+            summary = "Stream rate updates",
+            description = "Opens a Server-Sent Events stream. The latest rates are sent on connect and every rate that "
+                    + "changes is pushed as a 'rate' event once the daily ingest commits, so clients no longer need to poll"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stream opened",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = ExchangeRateResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid currency code",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Node is at its stream connection limit; retry after the Retry-After delay",
+                    content = @Content
+            )
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @Parameter(description = "Currency codes to receive; all currencies when omitted", example = "USD,EUR")
+            @RequestParam(required = false) List<String> currencies) {
+        return rateStreamBroadcaster.open(normalize(currencies))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                        .build());
+    }
+
+    private static Set<String> normalize(List<String> currencies) {
+        if (currencies == null) {
+            return Set.of();
+        }
+        Set<String> codes = new HashSet<>();
+        for (String currency : currencies) {
+            String code = currency.trim().toUpperCase();
+            if (code.length() != 3) {
+                throw new IllegalArgumentException("Currency code must be 3 characters: " + currency);
+            }
+            codes.add(code);
+        }
+        return codes;
+    }
+}
@@ -2,6 +2,7 @@ package ua.dmytrolutsiuk.backend.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
@@ -10,12 +11,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.dmytrolutsiuk.backend.dto.MultiCurrencySubscriptionRequest;
 import ua.dmytrolutsiuk.backend.dto.SubscriptionRequest;
 import ua.dmytrolutsiuk.backend.dto.SubscriptionResponse;
 import ua.dmytrolutsiuk.backend.service.SubscriptionService;
+import ua.dmytrolutsiuk.backend.subscription.SubscriptionExporter;
+import ua.dmytrolutsiuk.backend.subscription.SubscriptionFormat;
+import ua.dmytrolutsiuk.backend.subscription.SubscriptionImporter;
+
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/subscriptions")
@@ -24,6 +35,8 @@ import ua.dmytrolutsiuk.backend.service.SubscriptionService;
 public class SubscriptionController {
 
     private final SubscriptionService subscriptionService;
+    private final SubscriptionImporter subscriptionImporter;
+    private final SubscriptionExporter subscriptionExporter;
 
     @Operation(
             summary = "Subscribe to currency rate notifications",
@@ -60,6 +73,33 @@ public class SubscriptionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Operation(
+            summary = "Subscribe to several currencies at once",
+            description = "Creates or reactivates one subscription per listed currency for the same email address. "
+                    + "Currencies the address already follows are kept active, and the requested locale is applied "
+                    + "to all of them. The daily notification groups every followed currency into a single digest email"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Subscriptions created or reactivated",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = SubscriptionResponse.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request data (invalid email format, empty list or invalid currency code)",
+                    content = @Content
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<SubscriptionResponse>> subscribeAll(
+            @RequestBody(description = "Email address and the currency codes to follow", required = true)
+            @Valid @org.springframework.web.bind.annotation.RequestBody MultiCurrencySubscriptionRequest request
+    ) {
+        List<SubscriptionResponse> responses = subscriptionService.subscribeAll(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(responses);
+    }
+
     @Operation(
             summary = "Unsubscribe from currency rate notifications",
             description = "Removes an existing email subscription for a specific currency exchange rate"
@@ -96,4 +136,65 @@ public class SubscriptionController {
         subscriptionService.unsubscribe(email, currencyCode);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(
+            summary = "Bulk import subscriptions",
+            description = "Streams NDJSON (one subscription request per line) or CSV (email,currency_code[,locale] "
+                    + "with an optional header) and upserts rows in batches. Responds with one NDJSON result per "
+                    + "input row in input order, followed by a summary line"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import processed; per-row results are streamed",
+                    content = @Content(mediaType = "application/x-ndjson")
+            ),
+            @ApiResponse(
+                    responseCode = "415",
+                    description = "Unsupported content type",
+                    content = @Content
+            )
+    })
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<StreamingResponseBody> importSubscriptions(
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) {
+        SubscriptionFormat format = SubscriptionFormat.fromContentType(contentType);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> subscriptionImporter.importSubscriptions(body, format, out));
+    }
+
+    @Operation(
+            summary = "Export subscriptions",
+            description = "Streams every subscription, active or not, ordered by id as NDJSON or CSV"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Subscriptions streamed",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Unsupported format",
+                    content = @Content
+            )
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSubscriptions(
+            @Parameter(description = "Response format: ndjson or csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        SubscriptionFormat exportFormat = SubscriptionFormat.fromName(format);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .body(out -> subscriptionExporter.export(exportFormat, out));
+    }
 }
@@ -0,0 +1,34 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ua.dmytrolutsiuk.backend.model.AlertType;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Condition that has to be met before a subscription is notified")
+public class AlertRuleRequest {
+
+    @Schema(description = "CROSSES_ABOVE and CROSSES_BELOW fire when the rate crosses the threshold in that direction; "
+            + "CHANGE_PERCENT fires when the rate moves by at least the threshold percent in either direction",
+            example = "CHANGE_PERCENT", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Alert type is required")
+    private AlertType type;
+
+    @Schema(description = "Rate in UAH for crossing alerts, or percent for change alerts", example = "0.5",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Threshold is required")
+    @Positive(message = "Threshold must be positive")
+    @Digits(integer = 13, fraction = 6, message = "Threshold must have at most 13 integer and 6 fraction digits")
+    private BigDecimal threshold;
+}
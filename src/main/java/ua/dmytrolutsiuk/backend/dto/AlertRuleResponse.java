@@ -0,0 +1,37 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ua.dmytrolutsiuk.backend.model.AlertType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Alert rule attached to a subscription")
+public class AlertRuleResponse {
+
+    @Schema(description = "Unique alert rule identifier", example = "1")
+    private Long id;
+
+    @Schema(description = "Subscription the rule belongs to", example = "1")
+    private Long subscriptionId;
+
+    @Schema(description = "Currency code of the subscription", example = "USD")
+    private String currencyCode;
+
+    @Schema(description = "Alert condition", example = "CROSSES_ABOVE")
+    private AlertType type;
+
+    @Schema(description = "Rate in UAH for crossing alerts, or percent for change alerts", example = "45.00")
+    private BigDecimal threshold;
+
+    @Schema(description = "Timestamp when the rule was created", example = "2024-01-15T10:30:00")
+    private LocalDateTime createdAt;
+}
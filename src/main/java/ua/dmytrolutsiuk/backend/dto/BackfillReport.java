@@ -0,0 +1,20 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Outcome of a historical exchange rate backfill")
+public record BackfillReport(
+        @Schema(description = "First requested date", example = "2024-01-01") LocalDate from,
+        @Schema(description = "Last requested date", example = "2024-12-31") LocalDate to,
+        @Schema(description = "Days already checkpointed and skipped", example = "120") int skippedDays,
+        @Schema(description = "Days fetched and stored in this run", example = "246") int completedDays,
+        @Schema(description = "Days for which NBU returned no rates", example = "0") int emptyDays,
+        @Schema(description = "Days that failed after all retries") List<LocalDate> failedDates,
+        @Schema(description = "Rates inserted", example = "14760") int saved,
+        @Schema(description = "Rates updated", example = "0") int updated,
+        @Schema(description = "Wall-clock duration of the run", example = "PT41.2S") Duration elapsed) {
+}
@@ -0,0 +1,9 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Current backfill state")
+public record BackfillStatus(
+        @Schema(description = "Whether a backfill is currently running", example = "false") boolean running,
+        @Schema(description = "Report of the most recently finished backfill, if any") BackfillReport lastReport) {
+}
@@ -0,0 +1,17 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Cross rates between every pair of currencies, UAH included")
+public record CrossRateMatrixResponse(
+        @Schema(description = "Most recent official rate date in the matrix", example = "2025-11-17")
+        LocalDate exchangeDate,
+        @ArraySchema(arraySchema = @Schema(description = "Currency codes in row and column order", example = "[\"EUR\", \"UAH\", \"USD\"]"))
+        List<String> currencies,
+        @Schema(description = "rates[i][j] is the number of units of currencies[j] per one unit of currencies[i]")
+        List<List<Double>> rates) {
+}
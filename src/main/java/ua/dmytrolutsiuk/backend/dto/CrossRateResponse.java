@@ -0,0 +1,17 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Cross rate derived from the official UAH rates of two currencies")
+public record CrossRateResponse(
+        @Schema(description = "Base currency code", example = "EUR")
+        String base,
+        @Schema(description = "Quote currency code", example = "USD")
+        String quote,
+        @Schema(description = "Units of the quote currency per one unit of the base currency", example = "1.158349")
+        double rate,
+        @Schema(description = "Older of the two official rate dates the cross rate is derived from", example = "2025-11-17")
+        LocalDate exchangeDate) {
+}
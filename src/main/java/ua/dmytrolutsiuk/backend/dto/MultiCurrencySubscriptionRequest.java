@@ -0,0 +1,42 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Request to subscribe one email address to several currencies at once")
+public class MultiCurrencySubscriptionRequest {
+
+    @Schema(description = "Email address to receive notifications", example = "user@example.com", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email must be valid")
+    private String email;
+
+    @ArraySchema(
+            arraySchema = @Schema(description = "ISO 4217 currency codes to subscribe to", example = "[\"USD\", \"EUR\"]"),
+            schema = @Schema(minLength = 3, maxLength = 3),
+            minItems = 1,
+            maxItems = 100)
+    @NotEmpty(message = "At least one currency code is required")
+    @Size(max = 100, message = "At most 100 currency codes are allowed")
+    private List<@NotBlank(message = "Currency code is required")
+            @Size(min = 3, max = 3, message = "Currency code must be 3 characters") String> currencyCodes;
+
+    @Schema(description = "Notification language; defaults to en", example = "uk", allowableValues = {"en", "uk"})
+    @Pattern(regexp = "(?i)en|uk", message = "Locale must be one of: en, uk")
+    private String locale;
+}
@@ -0,0 +1,6 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import java.util.List;
+
+public record NbuPayload(List<NbuRate> rates, String etag, String lastModified, String contentHash) {
+}
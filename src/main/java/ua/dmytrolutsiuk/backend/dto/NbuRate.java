@@ -0,0 +1,7 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record NbuRate(int r030, String currencyCode, String currencyName, BigDecimal rate, LocalDate exchangeDate) {
+}
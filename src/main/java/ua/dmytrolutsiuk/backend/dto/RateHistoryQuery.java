@@ -0,0 +1,23 @@
+package ua.dmytrolutsiuk.backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+public record RateHistoryQuery(LocalDate from, LocalDate to, List<String> currencyCodes) {
+
+    public RateHistoryQuery {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both 'from' and 'to' dates are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' date must not be after 'to' date");
+        }
+        currencyCodes = currencyCodes == null ? List.of() : currencyCodes.stream()
+                .map(String::trim)
+                .filter(code -> !code.isEmpty())
+                .map(code -> code.toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+    }
+}
@@ -3,6 +3,7 @@ package ua.dmytrolutsiuk.backend.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,4 +26,8 @@ public class SubscriptionRequest {
     @NotBlank(message = "Currency code is required")
     @Size(min = 3, max = 3, message = "Currency code must be 3 characters")
     private String currencyCode;
+
+    @Schema(description = "Notification language; defaults to en", example = "uk", allowableValues = {"en", "uk"})
+    @Pattern(regexp = "(?i)en|uk", message = "Locale must be one of: en, uk")
+    private String locale;
 }
@@ -27,6 +27,9 @@ public class SubscriptionResponse {
     @Schema(description = "Indicates if the subscription is active", example = "true")
     private Boolean active;
 
+    @Schema(description = "Notification language", example = "en")
+    private String locale;
+
     @Schema(description = "Timestamp when the subscription was created", example = "2024-01-15T10:30:00")
     private LocalDateTime createdAt;
 }
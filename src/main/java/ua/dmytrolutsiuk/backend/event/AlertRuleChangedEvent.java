@@ -0,0 +1,6 @@
+package ua.dmytrolutsiuk.backend.event;
+
+import ua.dmytrolutsiuk.backend.repository.IndexedAlertRule;
+
+public record AlertRuleChangedEvent(IndexedAlertRule rule, boolean removed) {
+}
@@ -0,0 +1,6 @@
+package ua.dmytrolutsiuk.backend.event;
+
+import ua.dmytrolutsiuk.backend.repository.UpsertResult;
+
+public record ExchangeRatesUpdatedEvent(UpsertResult result) {
+}
@@ -0,0 +1,70 @@
+package ua.dmytrolutsiuk.backend.history;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ColumnarJsonHistoryWriter implements RateHistoryWriter {
+
+    private final JsonGenerator generator;
+    private final List<LocalDate> dates = new ArrayList<>();
+    private final List<BigDecimal> rates = new ArrayList<>();
+    private String currencyCode;
+
+    public ColumnarJsonHistoryWriter(JsonFactory jsonFactory, OutputStream out, LocalDate from, LocalDate to)
+            throws IOException {
+        this.generator = jsonFactory.createGenerator(out);
+        generator.writeStartObject();
+        generator.writeStringField("from", from.toString());
+        generator.writeStringField("to", to.toString());
+        generator.writeArrayFieldStart("series");
+    }
+
+    @Override
+    public void write(String currencyCode, LocalDate exchangeDate, BigDecimal rate) throws IOException {
+        if (!currencyCode.equals(this.currencyCode)) {
+            flushSeries();
+            this.currencyCode = currencyCode;
+        }
+        dates.add(exchangeDate);
+        rates.add(rate);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        flushSeries();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private void flushSeries() throws IOException {
+        if (currencyCode == null) {
+            return;
+        }
+
+        generator.writeStartObject();
+        generator.writeStringField("currencyCode", currencyCode);
+        generator.writeArrayFieldStart("dates");
+        for (LocalDate date : dates) {
+            generator.writeString(date.toString());
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("rates");
+        for (BigDecimal rate : rates) {
+            generator.writeNumber(rate.stripTrailingZeros().toPlainString());
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+
+        dates.clear();
+        rates.clear();
+        currencyCode = null;
+    }
+}
@@ -0,0 +1,37 @@
+package ua.dmytrolutsiuk.backend.history;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+public class CsvHistoryWriter implements RateHistoryWriter {
+
+    private static final String HEADER = "currency_code,exchange_date,rate\n";
+
+    private final Writer writer;
+
+    public CsvHistoryWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+    }
+
+    @Override
+    public void write(String currencyCode, LocalDate exchangeDate, BigDecimal rate) throws IOException {
+        writer.write(currencyCode);
+        writer.write(',');
+        writer.write(exchangeDate.toString());
+        writer.write(',');
+        writer.write(rate.stripTrailingZeros().toPlainString());
+        writer.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+}
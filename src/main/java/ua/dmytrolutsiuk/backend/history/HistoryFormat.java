@@ -0,0 +1,29 @@
+package ua.dmytrolutsiuk.backend.history;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum HistoryFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    HistoryFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static HistoryFormat fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported history format: " + name + " (expected json or csv)");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ua.dmytrolutsiuk.backend.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.dmytrolutsiuk.backend.dto.RateHistoryQuery;
+import ua.dmytrolutsiuk.backend.repository.ExchangeRateRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RateHistoryExporter {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(RateHistoryQuery query, HistoryFormat format, OutputStream out) throws IOException {
+        log.debug("Exporting {} rate history from {} to {} for currencies: {}",
+                format, query.from(), query.to(), query.currencyCodes().isEmpty() ? "all" : query.currencyCodes());
+
+        RateHistoryWriter writer = switch (format) {
+            case JSON -> new ColumnarJsonHistoryWriter(objectMapper.getFactory(), out, query.from(), query.to());
+            case CSV -> new CsvHistoryWriter(out);
+        };
+
+        try {
+            exchangeRateRepository.streamRange(query.from(), query.to(), query.currencyCodes(),
+                    (currencyCode, exchangeDate, rate) -> {
+                        try {
+                            writer.write(currencyCode, exchangeDate, rate);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+}
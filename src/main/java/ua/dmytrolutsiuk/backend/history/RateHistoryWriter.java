@@ -0,0 +1,12 @@
+package ua.dmytrolutsiuk.backend.history;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface RateHistoryWriter {
+
+    void write(String currencyCode, LocalDate exchangeDate, BigDecimal rate) throws IOException;
+
+    void finish() throws IOException;
+}
@@ -0,0 +1,70 @@
+package ua.dmytrolutsiuk.backend.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class MailTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([A-Za-z][A-Za-z0-9]*)\\s*}}");
+
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private MailTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MailTemplate parse(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int position = 0;
+
+        while (matcher.find()) {
+            literals.add(source.substring(position, matcher.start()));
+            variables.add(matcher.group(1));
+            position = matcher.end();
+        }
+        literals.add(source.substring(position));
+
+        return new MailTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new));
+    }
+
+    public String render(Map<String, String> values) {
+        return render(values, UnaryOperator.identity());
+    }
+
+    public String render(Map<String, String> values, UnaryOperator<String> escaper) {
+        String[] resolved = new String[variables.length];
+        int length = literalLength;
+        for (int i = 0; i < variables.length; i++) {
+            String value = values.get(variables[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for template variable: " + variables[i]);
+            }
+            resolved[i] = escaper.apply(value);
+            length += resolved[i].length();
+        }
+
+        StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < resolved.length; i++) {
+            result.append(literals[i]).append(resolved[i]);
+        }
+        return result.append(literals[literals.length - 1]).toString();
+    }
+
+    public List<String> variables() {
+        return List.of(variables);
+    }
+}
@@ -0,0 +1,202 @@
+package ua.dmytrolutsiuk.backend.mail;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final long VALIDATE_AFTER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutNanos;
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idle = new ArrayDeque<>();
+    private final AtomicLong openedConnections = new AtomicLong();
+    private final ScheduledExecutorService evictor;
+
+    public PooledJavaMailSender(int poolSize, int maxMessagesPerConnection, Duration idleTimeout) {
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.permits = new Semaphore(poolSize, true);
+
+        long evictionPeriodMs = Math.max(1000, idleTimeout.toMillis() / 2);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("smtp-pool-evictor").daemon().factory());
+        this.evictor.scheduleAtFixedRate(this::evictIdle, evictionPeriodMs, evictionPeriodMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+
+        PooledTransport pooled;
+        try {
+            pooled = borrow();
+        } catch (AuthenticationFailedException ex) {
+            throw new MailAuthenticationException(ex);
+        } catch (Exception ex) {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessages[i], ex);
+            }
+            throw new MailSendException("Mail server connection failed", ex, failedMessages);
+        }
+
+        boolean reusable = true;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : mimeMessage;
+                if (!reusable) {
+                    failedMessages.put(original, new MessagingException("SMTP connection lost during batch"));
+                    continue;
+                }
+                try {
+                    if (mimeMessage.getSentDate() == null) {
+                        mimeMessage.setSentDate(new Date());
+                    }
+                    String messageId = mimeMessage.getMessageID();
+                    mimeMessage.saveChanges();
+                    if (messageId != null) {
+                        mimeMessage.setHeader("Message-ID", messageId);
+                    }
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    pooled.transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+                    pooled.messagesSent++;
+                } catch (Exception ex) {
+                    failedMessages.put(original, ex);
+                    reusable = pooled.transport.isConnected();
+                }
+            }
+        } finally {
+            release(pooled, reusable);
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    public long getOpenedConnections() {
+        return openedConnections.get();
+    }
+
+    public int getIdleConnections() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+        synchronized (idle) {
+            idle.forEach(PooledTransport::close);
+            idle.clear();
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        try {
+            long now = System.nanoTime();
+            PooledTransport pooled;
+            while ((pooled = pollIdle()) != null) {
+                if (now - pooled.lastUsedNanos < VALIDATE_AFTER_IDLE_NANOS || pooled.transport.isConnected()) {
+                    return pooled;
+                }
+                pooled.close();
+            }
+
+            Transport transport = connectTransport();
+            openedConnections.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (MessagingException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    private PooledTransport pollIdle() {
+        synchronized (idle) {
+            return idle.pollFirst();
+        }
+    }
+
+    private void release(PooledTransport pooled, boolean reusable) {
+        try {
+            if (reusable && pooled.messagesSent < maxMessagesPerConnection) {
+                pooled.lastUsedNanos = System.nanoTime();
+                synchronized (idle) {
+                    idle.addFirst(pooled);
+                }
+            } else {
+                pooled.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        List<PooledTransport> evicted = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<PooledTransport> iterator = idle.descendingIterator();
+            while (iterator.hasNext()) {
+                PooledTransport pooled = iterator.next();
+                if (now - pooled.lastUsedNanos >= idleTimeoutNanos) {
+                    iterator.remove();
+                    evicted.add(pooled);
+                }
+            }
+        }
+        evicted.forEach(PooledTransport::close);
+        if (!evicted.isEmpty()) {
+            log.debug("Evicted {} idle SMTP connection(s)", evicted.size());
+        }
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (Exception ex) {
+                log.debug("Failed to close SMTP connection", ex);
+            }
+        }
+    }
+}
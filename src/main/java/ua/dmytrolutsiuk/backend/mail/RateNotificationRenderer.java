@@ -0,0 +1,148 @@
+package ua.dmytrolutsiuk.backend.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class RateNotificationRenderer {
+
+    private static final String TEMPLATE_ROOT = "templates/mail/rate-notification/";
+    private static final String DIGEST_TEMPLATE_ROOT = "templates/mail/rate-digest/";
+    private static final int MAX_CACHED_RENDERS = 1024;
+
+    private final Map<NotificationLocale, Templates> templates = new EnumMap<>(NotificationLocale.class);
+    private final Map<NotificationLocale, DigestTemplates> digestTemplates = new EnumMap<>(NotificationLocale.class);
+    private final Map<RenderKey, RenderedMail> rendered = new ConcurrentHashMap<>();
+    private final Map<RenderKey, RenderedRow> renderedRows = new ConcurrentHashMap<>();
+
+    public RateNotificationRenderer() {
+        for (NotificationLocale locale : NotificationLocale.values()) {
+            templates.put(locale, new Templates(
+                    MailTemplate.parse(load(locale, "subject.txt").strip()),
+                    MailTemplate.parse(load(locale, "body.txt")),
+                    MailTemplate.parse(load(locale, "body.html"))));
+            digestTemplates.put(locale, new DigestTemplates(
+                    MailTemplate.parse(load(DIGEST_TEMPLATE_ROOT, locale, "subject.txt").strip()),
+                    MailTemplate.parse(load(DIGEST_TEMPLATE_ROOT, locale, "body.txt")),
+                    MailTemplate.parse(load(DIGEST_TEMPLATE_ROOT, locale, "body.html")),
+                    MailTemplate.parse(load(DIGEST_TEMPLATE_ROOT, locale, "row.txt")),
+                    MailTemplate.parse(load(DIGEST_TEMPLATE_ROOT, locale, "row.html"))));
+        }
+    }
+
+    public RenderedMail render(ExchangeRateResponse exchangeRate, NotificationLocale locale) {
+        RenderKey key = new RenderKey(locale, exchangeRate);
+        RenderedMail mail = rendered.get(key);
+        if (mail != null) {
+            return mail;
+        }
+        if (rendered.size() >= MAX_CACHED_RENDERS) {
+            rendered.clear();
+        }
+        return rendered.computeIfAbsent(key, this::renderUncached);
+    }
+
+    public RenderedMail renderDigest(List<ExchangeRateResponse> exchangeRates, NotificationLocale locale) {
+        if (exchangeRates.isEmpty()) {
+            throw new IllegalArgumentException("Digest requires at least one exchange rate");
+        }
+
+        StringBuilder text = new StringBuilder();
+        StringBuilder html = new StringBuilder();
+        StringJoiner currencyCodes = new StringJoiner(", ");
+        for (ExchangeRateResponse exchangeRate : exchangeRates) {
+            RenderedRow row = renderRow(exchangeRate, locale);
+            text.append(row.text());
+            html.append(row.html());
+            currencyCodes.add(exchangeRate.getCurrencyCode());
+        }
+
+        DigestTemplates localized = digestTemplates.get(locale);
+        String count = Integer.toString(exchangeRates.size());
+        return new RenderedMail(
+                localized.subject().render(Map.of("currencyCodes", currencyCodes.toString())),
+                localized.text().render(Map.of("count", count, "rows", text.toString()))
+                        .getBytes(StandardCharsets.UTF_8),
+                localized.html().render(Map.of("count", count, "rows", html.toString()))
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private RenderedRow renderRow(ExchangeRateResponse exchangeRate, NotificationLocale locale) {
+        RenderKey key = new RenderKey(locale, exchangeRate);
+        RenderedRow row = renderedRows.get(key);
+        if (row != null) {
+            return row;
+        }
+        if (renderedRows.size() >= MAX_CACHED_RENDERS) {
+            renderedRows.clear();
+        }
+        return renderedRows.computeIfAbsent(key, this::renderRowUncached);
+    }
+
+    private RenderedRow renderRowUncached(RenderKey key) {
+        DigestTemplates localized = digestTemplates.get(key.locale());
+        Map<String, String> values = values(key.exchangeRate(), key.locale());
+        return new RenderedRow(
+                localized.rowText().render(values),
+                localized.rowHtml().render(values, HtmlUtils::htmlEscape));
+    }
+
+    private RenderedMail renderUncached(RenderKey key) {
+        log.debug("Rendering {} notification for currency: {}", key.locale(), key.exchangeRate().getCurrencyCode());
+
+        Templates localized = templates.get(key.locale());
+        Map<String, String> values = values(key.exchangeRate(), key.locale());
+        return new RenderedMail(
+                localized.subject().render(values),
+                localized.text().render(values).getBytes(StandardCharsets.UTF_8),
+                localized.html().render(values, HtmlUtils::htmlEscape).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> values(ExchangeRateResponse exchangeRate, NotificationLocale locale) {
+        return Map.of(
+                "currencyName", exchangeRate.getCurrencyName(),
+                "currencyCode", exchangeRate.getCurrencyCode(),
+                "rate", exchangeRate.getRate().toPlainString(),
+                "date", exchangeRate.getExchangeDate().format(locale.dateFormatter()));
+    }
+
+    private static String load(NotificationLocale locale, String name) {
+        return load(TEMPLATE_ROOT, locale, name);
+    }
+
+    private static String load(String root, NotificationLocale locale, String name) {
+        ClassPathResource resource = new ClassPathResource(root + locale.tag() + "/" + name);
+        try {
+            return resource.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load mail template: " + resource.getPath(), e);
+        }
+    }
+
+    private record Templates(MailTemplate subject, MailTemplate text, MailTemplate html) {
+    }
+
+    private record DigestTemplates(
+            MailTemplate subject, MailTemplate text, MailTemplate html, MailTemplate rowText, MailTemplate rowHtml) {
+    }
+
+    private record RenderedRow(String text, String html) {
+    }
+
+    private record RenderKey(NotificationLocale locale, ExchangeRateResponse exchangeRate) {
+    }
+}
@@ -0,0 +1,4 @@
+package ua.dmytrolutsiuk.backend.mail;
+
+public record RenderedMail(String subject, byte[] text, byte[] html) {
+}
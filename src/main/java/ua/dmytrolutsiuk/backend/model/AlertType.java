@@ -0,0 +1,7 @@
+package ua.dmytrolutsiuk.backend.model;
+
+public enum AlertType {
+    CROSSES_ABOVE,
+    CROSSES_BELOW,
+    CHANGE_PERCENT
+}
@@ -10,9 +10,13 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "exchange_rates", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"currency_code", "exchange_date"})
-})
+@Table(name = "exchange_rates",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"currency_code", "exchange_date"})
+        },
+        indexes = {
+                @Index(name = "idx_exchange_rates_range", columnList = "currency_code, exchange_date, rate")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
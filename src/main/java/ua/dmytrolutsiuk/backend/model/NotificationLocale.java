@@ -0,0 +1,30 @@
+package ua.dmytrolutsiuk.backend.model;
+
+import java.time.format.DateTimeFormatter;
+
+public enum NotificationLocale {
+
+    EN(DateTimeFormatter.ISO_LOCAL_DATE),
+    UK(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+
+    private final DateTimeFormatter dateFormatter;
+
+    NotificationLocale(DateTimeFormatter dateFormatter) {
+        this.dateFormatter = dateFormatter;
+    }
+
+    public DateTimeFormatter dateFormatter() {
+        return dateFormatter;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+
+    public static NotificationLocale fromTag(String tag) {
+        if (tag == null || tag.isBlank()) {
+            return EN;
+        }
+        return valueOf(tag.trim().toUpperCase());
+    }
+}
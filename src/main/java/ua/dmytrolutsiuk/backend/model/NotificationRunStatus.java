@@ -0,0 +1,6 @@
+package ua.dmytrolutsiuk.backend.model;
+
+public enum NotificationRunStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,8 @@
+package ua.dmytrolutsiuk.backend.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
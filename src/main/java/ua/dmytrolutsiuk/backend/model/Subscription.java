@@ -32,6 +32,11 @@ public class Subscription {
     @Builder.Default
     private Boolean active = true;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 5)
+    @Builder.Default
+    private NotificationLocale locale = NotificationLocale.EN;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
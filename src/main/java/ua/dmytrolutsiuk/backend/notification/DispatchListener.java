@@ -0,0 +1,13 @@
+package ua.dmytrolutsiuk.backend.notification;
+
+public interface DispatchListener {
+
+    DispatchListener NONE = new DispatchListener() {
+    };
+
+    default void onSent(NotificationTask task) {
+    }
+
+    default void onFailed(NotificationTask task, Exception error) {
+    }
+}
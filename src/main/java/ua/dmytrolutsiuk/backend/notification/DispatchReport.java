@@ -0,0 +1,23 @@
+package ua.dmytrolutsiuk.backend.notification;
+
+import java.time.Duration;
+
+public record DispatchReport(
+        int sent,
+        int failed,
+        Duration elapsed,
+        double throughputPerSecond,
+        Duration p50,
+        Duration p95,
+        Duration p99,
+        Duration max
+) {
+
+    public static DispatchReport empty() {
+        return new DispatchReport(0, 0, Duration.ZERO, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+    }
+
+    public int total() {
+        return sent + failed;
+    }
+}
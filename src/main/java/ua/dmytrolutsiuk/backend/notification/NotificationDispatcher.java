@@ -0,0 +1,296 @@
+package ua.dmytrolutsiuk.backend.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.stereotype.Component;
+import ua.dmytrolutsiuk.backend.service.EmailService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    static final String SEND_METRIC = "notification.email.send";
+    static final String FAILURES_METRIC = "notification.email.failures";
+
+    private final EmailService emailService;
+    private final MeterRegistry meterRegistry;
+    private final int concurrency;
+    private final int batchSize;
+    private final boolean virtualThreads;
+    private final double perHostPermitsPerSecond;
+    private final TokenBucket globalLimiter;
+    private final Semaphore smtpPermits;
+    private final Map<String, TokenBucket> hostLimiters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failureCounters = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlightMessages = new AtomicInteger();
+    private final Timer singleSuccess;
+    private final Timer singleFailure;
+    private final Timer batchSuccess;
+    private final Timer batchFailure;
+
+    public NotificationDispatcher(
+            EmailService emailService,
+            MeterRegistry meterRegistry,
+            @Value("${notification.dispatch.concurrency:16}") int concurrency,
+            @Value("${notification.dispatch.batch-size:1}") int batchSize,
+            @Value("${notification.dispatch.virtual-threads:true}") boolean virtualThreads,
+            @Value("${notification.dispatch.rate-limit.global-per-second:0}") double globalPermitsPerSecond,
+            @Value("${notification.dispatch.rate-limit.per-host-per-second:0}") double perHostPermitsPerSecond,
+            @Value("${notification.dispatch.smtp-permits:0}") int smtpPermits) {
+        this.emailService = emailService;
+        this.meterRegistry = meterRegistry;
+        this.concurrency = concurrency;
+        this.batchSize = Math.max(1, batchSize);
+        this.virtualThreads = virtualThreads;
+        this.perHostPermitsPerSecond = perHostPermitsPerSecond;
+        this.globalLimiter = globalPermitsPerSecond > 0 ? new TokenBucket(globalPermitsPerSecond) : null;
+        this.smtpPermits = smtpPermits > 0 ? new Semaphore(smtpPermits, true) : null;
+        this.singleSuccess = sendTimer(meterRegistry, "single", "success");
+        this.singleFailure = sendTimer(meterRegistry, "single", "failure");
+        this.batchSuccess = sendTimer(meterRegistry, "batch", "success");
+        this.batchFailure = sendTimer(meterRegistry, "batch", "failure");
+        Gauge.builder("notification.dispatch.in.flight", inFlightMessages, AtomicInteger::get)
+                .description("Notifications handed to the dispatcher and not yet sent or failed")
+                .register(meterRegistry);
+    }
+
+    public DispatchReport dispatch(Iterable<NotificationTask> tasks) {
+        return dispatch(tasks, DispatchListener.NONE);
+    }
+
+    public DispatchReport dispatch(Iterable<NotificationTask> tasks, DispatchListener listener) {
+        return dispatchBatches(() -> new Iterator<>() {
+
+            private final Iterator<NotificationTask> delegate = tasks.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public List<NotificationTask> next() {
+                return List.of(delegate.next());
+            }
+        }, listener);
+    }
+
+    public DispatchReport dispatchBatches(Iterable<List<NotificationTask>> batches, DispatchListener listener) {
+        RunStats stats = new RunStats();
+        Semaphore inFlight = new Semaphore(concurrency);
+
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = newExecutor()) {
+            for (List<NotificationTask> batch : batches) {
+                for (int from = 0; from < batch.size(); from += batchSize) {
+                    List<NotificationTask> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+                    inFlight.acquire();
+                    inFlightMessages.addAndGet(chunk.size());
+                    executor.execute(() -> {
+                        try {
+                            send(chunk, listener, stats);
+                        } finally {
+                            inFlightMessages.addAndGet(-chunk.size());
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Notification dispatch interrupted; remaining tasks were not submitted");
+        }
+
+        DispatchReport report = buildReport(stats, System.nanoTime() - start);
+        log.info("Dispatch finished. Sent: {}, Failed: {}, Elapsed: {} ms, Throughput: {}/s, "
+                        + "Latency p50: {} ms, p95: {} ms, p99: {} ms, max: {} ms",
+                report.sent(), report.failed(), report.elapsed().toMillis(),
+                "%.1f".formatted(report.throughputPerSecond()),
+                report.p50().toMillis(), report.p95().toMillis(), report.p99().toMillis(), report.max().toMillis());
+        return report;
+    }
+
+    private void send(List<NotificationTask> chunk, DispatchListener listener, RunStats stats) {
+        try {
+            for (NotificationTask task : chunk) {
+                acquirePermits(task);
+            }
+            if (smtpPermits != null) {
+                smtpPermits.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunk.forEach(task -> stats.failed(task, listener, e));
+            return;
+        }
+
+        try {
+            if (chunk.size() == 1) {
+                sendOne(chunk.getFirst(), listener, stats);
+            } else {
+                sendBatch(chunk, listener, stats);
+            }
+        } finally {
+            if (smtpPermits != null) {
+                smtpPermits.release();
+            }
+        }
+    }
+
+    private void sendOne(NotificationTask task, DispatchListener listener, RunStats stats) {
+        long start = System.nanoTime();
+        try {
+            if (task.isDigest()) {
+                emailService.sendRateDigest(task.email(), task.exchangeRates(), task.locale());
+            } else {
+                emailService.sendExchangeRateNotification(task.email(), task.exchangeRates().getFirst(), task.locale());
+            }
+            recordLatency(stats, singleSuccess, System.nanoTime() - start);
+            stats.sent(task, listener);
+        } catch (Exception e) {
+            recordLatency(stats, singleFailure, System.nanoTime() - start);
+            log.warn("Failed to send notification to: {} ({})", task.email(), e.getMessage());
+            stats.failed(task, listener, e);
+        }
+    }
+
+    private void sendBatch(List<NotificationTask> chunk, DispatchListener listener, RunStats stats) {
+        List<MimeMessage> messages = new ArrayList<>(chunk.size());
+        try {
+            for (NotificationTask task : chunk) {
+                messages.add(task.isDigest()
+                        ? emailService.buildRateDigest(task.email(), task.exchangeRates(), task.locale())
+                        : emailService.buildExchangeRateNotification(
+                                task.email(), task.exchangeRates().getFirst(), task.locale()));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to build notification batch ({})", e.getMessage());
+            chunk.forEach(task -> stats.failed(task, listener, e));
+            return;
+        }
+
+        long start = System.nanoTime();
+        Map<MimeMessage, Exception> failures = emailService.sendAll(messages);
+        long elapsed = System.nanoTime() - start;
+        // The timer keeps one sample per SMTP call; the run report gets each message's share of it.
+        (failures.isEmpty() ? batchSuccess : batchFailure).record(elapsed, TimeUnit.NANOSECONDS);
+        long perMessage = elapsed / chunk.size();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            NotificationTask task = chunk.get(i);
+            Exception error = failures.get(messages.get(i));
+            stats.latencies.record(perMessage);
+            if (error == null) {
+                stats.sent(task, listener);
+            } else {
+                log.warn("Failed to send notification to: {} ({})", task.email(), error.getMessage());
+                stats.failed(task, listener, error);
+            }
+        }
+    }
+
+    private static void recordLatency(RunStats stats, Timer timer, long nanos) {
+        stats.latencies.record(nanos);
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String mode, String outcome) {
+        return Timer.builder(SEND_METRIC)
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter failureCounter(String reason) {
+        Counter counter = failureCounters.get(reason);
+        if (counter == null) {
+            counter = failureCounters.computeIfAbsent(reason,
+                    key -> meterRegistry.counter(FAILURES_METRIC, "reason", key));
+        }
+        return counter;
+    }
+
+    static String failureReason(Exception error) {
+        return switch (error) {
+            case MailAuthenticationException e -> "authentication";
+            case MailPreparationException e -> "preparation";
+            case MailSendException e -> "send";
+            case InterruptedException e -> "interrupted";
+            default -> "other";
+        };
+    }
+
+    private void acquirePermits(NotificationTask task) throws InterruptedException {
+        if (perHostPermitsPerSecond > 0) {
+            hostLimiters.computeIfAbsent(task.recipientDomain(), host -> new TokenBucket(perHostPermitsPerSecond))
+                    .acquire();
+        }
+        if (globalLimiter != null) {
+            globalLimiter.acquire();
+        }
+    }
+
+    private ExecutorService newExecutor() {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("notification-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(concurrency, Thread.ofPlatform().name("notification-", 0).factory());
+    }
+
+    private static DispatchReport buildReport(RunStats stats, long elapsedNanos) {
+        long[] sorted = stats.latencies.sortedSnapshot();
+        int sent = stats.sent.get();
+        int failed = stats.failed.get();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        return new DispatchReport(
+                sent,
+                failed,
+                Duration.ofNanos(elapsedNanos),
+                seconds > 0 ? (sent + failed) / seconds : 0,
+                Duration.ofNanos(LatencyRecorder.percentile(sorted, 50)),
+                Duration.ofNanos(LatencyRecorder.percentile(sorted, 95)),
+                Duration.ofNanos(LatencyRecorder.percentile(sorted, 99)),
+                Duration.ofNanos(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+    }
+
+    private final class RunStats {
+
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final LatencyRecorder latencies = new LatencyRecorder();
+
+        private void sent(NotificationTask task, DispatchListener listener) {
+            sent.incrementAndGet();
+            listener.onSent(task);
+        }
+
+        private void failed(NotificationTask task, DispatchListener listener, Exception error) {
+            failed.incrementAndGet();
+            failureCounter(failureReason(error)).increment();
+            listener.onFailed(task, error);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package ua.dmytrolutsiuk.backend.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+import ua.dmytrolutsiuk.backend.model.NotificationRun;
+import ua.dmytrolutsiuk.backend.model.NotificationRunStatus;
+import ua.dmytrolutsiuk.backend.model.OutboxEntry;
+import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
+import ua.dmytrolutsiuk.backend.service.NotificationOutboxService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Slf4j
+public class NotificationOutboxProcessor {
+
+    private final NotificationOutboxService outboxService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final ExchangeRateService exchangeRateService;
+    private final OutboxPartitions outboxPartitions;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final DistributionSummary digestSize;
+    private final Counter rateNotFound;
+
+    public NotificationOutboxProcessor(
+            NotificationOutboxService outboxService,
+            NotificationDispatcher notificationDispatcher,
+            ExchangeRateService exchangeRateService,
+            OutboxPartitions outboxPartitions,
+            MeterRegistry meterRegistry,
+            @Value("${notification.outbox.batch-size:200}") int batchSize,
+            @Value("${notification.outbox.poll-interval:500ms}") Duration pollInterval) {
+        this.outboxService = outboxService;
+        this.notificationDispatcher = notificationDispatcher;
+        this.exchangeRateService = exchangeRateService;
+        this.outboxPartitions = outboxPartitions;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        Gauge.builder("notification.outbox.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Outbox entries claimed by this instance and not yet sent or failed")
+                .register(meterRegistry);
+        this.digestSize = DistributionSummary.builder("notification.digest.currencies")
+                .description("Currencies combined into one notification email per recipient")
+                .register(meterRegistry);
+        this.rateNotFound = meterRegistry.counter(NotificationDispatcher.FAILURES_METRIC, "reason", "rate_not_found");
+    }
+
+    public DispatchReport process(LocalDate runDate) {
+        NotificationRun run = outboxService.startRun(runDate);
+        if (run.getStatus() == NotificationRunStatus.COMPLETED) {
+            log.info("Notification run for {} is already completed", runDate);
+            return DispatchReport.empty();
+        }
+
+        OutboxTaskSource source = new OutboxTaskSource(runDate);
+        DispatchReport report;
+        try {
+            report = notificationDispatcher.dispatchBatches(source, source);
+            source.flushSent();
+        } finally {
+            outboxPartitions.releaseAll();
+        }
+
+        if (source.exhausted) {
+            outboxService.completeRun(runDate);
+        }
+        return report;
+    }
+
+    public boolean awaitRun(LocalDate runDate, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (outboxService.findRun(runDate).isEmpty()) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private class OutboxTaskSource implements Iterable<List<NotificationTask>>, Iterator<List<NotificationTask>>,
+            DispatchListener {
+
+        private final LocalDate runDate;
+        private List<NotificationTask> buffer = new ArrayList<>();
+        private final Queue<Long> sentIds = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private boolean exhausted;
+
+        OutboxTaskSource(LocalDate runDate) {
+            this.runDate = runDate;
+        }
+
+        @Override
+        public Iterator<List<NotificationTask>> iterator() {
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (buffer.isEmpty()) {
+                    boolean idle = inFlight.get() == 0;
+                    flushSent();
+
+                    if (claimNextBatch()) {
+                        continue;
+                    }
+                    if (!idle) {
+                        Thread.sleep(pollInterval);
+                        continue;
+                    }
+
+                    Optional<LocalDateTime> wakeUp = outboxService.findNextWakeUp(runDate);
+                    if (wakeUp.isEmpty()) {
+                        exhausted = true;
+                        return false;
+                    }
+
+                    Duration wait = Duration.between(LocalDateTime.now(), wakeUp.get());
+                    log.info("Waiting {} s for notifications scheduled for retry", Math.max(0, wait.toSeconds()));
+                    Thread.sleep(wait.compareTo(pollInterval) > 0 ? wait : pollInterval);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Outbox processing for {} interrupted", runDate);
+                return false;
+            }
+        }
+
+        @Override
+        public List<NotificationTask> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<NotificationTask> batch = buffer;
+            buffer = new ArrayList<>();
+            return batch;
+        }
+
+        @Override
+        public void onSent(NotificationTask task) {
+            sentIds.addAll(task.outboxIds());
+            release(task);
+        }
+
+        @Override
+        public void onFailed(NotificationTask task, Exception error) {
+            try {
+                for (Long outboxId : task.outboxIds()) {
+                    outboxService.markFailed(outboxId, error.getMessage());
+                }
+            } catch (Exception e) {
+                log.error("Failed to record delivery failure for outbox entries: {}", task.outboxIds(), e);
+            } finally {
+                release(task);
+            }
+        }
+
+        private void release(NotificationTask task) {
+            inFlight.decrementAndGet();
+            queueDepth.addAndGet(-task.outboxIds().size());
+        }
+
+        void flushSent() {
+            List<Long> ids = new ArrayList<>();
+            for (Long id = sentIds.poll(); id != null; id = sentIds.poll()) {
+                ids.add(id);
+            }
+            outboxService.markSent(ids);
+        }
+
+        private boolean claimNextBatch() {
+            List<OutboxEntry> claimed = outboxService.claimBatch(runDate, batchSize, outboxPartitions.acquire());
+            Map<String, Optional<ExchangeRateResponse>> rates = new HashMap<>();
+
+            int from = 0;
+            while (from < claimed.size()) {
+                String email = claimed.get(from).getEmail();
+                int to = from + 1;
+                while (to < claimed.size() && claimed.get(to).getEmail().equals(email)) {
+                    to++;
+                }
+                addDigest(claimed.subList(from, to), rates);
+                from = to;
+            }
+            return !claimed.isEmpty();
+        }
+
+        private void addDigest(List<OutboxEntry> entries, Map<String, Optional<ExchangeRateResponse>> rates) {
+            List<Long> ids = new ArrayList<>(entries.size());
+            List<ExchangeRateResponse> found = new ArrayList<>(entries.size());
+
+            for (OutboxEntry entry : entries) {
+                Optional<ExchangeRateResponse> rate = rates.computeIfAbsent(entry.getCurrencyCode(), this::findRate);
+                if (rate.isPresent()) {
+                    ids.add(entry.getId());
+                    found.add(rate.get());
+                } else {
+                    rateNotFound.increment();
+                    outboxService.markFailed(entry.getId(), "Exchange rate not found for currency: " + entry.getCurrencyCode());
+                }
+            }
+            if (found.isEmpty()) {
+                return;
+            }
+
+            found.sort(Comparator.comparing(ExchangeRateResponse::getCurrencyCode));
+            digestSize.record(found.size());
+            inFlight.incrementAndGet();
+            queueDepth.addAndGet(ids.size());
+            buffer.add(new NotificationTask(ids, entries.getFirst().getEmail(), localeOf(entries.getLast()), found));
+        }
+
+        private static NotificationLocale localeOf(OutboxEntry entry) {
+            return entry.getLocale() != null ? entry.getLocale() : NotificationLocale.EN;
+        }
+
+        private Optional<ExchangeRateResponse> findRate(String currencyCode) {
+            try {
+                return Optional.of(exchangeRateService.getLatestRate(currencyCode));
+            } catch (Exception e) {
+                log.error("Failed to get exchange rate for currency: {}", currencyCode, e);
+                return Optional.empty();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ua.dmytrolutsiuk.backend.notification;
+
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+
+import java.util.List;
+
+public record NotificationTask(
+        List<Long> outboxIds, String email, NotificationLocale locale, List<ExchangeRateResponse> exchangeRates) {
+
+    public NotificationTask {
+        outboxIds = List.copyOf(outboxIds);
+        exchangeRates = List.copyOf(exchangeRates);
+        if (exchangeRates.isEmpty()) {
+            throw new IllegalArgumentException("Notification for " + email + " has no exchange rates");
+        }
+    }
+
+    public NotificationTask(Long outboxId, String email, NotificationLocale locale, ExchangeRateResponse exchangeRate) {
+        this(List.of(outboxId), email, locale, List.of(exchangeRate));
+    }
+
+    public NotificationTask(Long outboxId, String email, ExchangeRateResponse exchangeRate) {
+        this(outboxId, email, NotificationLocale.EN, exchangeRate);
+    }
+
+    public boolean isDigest() {
+        return exchangeRates.size() > 1;
+    }
+
+    public String recipientDomain() {
+        int at = email.lastIndexOf('@');
+        return at < 0 ? "" : email.substring(at + 1).toLowerCase();
+    }
+}
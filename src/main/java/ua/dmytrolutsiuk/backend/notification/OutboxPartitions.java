@@ -0,0 +1,105 @@
+package ua.dmytrolutsiuk.backend.notification;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.dmytrolutsiuk.backend.service.SchedulerLockService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Component
+@Slf4j
+public class OutboxPartitions implements DisposableBean {
+
+    static final String PARTITION_LOCK = "notification-partition-";
+    static final String NODE_LOCK = "notification-node:";
+
+    private final SchedulerLockService lockService;
+    private final int count;
+    private final Duration lease;
+    private final TreeSet<Integer> owned = new TreeSet<>();
+    private Instant renewDue = Instant.MIN;
+
+    public OutboxPartitions(
+            SchedulerLockService lockService,
+            MeterRegistry meterRegistry,
+            @Value("${notification.outbox.partitions:12}") int count,
+            @Value("${notification.outbox.partition-lease:1m}") Duration lease) {
+        if (count < 1) {
+            throw new IllegalArgumentException("notification.outbox.partitions must be at least 1");
+        }
+        this.lockService = lockService;
+        this.count = count;
+        this.lease = lease;
+        Gauge.builder("notification.outbox.partitions.owned", this, OutboxPartitions::ownedCount)
+                .description("Outbox partitions this instance currently claims notifications from")
+                .register(meterRegistry);
+    }
+
+    public synchronized Set<Integer> acquire() {
+        Instant now = Instant.now();
+        if (now.isBefore(renewDue)) {
+            return Set.copyOf(owned);
+        }
+        renewDue = now.plus(lease.dividedBy(3));
+
+        lockService.tryAcquire(nodeLock(), lease);
+        long nodes = Math.max(1, lockService.countHeld(NODE_LOCK));
+        int share = (int) ((count + nodes - 1) / nodes);
+
+        owned.removeIf(partition -> !lockService.tryAcquire(partitionLock(partition), lease));
+        while (owned.size() > share) {
+            lockService.release(partitionLock(owned.pollLast()), Duration.ZERO);
+        }
+        int start = Math.floorMod(lockService.getNodeId().hashCode(), count);
+        for (int i = 0; i < count && owned.size() < share; i++) {
+            int partition = (start + i) % count;
+            if (!owned.contains(partition) && lockService.tryAcquire(partitionLock(partition), lease)) {
+                owned.add(partition);
+            }
+        }
+
+        log.debug("Owning outbox partitions {} of {} ({} active nodes)", owned, count, nodes);
+        return Set.copyOf(owned);
+    }
+
+    public synchronized void releaseAll() {
+        for (Integer partition : owned) {
+            lockService.release(partitionLock(partition), Duration.ZERO);
+        }
+        owned.clear();
+        lockService.delete(nodeLock());
+        renewDue = Instant.MIN;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            releaseAll();
+        } catch (Exception e) {
+            log.warn("Could not release outbox partitions on shutdown; they expire after {}", lease, e);
+        }
+    }
+
+    private synchronized int ownedCount() {
+        return owned.size();
+    }
+
+    private String nodeLock() {
+        return NODE_LOCK + lockService.getNodeId();
+    }
+
+    private static String partitionLock(int partition) {
+        return PARTITION_LOCK + partition;
+    }
+}
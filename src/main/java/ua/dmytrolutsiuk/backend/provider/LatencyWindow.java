@@ -0,0 +1,32 @@
+package ua.dmytrolutsiuk.backend.provider;
+
+import ua.dmytrolutsiuk.backend.notification.LatencyRecorder;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    synchronized OptionalLong percentile(double percentile, int minSamples) {
+        if (size < minSamples) {
+            return OptionalLong.empty();
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return OptionalLong.of(LatencyRecorder.percentile(sorted, percentile));
+    }
+}
@@ -0,0 +1,14 @@
+package ua.dmytrolutsiuk.backend.provider;
+
+import ua.dmytrolutsiuk.backend.dto.NbuPayload;
+
+import java.util.Optional;
+
+public interface RateProvider {
+
+    String name();
+
+    Optional<NbuPayload> fetchExchangeRatesIfChanged();
+
+    void markProcessed(NbuPayload payload);
+}
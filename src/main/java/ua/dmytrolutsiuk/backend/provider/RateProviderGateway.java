@@ -0,0 +1,195 @@
+package ua.dmytrolutsiuk.backend.provider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ua.dmytrolutsiuk.backend.dto.NbuPayload;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@Slf4j
+public class RateProviderGateway implements DisposableBean {
+
+    private static final String LATENCY_METRIC = "exchange.rate.provider.latency";
+    private static final int LATENCY_WINDOW_SIZE = 64;
+    private static final int MIN_HEDGE_SAMPLES = 5;
+
+    private final List<ProviderHandle> providers;
+    private final Duration callTimeout;
+    private final boolean hedgingEnabled;
+    private final double hedgePercentile;
+    private final Duration initialHedgeDelay;
+    private final Duration minHedgeDelay;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("rate-provider-", 0).factory());
+    private final AtomicReference<Delivery> lastDelivery = new AtomicReference<>();
+
+    public RateProviderGateway(
+            List<RateProvider> providers,
+            MeterRegistry meterRegistry,
+            @Value("${exchange-rate.providers.call-timeout:10s}") Duration callTimeout,
+            @Value("${exchange-rate.providers.hedge.enabled:true}") boolean hedgingEnabled,
+            @Value("${exchange-rate.providers.hedge.percentile:95}") double hedgePercentile,
+            @Value("${exchange-rate.providers.hedge.initial-delay:2s}") Duration initialHedgeDelay,
+            @Value("${exchange-rate.providers.hedge.min-delay:100ms}") Duration minHedgeDelay,
+            @Value("${exchange-rate.providers.circuit-breaker.failure-threshold:3}") int failureThreshold,
+            @Value("${exchange-rate.providers.circuit-breaker.open-duration:5m}") Duration openDuration) {
+        if (providers.isEmpty()) {
+            throw new IllegalStateException("At least one exchange rate provider must be configured");
+        }
+        this.callTimeout = callTimeout;
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.initialHedgeDelay = initialHedgeDelay;
+        this.minHedgeDelay = minHedgeDelay;
+        this.providers = providers.stream()
+                .map(provider -> new ProviderHandle(provider,
+                        new CircuitBreaker(failureThreshold, openDuration), meterRegistry))
+                .toList();
+    }
+
+    public Optional<NbuPayload> fetchExchangeRatesIfChanged() {
+        List<String> failures = new ArrayList<>();
+
+        for (ProviderHandle handle : providers) {
+            String name = handle.provider.name();
+            if (!handle.breaker.tryAcquire()) {
+                log.warn("Circuit for rate provider {} is open; skipping it", name);
+                failures.add(name + ": circuit open");
+                continue;
+            }
+
+            try {
+                Optional<NbuPayload> payload = handle.fetch();
+                handle.breaker.onSuccess();
+                payload.ifPresent(value -> lastDelivery.set(new Delivery(value, handle.provider)));
+                return payload;
+            } catch (Exception e) {
+                handle.breaker.onFailure();
+                log.warn("Rate provider {} failed: {}", name, e.getMessage());
+                failures.add(name + ": " + e.getMessage());
+            }
+        }
+
+        throw new RateProviderUnavailableException("No exchange rate provider succeeded " + failures);
+    }
+
+    public void markProcessed(NbuPayload payload) {
+        Delivery delivery = lastDelivery.get();
+        if (delivery != null && delivery.payload() == payload) {
+            delivery.provider().markProcessed(payload);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private record Delivery(NbuPayload payload, RateProvider provider) {
+    }
+
+    private final class ProviderHandle {
+
+        private final RateProvider provider;
+        private final CircuitBreaker breaker;
+        private final LatencyWindow latencies = new LatencyWindow(LATENCY_WINDOW_SIZE);
+        private final Timer successTimer;
+        private final Timer failureTimer;
+        private final Timer cancelledTimer;
+        private final Counter hedges;
+
+        ProviderHandle(RateProvider provider, CircuitBreaker breaker, MeterRegistry meterRegistry) {
+            this.provider = provider;
+            this.breaker = breaker;
+            this.successTimer = latencyTimer(meterRegistry, "success");
+            this.failureTimer = latencyTimer(meterRegistry, "failure");
+            this.cancelledTimer = latencyTimer(meterRegistry, "cancelled");
+            this.hedges = meterRegistry.counter("exchange.rate.provider.hedges", "provider", provider.name());
+            Gauge.builder("exchange.rate.provider.circuit.open", breaker,
+                            b -> b.state() == CircuitBreaker.State.OPEN ? 1 : 0)
+                    .tag("provider", provider.name())
+                    .register(meterRegistry);
+        }
+
+        Optional<NbuPayload> fetch() throws Exception {
+            long deadline = System.nanoTime() + callTimeout.toNanos();
+            CompletableFuture<Optional<NbuPayload>> result = new CompletableFuture<>();
+            AtomicInteger outstanding = new AtomicInteger();
+            List<Future<?>> attempts = new ArrayList<>(2);
+
+            attempts.add(attempt(result, outstanding));
+            try {
+                long hedgeDelay = hedgeDelayNanos();
+                if (hedgingEnabled && hedgeDelay < callTimeout.toNanos()) {
+                    try {
+                        return result.get(hedgeDelay, TimeUnit.NANOSECONDS);
+                    } catch (TimeoutException e) {
+                        hedges.increment();
+                        log.info("Rate provider {} is slower than its hedge delay of {} ms; sending a hedged request",
+                                provider.name(), TimeUnit.NANOSECONDS.toMillis(hedgeDelay));
+                        attempts.add(attempt(result, outstanding));
+                    }
+                }
+                return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            } catch (TimeoutException e) {
+                throw new TimeoutException("no response within " + callTimeout.toMillis() + " ms");
+            } finally {
+                attempts.forEach(attempt -> attempt.cancel(true));
+            }
+        }
+
+        private Future<?> attempt(CompletableFuture<Optional<NbuPayload>> result, AtomicInteger outstanding) {
+            outstanding.incrementAndGet();
+            return executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    Optional<NbuPayload> payload = provider.fetchExchangeRatesIfChanged();
+                    long elapsed = System.nanoTime() - start;
+                    latencies.record(elapsed);
+                    successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                    result.complete(payload);
+                } catch (Exception e) {
+                    (result.isDone() ? cancelledTimer : failureTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (outstanding.decrementAndGet() == 0) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            });
+        }
+
+        private long hedgeDelayNanos() {
+            long observed = latencies.percentile(hedgePercentile, MIN_HEDGE_SAMPLES)
+                    .orElse(initialHedgeDelay.toNanos());
+            return Math.max(observed, minHedgeDelay.toNanos());
+        }
+
+        private Timer latencyTimer(MeterRegistry meterRegistry, String outcome) {
+            return Timer.builder(LATENCY_METRIC)
+                    .tag("provider", provider.name())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ua.dmytrolutsiuk.backend.provider;
+
+public class RateProviderUnavailableException extends RuntimeException {
+
+    public RateProviderUnavailableException(String message) {
+        super(message);
+    }
+}
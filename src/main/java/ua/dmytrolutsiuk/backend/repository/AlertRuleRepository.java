@@ -0,0 +1,25 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ua.dmytrolutsiuk.backend.model.AlertRule;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+
+    List<AlertRule> findBySubscriptionIdOrderById(Long subscriptionId);
+
+    Optional<AlertRule> findByIdAndSubscriptionId(Long id, Long subscriptionId);
+
+    @Query("""
+            SELECT new ua.dmytrolutsiuk.backend.repository.IndexedAlertRule(
+                r.id, r.subscriptionId, s.currencyCode, r.type, r.threshold)
+            FROM AlertRule r, Subscription s
+            WHERE s.id = r.subscriptionId
+            """)
+    List<IndexedAlertRule> findAllIndexed();
+}
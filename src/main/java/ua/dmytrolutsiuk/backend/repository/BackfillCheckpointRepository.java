@@ -0,0 +1,17 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ua.dmytrolutsiuk.backend.model.BackfillCheckpoint;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+@Repository
+public interface BackfillCheckpointRepository extends JpaRepository<BackfillCheckpoint, LocalDate> {
+
+    @Query("SELECT c.exchangeDate FROM BackfillCheckpoint c WHERE c.exchangeDate BETWEEN :from AND :to")
+    Set<LocalDate> findCompletedDates(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
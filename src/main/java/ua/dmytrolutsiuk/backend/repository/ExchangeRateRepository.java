@@ -1,16 +1,28 @@
 package ua.dmytrolutsiuk.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ua.dmytrolutsiuk.backend.model.ExchangeRate;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long>, ExchangeRateRepositoryCustom {
 
     Optional<ExchangeRate> findByCurrencyCodeAndExchangeDate(String currencyCode, LocalDate exchangeDate);
 
     Optional<ExchangeRate> findFirstByCurrencyCodeOrderByExchangeDateDesc(String currencyCode);
+
+    List<ExchangeRate> findAllByExchangeDateOrderByCurrencyCode(LocalDate exchangeDate);
+
+    @Query("""
+            SELECT e FROM ExchangeRate e
+            WHERE e.exchangeDate = (
+                SELECT MAX(l.exchangeDate) FROM ExchangeRate l WHERE l.currencyCode = e.currencyCode
+            )
+            """)
+    List<ExchangeRate> findLatestRates();
 }
@@ -0,0 +1,14 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ExchangeRateRepositoryCustom {
+
+    UpsertResult upsertAll(List<ExchangeRate> exchangeRates);
+
+    void streamRange(LocalDate from, LocalDate to, Collection<String> currencyCodes, RateRowCallback callback);
+}
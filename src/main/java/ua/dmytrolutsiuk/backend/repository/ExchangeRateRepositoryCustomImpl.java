@@ -0,0 +1,147 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+
+@Slf4j
+public class ExchangeRateRepositoryCustomImpl implements ExchangeRateRepositoryCustom {
+
+    // Rows whose values did not change are neither rewritten nor returned; xmax is 0 only for freshly inserted rows.
+    private static final String UPSERT_SQL_TEMPLATE = """
+            INSERT INTO exchange_rates (r030, currency_code, currency_name, rate, exchange_date)
+            VALUES %s
+            ON CONFLICT (currency_code, exchange_date) DO UPDATE
+                SET r030 = EXCLUDED.r030, currency_name = EXCLUDED.currency_name, rate = EXCLUDED.rate
+                WHERE (exchange_rates.r030, exchange_rates.currency_name, exchange_rates.rate)
+                    IS DISTINCT FROM (EXCLUDED.r030, EXCLUDED.currency_name, EXCLUDED.rate)
+            RETURNING (xmax = 0) AS inserted
+            """;
+
+    private static final String SELECT_RANGE_SQL = """
+            SELECT currency_code, exchange_date, rate
+            FROM exchange_rates
+            WHERE exchange_date BETWEEN :from AND :to
+            """;
+
+    private static final String RANGE_CURRENCY_FILTER = " AND currency_code IN (:currencyCodes)";
+    private static final String RANGE_ORDER = " ORDER BY currency_code, exchange_date";
+    private static final int RANGE_FETCH_SIZE = 1000;
+
+    private static final String VALUES_ROW = "(?, ?, ?, ?, ?)";
+
+    private static final Comparator<ExchangeRate> KEY_ORDER = Comparator
+            .comparing(ExchangeRate::getExchangeDate)
+            .thenComparing(ExchangeRate::getCurrencyCode);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final int batchSize;
+    private final String fullBatchSql;
+
+    public ExchangeRateRepositoryCustomImpl(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${exchange-rate.ingest.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = streamingTemplate(jdbcTemplate);
+        this.batchSize = batchSize;
+        this.fullBatchSql = buildUpsertSql(batchSize);
+    }
+
+    @Override
+    public UpsertResult upsertAll(List<ExchangeRate> exchangeRates) {
+        if (exchangeRates.isEmpty()) {
+            return UpsertResult.empty();
+        }
+
+        List<ExchangeRate> uniqueRates = deduplicate(exchangeRates);
+        int savedCount = 0;
+        int updatedCount = 0;
+
+        for (int from = 0; from < uniqueRates.size(); from += batchSize) {
+            List<ExchangeRate> batch = uniqueRates.subList(from, Math.min(from + batchSize, uniqueRates.size()));
+            String sql = batch.size() == batchSize ? fullBatchSql : buildUpsertSql(batch.size());
+            List<Boolean> written = jdbcTemplate.getJdbcTemplate()
+                    .query(sql, (rs, rowNum) -> rs.getBoolean("inserted"), toParameters(batch));
+            for (boolean inserted : written) {
+                if (inserted) {
+                    savedCount++;
+                } else {
+                    updatedCount++;
+                }
+            }
+        }
+
+        log.debug("Upserted {} exchange rates in {} batch(es): {} new, {} changed",
+                uniqueRates.size(), (uniqueRates.size() + batchSize - 1) / batchSize, savedCount, updatedCount);
+
+        return new UpsertResult(savedCount, updatedCount, uniqueRates.size() - savedCount - updatedCount);
+    }
+
+    @Override
+    public void streamRange(LocalDate from, LocalDate to, Collection<String> currencyCodes, RateRowCallback callback) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to));
+
+        String sql = SELECT_RANGE_SQL;
+        if (!currencyCodes.isEmpty()) {
+            sql += RANGE_CURRENCY_FILTER;
+            params.addValue("currencyCodes", currencyCodes);
+        }
+
+        streamingJdbcTemplate.query(sql + RANGE_ORDER, params, (RowCallbackHandler) rs -> callback.accept(
+                rs.getString("currency_code"),
+                rs.getDate("exchange_date").toLocalDate(),
+                rs.getBigDecimal("rate")));
+    }
+
+    private static NamedParameterJdbcTemplate streamingTemplate(NamedParameterJdbcTemplate jdbcTemplate) {
+        JdbcTemplate streaming = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getJdbcTemplate().getDataSource()));
+        streaming.setFetchSize(RANGE_FETCH_SIZE);
+        return new NamedParameterJdbcTemplate(streaming);
+    }
+
+    // Rows are written in key order so that concurrent upserts of overlapping days lock them in the same order.
+    private List<ExchangeRate> deduplicate(List<ExchangeRate> exchangeRates) {
+        Map<RateKey, ExchangeRate> byKey = new LinkedHashMap<>();
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            byKey.put(RateKey.of(exchangeRate), exchangeRate);
+        }
+        List<ExchangeRate> uniqueRates = new ArrayList<>(byKey.values());
+        uniqueRates.sort(KEY_ORDER);
+        return uniqueRates;
+    }
+
+    private static Object[] toParameters(List<ExchangeRate> batch) {
+        Object[] parameters = new Object[batch.size() * 5];
+        int i = 0;
+        for (ExchangeRate exchangeRate : batch) {
+            parameters[i++] = exchangeRate.getR030();
+            parameters[i++] = exchangeRate.getCurrencyCode();
+            parameters[i++] = exchangeRate.getCurrencyName();
+            parameters[i++] = exchangeRate.getRate();
+            parameters[i++] = Date.valueOf(exchangeRate.getExchangeDate());
+        }
+        return parameters;
+    }
+
+    private static String buildUpsertSql(int rows) {
+        return UPSERT_SQL_TEMPLATE.formatted(String.join(", ", Collections.nCopies(rows, VALUES_ROW)));
+    }
+
+    private record RateKey(String currencyCode, LocalDate exchangeDate) {
+
+        static RateKey of(ExchangeRate exchangeRate) {
+            return new RateKey(exchangeRate.getCurrencyCode(), exchangeRate.getExchangeDate());
+        }
+    }
+}
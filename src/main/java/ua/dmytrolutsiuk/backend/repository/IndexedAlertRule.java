@@ -0,0 +1,8 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import ua.dmytrolutsiuk.backend.model.AlertType;
+
+import java.math.BigDecimal;
+
+public record IndexedAlertRule(Long id, Long subscriptionId, String currencyCode, AlertType type, BigDecimal threshold) {
+}
@@ -0,0 +1,14 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ua.dmytrolutsiuk.backend.model.NotificationRun;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface NotificationRunRepository extends JpaRepository<NotificationRun, Long> {
+
+    Optional<NotificationRun> findByRunDate(LocalDate runDate);
+}
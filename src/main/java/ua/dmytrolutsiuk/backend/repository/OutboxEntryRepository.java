@@ -0,0 +1,102 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ua.dmytrolutsiuk.backend.model.OutboxEntry;
+import ua.dmytrolutsiuk.backend.model.OutboxStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEntryRepository extends JpaRepository<OutboxEntry, Long> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO notification_outbox
+                (run_date, subscription_id, email, currency_code, partition_no, locale, status, attempts,
+                 next_attempt_at, created_at)
+            SELECT :runDate, s.id, s.email, s.currency_code,
+                   MOD((SELECT MIN(o.id) FROM subscriptions o WHERE o.email = s.email), :partitions),
+                   COALESCE(s.locale, 'EN'), 'PENDING', 0, :now, :now
+            FROM subscriptions s
+            WHERE s.active = TRUE
+              AND NOT EXISTS (SELECT 1 FROM alert_rules r WHERE r.subscription_id = s.id)
+            ORDER BY s.email, s.id
+            ON CONFLICT DO NOTHING
+            """)
+    int enqueueActiveSubscriptions(@Param("runDate") LocalDate runDate, @Param("now") LocalDateTime now,
+                                   @Param("partitions") int partitions);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO notification_outbox
+                (run_date, subscription_id, email, currency_code, partition_no, locale, status, attempts,
+                 next_attempt_at, created_at)
+            SELECT :runDate, s.id, s.email, s.currency_code,
+                   MOD((SELECT MIN(o.id) FROM subscriptions o WHERE o.email = s.email), :partitions),
+                   COALESCE(s.locale, 'EN'), 'PENDING', 0, :now, :now
+            FROM subscriptions s
+            WHERE s.active = TRUE
+              AND s.id IN (:subscriptionIds)
+            ORDER BY s.email, s.id
+            ON CONFLICT DO NOTHING
+            """)
+    int enqueueSubscriptions(@Param("runDate") LocalDate runDate, @Param("now") LocalDateTime now,
+                             @Param("partitions") int partitions,
+                             @Param("subscriptionIds") Collection<Long> subscriptionIds);
+
+    // Recipients are picked one at a time in MIN(id) order and kept only if this transaction wins their
+    // advisory lock, so a recipient is claimed by exactly one worker and all of its rows are locked together.
+    @Query(nativeQuery = true, value = """
+            WITH candidates AS MATERIALIZED (
+                SELECT email FROM notification_outbox
+                WHERE run_date = :runDate
+                  AND ((status = 'PENDING' AND next_attempt_at <= :now)
+                    OR (status = 'SENDING' AND lease_until < :now))
+                  AND MOD(COALESCE(partition_no, 0), :partitions) IN (:owned)
+                GROUP BY email
+                ORDER BY MIN(id)
+            ),
+            claimed AS (
+                SELECT email FROM candidates
+                WHERE pg_try_advisory_xact_lock(hashtext('notification_outbox'), hashtext(email))
+                LIMIT :limit
+            )
+            SELECT * FROM notification_outbox
+            WHERE run_date = :runDate
+              AND ((status = 'PENDING' AND next_attempt_at <= :now)
+                OR (status = 'SENDING' AND lease_until < :now))
+              AND email IN (SELECT email FROM claimed)
+            ORDER BY email, id
+            FOR UPDATE
+            """)
+    List<OutboxEntry> lockClaimableRecipients(
+            @Param("runDate") LocalDate runDate, @Param("now") LocalDateTime now, @Param("limit") int limit,
+            @Param("partitions") int partitions, @Param("owned") Collection<Integer> owned);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxEntry o
+            SET o.status = ua.dmytrolutsiuk.backend.model.OutboxStatus.SENT, o.leaseUntil = NULL, o.updatedAt = :now
+            WHERE o.id IN :ids
+            """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT MIN(CASE WHEN o.status = ua.dmytrolutsiuk.backend.model.OutboxStatus.PENDING
+                            THEN o.nextAttemptAt ELSE o.leaseUntil END)
+            FROM OutboxEntry o
+            WHERE o.runDate = :runDate
+              AND o.status IN (ua.dmytrolutsiuk.backend.model.OutboxStatus.PENDING,
+                               ua.dmytrolutsiuk.backend.model.OutboxStatus.SENDING)
+            """)
+    LocalDateTime findNextWakeUp(@Param("runDate") LocalDate runDate);
+
+    long countByRunDateAndStatus(LocalDate runDate, OutboxStatus status);
+}
@@ -0,0 +1,10 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@FunctionalInterface
+public interface RateRowCallback {
+
+    void accept(String currencyCode, LocalDate exchangeDate, BigDecimal rate);
+}
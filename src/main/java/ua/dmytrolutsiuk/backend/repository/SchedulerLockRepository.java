@@ -0,0 +1,58 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ua.dmytrolutsiuk.backend.model.SchedulerLock;
+
+// Lease times come from the database clock so that nodes with skewed clocks still agree on expiry. They are kept
+// as UTC wall time: local time in a zone with DST repeats an hour on fall-back and would misjudge expiry.
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE scheduler_locks
+            SET locked_at = CASE WHEN locked_by = :owner AND locked_until > (now() AT TIME ZONE 'UTC')
+                                 THEN locked_at ELSE (now() AT TIME ZONE 'UTC') END,
+                locked_by = :owner,
+                locked_until = (now() AT TIME ZONE 'UTC') + make_interval(secs => :leaseSeconds)
+            WHERE name = :name
+              AND (locked_until <= (now() AT TIME ZONE 'UTC') OR locked_by = :owner)
+            """)
+    int takeOver(@Param("name") String name, @Param("owner") String owner,
+                 @Param("leaseSeconds") double leaseSeconds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO scheduler_locks (name, locked_by, locked_at, locked_until)
+            VALUES (:name, :owner, (now() AT TIME ZONE 'UTC'),
+                    (now() AT TIME ZONE 'UTC') + make_interval(secs => :leaseSeconds))
+            ON CONFLICT DO NOTHING
+            """)
+    int insertIfAbsent(@Param("name") String name, @Param("owner") String owner,
+                       @Param("leaseSeconds") double leaseSeconds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE scheduler_locks
+            SET locked_until = GREATEST(locked_at + make_interval(secs => :minHoldSeconds), (now() AT TIME ZONE 'UTC'))
+            WHERE name = :name
+              AND locked_by = :owner
+            """)
+    int release(@Param("name") String name, @Param("owner") String owner,
+                @Param("minHoldSeconds") double minHoldSeconds);
+
+    @Modifying
+    @Query("DELETE FROM SchedulerLock l WHERE l.name = :name AND l.lockedBy = :owner")
+    int deleteOwned(@Param("name") String name, @Param("owner") String owner);
+
+    @Query(nativeQuery = true, value = """
+            SELECT COUNT(*) FROM scheduler_locks
+            WHERE starts_with(name, :prefix)
+              AND locked_until > (now() AT TIME ZONE 'UTC')
+            """)
+    long countHeld(@Param("prefix") String prefix);
+}
@@ -1,18 +1,22 @@
 package ua.dmytrolutsiuk.backend.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ua.dmytrolutsiuk.backend.model.Subscription;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+public interface SubscriptionRepository extends JpaRepository<Subscription, Long>, SubscriptionRepositoryCustom {
 
     Optional<Subscription> findByEmailAndCurrencyCode(String email, String currencyCode);
 
-    List<Subscription> findByActiveTrue();
+    List<Subscription> findByEmailAndCurrencyCodeIn(String email, Collection<String> currencyCodes);
 
     List<Subscription> findByCurrencyCodeAndActiveTrue(String currencyCode);
+
+    List<Subscription> findByIdGreaterThanOrderById(Long afterId, Limit limit);
 }
@@ -0,0 +1,10 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import ua.dmytrolutsiuk.backend.model.Subscription;
+
+import java.util.List;
+
+public interface SubscriptionRepositoryCustom {
+
+    List<SubscriptionUpsertOutcome> upsertAll(List<Subscription> subscriptions);
+}
@@ -0,0 +1,119 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ua.dmytrolutsiuk.backend.model.Subscription;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Slf4j
+public class SubscriptionRepositoryCustomImpl implements SubscriptionRepositoryCustom {
+
+    // Only created or changed rows are returned; the outer SELECT reads the pre-statement snapshot, so
+    // "previous.active" is the state the upsert replaced.
+    private static final String UPSERT_SQL_TEMPLATE = """
+            WITH upserted AS (
+                INSERT INTO subscriptions AS t (email, currency_code, active, locale, created_at)
+                VALUES %s
+                ON CONFLICT (email, currency_code) DO UPDATE
+                    SET active = TRUE, locale = EXCLUDED.locale, updated_at = EXCLUDED.created_at
+                    WHERE NOT t.active OR t.locale IS DISTINCT FROM EXCLUDED.locale
+                RETURNING t.email, t.currency_code, (t.xmax = 0) AS inserted
+            )
+            SELECT u.email, u.currency_code, u.inserted, previous.active AS was_active
+            FROM upserted u
+            LEFT JOIN subscriptions previous
+                ON previous.email = u.email AND previous.currency_code = u.currency_code
+            """;
+
+    private static final String VALUES_ROW = "(?, ?, TRUE, ?, ?)";
+
+    private static final Comparator<Subscription> KEY_ORDER = Comparator
+            .comparing(Subscription::getEmail)
+            .thenComparing(Subscription::getCurrencyCode);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final String fullBatchSql;
+
+    public SubscriptionRepositoryCustomImpl(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${subscription.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.fullBatchSql = buildUpsertSql(batchSize);
+    }
+
+    @Override
+    public List<SubscriptionUpsertOutcome> upsertAll(List<Subscription> subscriptions) {
+        if (subscriptions.isEmpty()) {
+            return List.of();
+        }
+
+        List<Subscription> ordered = deduplicate(subscriptions);
+        Map<SubscriptionKey, SubscriptionUpsertOutcome> written = new HashMap<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int from = 0; from < ordered.size(); from += batchSize) {
+            List<Subscription> batch = ordered.subList(from, Math.min(from + batchSize, ordered.size()));
+            String sql = batch.size() == batchSize ? fullBatchSql : buildUpsertSql(batch.size());
+            jdbcTemplate.getJdbcTemplate().query(sql, rs -> {
+                SubscriptionUpsertOutcome outcome;
+                if (rs.getBoolean("inserted")) {
+                    outcome = SubscriptionUpsertOutcome.CREATED;
+                } else if (!rs.getBoolean("was_active")) {
+                    outcome = SubscriptionUpsertOutcome.REACTIVATED;
+                } else {
+                    outcome = SubscriptionUpsertOutcome.UPDATED;
+                }
+                written.put(new SubscriptionKey(rs.getString("email"), rs.getString("currency_code")), outcome);
+            }, toParameters(batch, now));
+        }
+
+        List<SubscriptionUpsertOutcome> outcomes = new ArrayList<>(subscriptions.size());
+        for (Subscription subscription : subscriptions) {
+            outcomes.add(written.getOrDefault(SubscriptionKey.of(subscription), SubscriptionUpsertOutcome.UNCHANGED));
+        }
+
+        log.debug("Upserted {} of {} subscriptions", written.size(), subscriptions.size());
+        return outcomes;
+    }
+
+    // ON CONFLICT rejects a statement that touches the same row twice, and a stable key order keeps
+    // concurrent imports from deadlocking on each other's rows.
+    private static List<Subscription> deduplicate(List<Subscription> subscriptions) {
+        Map<SubscriptionKey, Subscription> unique = new LinkedHashMap<>();
+        for (Subscription subscription : subscriptions) {
+            unique.put(SubscriptionKey.of(subscription), subscription);
+        }
+        List<Subscription> ordered = new ArrayList<>(unique.values());
+        ordered.sort(KEY_ORDER);
+        return ordered;
+    }
+
+    private static Object[] toParameters(List<Subscription> batch, Timestamp now) {
+        Object[] parameters = new Object[batch.size() * 4];
+        int i = 0;
+        for (Subscription subscription : batch) {
+            parameters[i++] = subscription.getEmail();
+            parameters[i++] = subscription.getCurrencyCode();
+            parameters[i++] = subscription.getLocale().name();
+            parameters[i++] = now;
+        }
+        return parameters;
+    }
+
+    private static String buildUpsertSql(int rows) {
+        return UPSERT_SQL_TEMPLATE.formatted(String.join(", ", Collections.nCopies(rows, VALUES_ROW)));
+    }
+
+    private record SubscriptionKey(String email, String currencyCode) {
+
+        static SubscriptionKey of(Subscription subscription) {
+            return new SubscriptionKey(subscription.getEmail(), subscription.getCurrencyCode());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+public enum SubscriptionUpsertOutcome {
+    CREATED,
+    REACTIVATED,
+    UPDATED,
+    UNCHANGED
+}
@@ -0,0 +1,12 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+public record UpsertResult(int saved, int updated, int unchanged) {
+
+    public static UpsertResult empty() {
+        return new UpsertResult(0, 0, 0);
+    }
+
+    public int total() {
+        return saved + updated;
+    }
+}
@@ -1,29 +1,51 @@
 package ua.dmytrolutsiuk.backend.scheduler;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
-import ua.dmytrolutsiuk.backend.model.Subscription;
-import ua.dmytrolutsiuk.backend.service.EmailService;
+import ua.dmytrolutsiuk.backend.notification.DispatchReport;
+import ua.dmytrolutsiuk.backend.notification.NotificationOutboxProcessor;
 import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
-import ua.dmytrolutsiuk.backend.service.SubscriptionService;
+import ua.dmytrolutsiuk.backend.service.SchedulerLockService;
 
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.time.LocalDate;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ExchangeRateScheduler {
 
+    static final String INGEST_LOCK = "exchange-rate-ingest";
+
     private final ExchangeRateService exchangeRateService;
-    private final SubscriptionService subscriptionService;
-    private final EmailService emailService;
+    private final NotificationOutboxProcessor notificationOutboxProcessor;
+    private final SchedulerLockService schedulerLockService;
+    private final MeterRegistry meterRegistry;
+    private final Duration lockLease;
+    private final Duration lockMinHold;
+    private final Duration followerWait;
+
+    public ExchangeRateScheduler(
+            ExchangeRateService exchangeRateService,
+            NotificationOutboxProcessor notificationOutboxProcessor,
+            SchedulerLockService schedulerLockService,
+            MeterRegistry meterRegistry,
+            @Value("${scheduler.exchange-rate.lock.lease:10m}") Duration lockLease,
+            @Value("${scheduler.exchange-rate.lock.min-hold:1m}") Duration lockMinHold,
+            @Value("${scheduler.exchange-rate.follower-wait:10m}") Duration followerWait) {
+        this.exchangeRateService = exchangeRateService;
+        this.notificationOutboxProcessor = notificationOutboxProcessor;
+        this.schedulerLockService = schedulerLockService;
+        this.meterRegistry = meterRegistry;
+        this.lockLease = lockLease;
+        this.lockMinHold = lockMinHold;
+        this.followerWait = followerWait;
+    }
 
     @EventListener(ApplicationReadyEvent.class)
     public void onApplicationStartup() {
@@ -38,53 +60,45 @@ public class ExchangeRateScheduler {
     }
 
     private void fetchRatesAndNotifySubscribers() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        String role = "leader";
         try {
-            exchangeRateService.fetchAndSaveExchangeRates();
-
-            sendNotifications();
+            LocalDate runDate = LocalDate.now();
+            if (schedulerLockService.tryAcquire(INGEST_LOCK, lockLease)) {
+                try {
+                    exchangeRateService.fetchAndSaveExchangeRates();
+                } finally {
+                    schedulerLockService.release(INGEST_LOCK, lockMinHold);
+                }
+                sendNotifications(runDate);
+            } else {
+                role = "follower";
+                joinNotifications(runDate);
+            }
         } catch (Exception e) {
+            outcome = "failure";
             log.error("Error in scheduled task", e);
+        } finally {
+            sample.stop(meterRegistry.timer("exchange.rate.scheduled.run", "outcome", outcome, "role", role));
         }
     }
 
-    private void sendNotifications() {
-        log.info("Starting to send notifications to subscribers");
-
-        List<Subscription> activeSubscriptions = subscriptionService.getAllActiveSubscriptions();
-
-        if (activeSubscriptions.isEmpty()) {
-            log.info("No active subscriptions found");
+    private void joinNotifications(LocalDate runDate) {
+        log.info("Exchange rate ingest is held by another node; joining the {} notification run", runDate);
+        if (!notificationOutboxProcessor.awaitRun(runDate, followerWait)) {
+            log.warn("No notification run for {} was started within {}; skipping", runDate, followerWait);
             return;
         }
+        exchangeRateService.refreshLatestRates();
+        sendNotifications(runDate);
+    }
 
-        Map<String, List<Subscription>> subscriptionsByCurrency = activeSubscriptions.stream()
-                .collect(Collectors.groupingBy(Subscription::getCurrencyCode));
-
-        int successCount = 0;
-        int failureCount = 0;
-
-        for (Map.Entry<String, List<Subscription>> entry : subscriptionsByCurrency.entrySet()) {
-            String currencyCode = entry.getKey();
-            List<Subscription> subscriptions = entry.getValue();
-
-            try {
-                ExchangeRateResponse rate = exchangeRateService.getLatestRate(currencyCode);
+    private void sendNotifications(LocalDate runDate) {
+        log.info("Starting to send notifications to subscribers for {}", runDate);
 
-                for (Subscription subscription : subscriptions) {
-                    try {
-                        emailService.sendExchangeRateNotification(subscription.getEmail(), rate);
-                        successCount++;
-                    } catch (Exception e) {
-                        log.error("Failed to send notification to: {}", subscription.getEmail(), e);
-                        failureCount++;
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Failed to get exchange rate for currency: {}", currencyCode, e);
-                failureCount += subscriptions.size();
-            }
-        }
+        DispatchReport report = notificationOutboxProcessor.process(runDate);
 
-        log.info("Notifications sent. Success: {}, Failures: {}", successCount, failureCount);
+        log.info("Notifications sent. Success: {}, Failures: {}", report.sent(), report.failed());
     }
 }
@@ -0,0 +1,103 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.dmytrolutsiuk.backend.alert.AlertRuleIndex;
+import ua.dmytrolutsiuk.backend.dto.AlertRuleRequest;
+import ua.dmytrolutsiuk.backend.dto.AlertRuleResponse;
+import ua.dmytrolutsiuk.backend.event.AlertRuleChangedEvent;
+import ua.dmytrolutsiuk.backend.model.AlertRule;
+import ua.dmytrolutsiuk.backend.model.Subscription;
+import ua.dmytrolutsiuk.backend.repository.AlertRuleRepository;
+import ua.dmytrolutsiuk.backend.repository.IndexedAlertRule;
+import ua.dmytrolutsiuk.backend.repository.SubscriptionRepository;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlertRuleService {
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final AlertRuleIndex alertRuleIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public AlertRuleResponse addRule(Long subscriptionId, AlertRuleRequest request) {
+        Subscription subscription = findSubscription(subscriptionId);
+        log.info("Adding {} alert at {} to subscription: {}", request.getType(), request.getThreshold(), subscriptionId);
+
+        AlertRule rule = alertRuleRepository.save(AlertRule.builder()
+                .subscriptionId(subscriptionId)
+                .type(request.getType())
+                .threshold(request.getThreshold())
+                .build());
+
+        IndexedAlertRule indexed = toIndexed(rule, subscription);
+        afterCommit(() -> alertRuleIndex.add(indexed));
+        eventPublisher.publishEvent(new AlertRuleChangedEvent(indexed, false));
+        return mapToResponse(rule, subscription);
+    }
+
+    public List<AlertRuleResponse> getRules(Long subscriptionId) {
+        Subscription subscription = findSubscription(subscriptionId);
+        return alertRuleRepository.findBySubscriptionIdOrderById(subscriptionId).stream()
+                .map(rule -> mapToResponse(rule, subscription))
+                .toList();
+    }
+
+    @Transactional
+    public void deleteRule(Long subscriptionId, Long ruleId) {
+        Subscription subscription = findSubscription(subscriptionId);
+        AlertRule rule = alertRuleRepository.findByIdAndSubscriptionId(ruleId, subscriptionId)
+                .orElseThrow(() -> new RuntimeException(
+                        "Alert rule not found: " + ruleId + " for subscription: " + subscriptionId));
+        log.info("Deleting alert rule: {} from subscription: {}", ruleId, subscriptionId);
+
+        alertRuleRepository.delete(rule);
+        IndexedAlertRule indexed = toIndexed(rule, subscription);
+        afterCommit(() -> alertRuleIndex.remove(indexed));
+        eventPublisher.publishEvent(new AlertRuleChangedEvent(indexed, true));
+    }
+
+    private Subscription findSubscription(Long subscriptionId) {
+        return subscriptionRepository.findById(subscriptionId)
+                .orElseThrow(() -> new RuntimeException("Subscription not found: " + subscriptionId));
+    }
+
+    private static IndexedAlertRule toIndexed(AlertRule rule, Subscription subscription) {
+        return new IndexedAlertRule(
+                rule.getId(), rule.getSubscriptionId(), subscription.getCurrencyCode(), rule.getType(), rule.getThreshold());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static AlertRuleResponse mapToResponse(AlertRule rule, Subscription subscription) {
+        return AlertRuleResponse.builder()
+                .id(rule.getId())
+                .subscriptionId(rule.getSubscriptionId())
+                .currencyCode(subscription.getCurrencyCode())
+                .type(rule.getType())
+                .threshold(rule.getThreshold())
+                .createdAt(rule.getCreatedAt())
+                .build();
+    }
+}
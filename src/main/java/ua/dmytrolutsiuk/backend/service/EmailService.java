@@ -1,56 +1,117 @@
 package ua.dmytrolutsiuk.backend.service;
 
+import jakarta.activation.DataHandler;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import jakarta.mail.util.ByteArrayDataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.mail.RateNotificationRenderer;
+import ua.dmytrolutsiuk.backend.mail.RenderedMail;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
+    private static final String TEXT_CONTENT_TYPE = "text/plain; charset=UTF-8";
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=UTF-8";
+
     private final JavaMailSender mailSender;
+    private final RateNotificationRenderer renderer;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
 
     public void sendExchangeRateNotification(String toEmail, ExchangeRateResponse exchangeRate) {
+        sendExchangeRateNotification(toEmail, exchangeRate, NotificationLocale.EN);
+    }
+
+    public void sendExchangeRateNotification(String toEmail, ExchangeRateResponse exchangeRate, NotificationLocale locale) {
         log.info("Sending exchange rate notification to: {}", toEmail);
 
+        mailSender.send(buildExchangeRateNotification(toEmail, exchangeRate, locale));
+        log.info("Email sent successfully to: {}", toEmail);
+    }
+
+    public void sendRateDigest(String toEmail, List<ExchangeRateResponse> exchangeRates, NotificationLocale locale) {
+        log.info("Sending exchange rate digest with {} currencies to: {}", exchangeRates.size(), toEmail);
+
+        mailSender.send(buildRateDigest(toEmail, exchangeRates, locale));
+        log.info("Email sent successfully to: {}", toEmail);
+    }
+
+    public Map<MimeMessage, Exception> sendAll(List<MimeMessage> messages) {
+        log.info("Sending batch of {} exchange rate notifications", messages.size());
+
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Exchange Rate Update: " + exchangeRate.getCurrencyCode());
-            message.setText(buildEmailBody(exchangeRate));
-
-            mailSender.send(message);
-            log.info("Email sent successfully to: {}", toEmail);
-        } catch (Exception e) {
-            log.error("Failed to send email to: {}", toEmail, e);
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+            return Map.of();
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                return failAll(messages, e);
+            }
+            Map<MimeMessage, Exception> failures = new IdentityHashMap<>();
+            e.getFailedMessages().forEach((message, error) -> failures.put((MimeMessage) message, error));
+            return failures;
+        } catch (MailException e) {
+            return failAll(messages, e);
         }
     }
 
-    private String buildEmailBody(ExchangeRateResponse exchangeRate) {
-        return String.format("""
-                Hello,
+    public MimeMessage buildExchangeRateNotification(
+            String toEmail, ExchangeRateResponse exchangeRate, NotificationLocale locale) {
+        return buildMessage(toEmail, renderer.render(exchangeRate, locale));
+    }
 
-                Here is the latest exchange rate information:
+    public MimeMessage buildRateDigest(
+            String toEmail, List<ExchangeRateResponse> exchangeRates, NotificationLocale locale) {
+        return buildMessage(toEmail, renderer.renderDigest(exchangeRates, locale));
+    }
+
+    private MimeMessage buildMessage(String toEmail, RenderedMail rendered) {
+        try {
+            MimeMultipart alternatives = new MimeMultipart("alternative");
+            alternatives.addBodyPart(bodyPart(rendered.text(), TEXT_CONTENT_TYPE));
+            alternatives.addBodyPart(bodyPart(rendered.html(), HTML_CONTENT_TYPE));
 
-                Currency: %s (%s)
-                Rate: %s UAH
-                Date: %s
+            MimeMessage message = mailSender.createMimeMessage();
+            message.setFrom(new InternetAddress(fromEmail));
+            message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress(toEmail));
+            message.setSubject(rendered.subject(), StandardCharsets.UTF_8.name());
+            message.setContent(alternatives);
+            return message;
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Failed to build notification for: " + toEmail, e);
+        }
+    }
+
+    private static MimeBodyPart bodyPart(byte[] content, String contentType) throws MessagingException {
+        MimeBodyPart part = new MimeBodyPart();
+        part.setDataHandler(new DataHandler(new ByteArrayDataSource(content, contentType)));
+        part.setHeader("Content-Type", contentType);
+        return part;
+    }
 
-                Best regards,
-                Exchange Rate Notifier
-                """,
-                exchangeRate.getCurrencyName(),
-                exchangeRate.getCurrencyCode(),
-                exchangeRate.getRate(),
-                exchangeRate.getExchangeDate());
+    private static Map<MimeMessage, Exception> failAll(List<MimeMessage> messages, Exception error) {
+        Map<MimeMessage, Exception> failures = new IdentityHashMap<>();
+        messages.forEach(message -> failures.put(message, error));
+        return failures;
     }
 }
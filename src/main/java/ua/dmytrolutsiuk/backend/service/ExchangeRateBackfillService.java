@@ -0,0 +1,256 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.dmytrolutsiuk.backend.dto.BackfillReport;
+import ua.dmytrolutsiuk.backend.dto.BackfillStatus;
+import ua.dmytrolutsiuk.backend.event.ExchangeRatesUpdatedEvent;
+import ua.dmytrolutsiuk.backend.model.BackfillCheckpoint;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+import ua.dmytrolutsiuk.backend.repository.BackfillCheckpointRepository;
+import ua.dmytrolutsiuk.backend.repository.ExchangeRateRepository;
+import ua.dmytrolutsiuk.backend.repository.UpsertResult;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@Slf4j
+public class ExchangeRateBackfillService {
+
+    private final NbuApiClient nbuApiClient;
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final BackfillCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<BackfillReport> lastReport = new AtomicReference<>();
+
+    public ExchangeRateBackfillService(
+            NbuApiClient nbuApiClient,
+            ExchangeRateRepository exchangeRateRepository,
+            BackfillCheckpointRepository checkpointRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${exchange-rate.backfill.parallelism:4}") int parallelism,
+            @Value("${exchange-rate.backfill.max-attempts:3}") int maxAttempts,
+            @Value("${exchange-rate.backfill.backoff:1s}") Duration initialBackoff,
+            @Value("${exchange-rate.ingest.batch-size:500}") int batchSize) {
+        this.nbuApiClient = nbuApiClient;
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public boolean startBackfill(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        Thread.ofVirtual().name("rate-backfill").start(() -> {
+            try {
+                runBackfill(from, to);
+            } catch (Exception e) {
+                log.error("Backfill from {} to {} failed", from, to, e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public BackfillStatus getStatus() {
+        return new BackfillStatus(running.get(), lastReport.get());
+    }
+
+    public BackfillReport backfill(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return runBackfill(from, to);
+    }
+
+    private BackfillReport runBackfill(LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        Set<LocalDate> completed = checkpointRepository.findCompletedDates(from, to);
+        List<LocalDate> pending = from.datesUntil(to.plusDays(1))
+                .filter(date -> !completed.contains(date))
+                .toList();
+
+        log.info("Starting backfill from {} to {}: {} days pending, {} already complete",
+                from, to, pending.size(), completed.size());
+
+        BackfillWriter writer = new BackfillWriter();
+        BlockingQueue<DayResult> results = new ArrayBlockingQueue<>(parallelism * 4);
+        Semaphore permits = new Semaphore(parallelism);
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("rate-backfill-", 0).factory())) {
+            try {
+                for (LocalDate date : pending) {
+                    executor.execute(() -> publish(results, fetchDay(date, permits)));
+                }
+                for (int i = 0; i < pending.size(); i++) {
+                    writer.accept(results.take());
+                }
+                writer.flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Backfill interrupted; completed days are checkpointed and will be skipped on resume");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        UpsertResult total = new UpsertResult(writer.saved, writer.updated, writer.unchanged);
+        if (total.total() > 0) {
+            eventPublisher.publishEvent(new ExchangeRatesUpdatedEvent(total));
+        }
+
+        BackfillReport report = new BackfillReport(from, to, completed.size(), writer.completedDays,
+                writer.emptyDays, List.copyOf(writer.failedDates), writer.saved, writer.updated,
+                Duration.ofNanos(System.nanoTime() - start));
+        lastReport.set(report);
+
+        log.info("Backfill finished. Completed: {}, Skipped: {}, Empty: {}, Failed: {}, Saved: {}, Updated: {}, Elapsed: {} ms",
+                report.completedDays(), report.skippedDays(), report.emptyDays(), report.failedDates().size(),
+                report.saved(), report.updated(), report.elapsed().toMillis());
+        return report;
+    }
+
+    private DayResult fetchDay(LocalDate date, Semaphore permits) {
+        Duration backoff = initialBackoff;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                permits.acquire();
+                try {
+                    List<ExchangeRate> rates = new ArrayList<>();
+                    nbuApiClient.streamExchangeRates(date, rate -> rates.add(ExchangeRateService.mapToEntity(rate)));
+                    return DayResult.success(date, rates);
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return DayResult.failure(date, e);
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up on {} after {} attempts: {}", date, attempt, e.getMessage());
+                    return DayResult.failure(date, e);
+                }
+                log.debug("Attempt {} for {} failed, retrying in {} ms", attempt, date, backoff.toMillis());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return DayResult.failure(date, interrupted);
+                }
+                backoff = backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private static void publish(BlockingQueue<DayResult> results, DayResult result) {
+        try {
+            results.put(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' date must not be after 'to' date");
+        }
+        if (to.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("'to' date must not be in the future");
+        }
+    }
+
+    private final class BackfillWriter {
+
+        private final List<ExchangeRate> pendingRates = new ArrayList<>();
+        private final List<BackfillCheckpoint> pendingCheckpoints = new ArrayList<>();
+        private final List<LocalDate> failedDates = new ArrayList<>();
+        private int completedDays;
+        private int emptyDays;
+        private int saved;
+        private int updated;
+        private int unchanged;
+
+        void accept(DayResult result) {
+            if (result.error() != null) {
+                failedDates.add(result.date());
+                return;
+            }
+            if (result.rates().isEmpty()) {
+                emptyDays++;
+                return;
+            }
+
+            pendingRates.addAll(result.rates());
+            pendingCheckpoints.add(BackfillCheckpoint.builder()
+                    .exchangeDate(result.date())
+                    .rateCount(result.rates().size())
+                    .completedAt(LocalDateTime.now())
+                    .build());
+
+            if (pendingRates.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pendingCheckpoints.isEmpty()) {
+                return;
+            }
+
+            UpsertResult result = transactionTemplate.execute(status -> {
+                UpsertResult upserted = exchangeRateRepository.upsertAll(pendingRates);
+                checkpointRepository.saveAll(pendingCheckpoints);
+                return upserted;
+            });
+
+            saved += result.saved();
+            updated += result.updated();
+            unchanged += result.unchanged();
+            completedDays += pendingCheckpoints.size();
+            pendingRates.clear();
+            pendingCheckpoints.clear();
+        }
+    }
+
+    private record DayResult(LocalDate date, List<ExchangeRate> rates, Exception error) {
+
+        static DayResult success(LocalDate date, List<ExchangeRate> rates) {
+            return new DayResult(date, rates, null);
+        }
+
+        static DayResult failure(LocalDate date, Exception error) {
+            return new DayResult(date, List.of(), error);
+        }
+    }
+}
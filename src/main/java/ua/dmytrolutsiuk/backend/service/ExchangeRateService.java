@@ -1,17 +1,43 @@
 package ua.dmytrolutsiuk.backend.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.dmytrolutsiuk.backend.alert.AlertRuleIndex;
+import ua.dmytrolutsiuk.backend.cache.CrossRateMatrix;
+import ua.dmytrolutsiuk.backend.cache.CrossRateSnapshot;
+import ua.dmytrolutsiuk.backend.cache.ExchangeRateCache;
+import ua.dmytrolutsiuk.backend.cache.SerializedSnapshot;
+import ua.dmytrolutsiuk.backend.dto.CrossRateResponse;
 import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
-import ua.dmytrolutsiuk.backend.dto.NbuExchangeRateDto;
+import ua.dmytrolutsiuk.backend.dto.NbuPayload;
+import ua.dmytrolutsiuk.backend.dto.NbuRate;
+import ua.dmytrolutsiuk.backend.event.ExchangeRatesUpdatedEvent;
 import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+import ua.dmytrolutsiuk.backend.provider.RateProviderGateway;
+import ua.dmytrolutsiuk.backend.provider.RateProviderUnavailableException;
 import ua.dmytrolutsiuk.backend.repository.ExchangeRateRepository;
+import ua.dmytrolutsiuk.backend.repository.UpsertResult;
+import ua.dmytrolutsiuk.backend.stream.RateStreamBroadcaster;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -19,77 +45,236 @@ import java.util.List;
 public class ExchangeRateService {
 
     private final ExchangeRateRepository exchangeRateRepository;
-    private final NbuApiClient nbuApiClient;
+    private final RateProviderGateway rateProviderGateway;
+    private final ExchangeRateCache exchangeRateCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final AlertRuleIndex alertRuleIndex;
+    private final NotificationOutboxService notificationOutboxService;
+    private final RateStreamBroadcaster rateStreamBroadcaster;
 
-    private static final DateTimeFormatter NBU_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final String INGEST_PAYLOADS_METRIC = "exchange.rate.ingest.payloads";
+    private static final String INGEST_ROWS_METRIC = "exchange.rate.ingest.rows";
+    private static final String INGEST_UPSERT_METRIC = "exchange.rate.ingest.upsert";
+    private static final String LOOKUP_METRIC = "exchange.rate.lookup";
+    private static final String LOOKUP_REQUESTS_METRIC = "exchange.rate.lookup.requests";
+    private static final String UNKNOWN_CURRENCY = "unknown";
+
+    private final Map<String, LookupTimers> lookupTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> lookupRequests = new ConcurrentHashMap<>();
 
     @Transactional
-    public void fetchAndSaveExchangeRates() {
+    public UpsertResult fetchAndSaveExchangeRates() {
         log.info("Starting to fetch and save exchange rates");
 
-        List<NbuExchangeRateDto> nbuRates = nbuApiClient.fetchExchangeRates();
+        Optional<NbuPayload> payload;
+        try {
+            payload = rateProviderGateway.fetchExchangeRatesIfChanged();
+        } catch (RateProviderUnavailableException e) {
+            meterRegistry.counter(INGEST_PAYLOADS_METRIC, "result", "fallback").increment();
+            log.warn("{}; serving last known good exchange rates from the database", e.getMessage());
+            refreshLatestRates();
+            return UpsertResult.empty();
+        }
+
+        if (payload.isEmpty()) {
+            meterRegistry.counter(INGEST_PAYLOADS_METRIC, "result", "unchanged").increment();
+            log.info("Exchange rates unchanged since the last ingest; nothing to write");
+            return UpsertResult.empty();
+        }
+
+        List<NbuRate> nbuRates = payload.get().rates();
 
         if (nbuRates == null || nbuRates.isEmpty()) {
             log.warn("No exchange rates received from NBU API");
-            return;
+            return UpsertResult.empty();
         }
+        meterRegistry.counter(INGEST_PAYLOADS_METRIC, "result", "changed").increment();
 
-        int savedCount = 0;
-        int updatedCount = 0;
-
-        for (NbuExchangeRateDto nbuRate : nbuRates) {
-            try {
-                LocalDate exchangeDate = LocalDate.parse(nbuRate.getExchangedate(), NBU_DATE_FORMATTER);
+        List<ExchangeRate> exchangeRates = new ArrayList<>(nbuRates.size());
+        Set<Long> triggeredSubscriptions = new HashSet<>();
 
-                ExchangeRate exchangeRate = exchangeRateRepository
-                        .findByCurrencyCodeAndExchangeDate(nbuRate.getCc(), exchangeDate)
-                        .orElse(ExchangeRate.builder()
-                                .currencyCode(nbuRate.getCc())
-                                .exchangeDate(exchangeDate)
-                                .build());
+        for (NbuRate nbuRate : nbuRates) {
+            ExchangeRate exchangeRate = mapToEntity(nbuRate);
+            exchangeRates.add(exchangeRate);
+            evaluateAlerts(exchangeRate, triggeredSubscriptions);
+        }
 
-                boolean isNew = exchangeRate.getId() == null;
+        UpsertResult result = meterRegistry.timer(INGEST_UPSERT_METRIC)
+                .record(() -> exchangeRateRepository.upsertAll(exchangeRates));
+        meterRegistry.counter(INGEST_ROWS_METRIC, "result", "new").increment(result.saved());
+        meterRegistry.counter(INGEST_ROWS_METRIC, "result", "changed").increment(result.updated());
+        meterRegistry.counter(INGEST_ROWS_METRIC, "result", "unchanged").increment(result.unchanged());
 
-                exchangeRate.setR030(nbuRate.getR030());
-                exchangeRate.setCurrencyName(nbuRate.getTxt());
-                exchangeRate.setRate(nbuRate.getRate());
+        if (result.total() > 0) {
+            eventPublisher.publishEvent(new ExchangeRatesUpdatedEvent(result));
+        }
+        notificationOutboxService.enqueueTriggered(LocalDate.now(), triggeredSubscriptions);
+        afterCommit(() -> rateProviderGateway.markProcessed(payload.get()));
 
-                exchangeRateRepository.save(exchangeRate);
+        log.info("Exchange rates processing completed. Saved: {}, Updated: {}, Unchanged: {}",
+                result.saved(), result.updated(), result.unchanged());
+        return result;
+    }
 
-                if (isNew) {
-                    savedCount++;
-                } else {
-                    updatedCount++;
-                }
-            } catch (Exception e) {
-                log.error("Error processing exchange rate for currency: {}", nbuRate.getCc(), e);
-            }
+    private void evaluateAlerts(ExchangeRate exchangeRate, Set<Long> triggeredSubscriptions) {
+        if (exchangeRate.getCurrencyCode() == null || exchangeRate.getRate() == null) {
+            return;
         }
-
-        log.info("Exchange rates processing completed. Saved: {}, Updated: {}", savedCount, updatedCount);
+        exchangeRateCache.getLatest(exchangeRate.getCurrencyCode(), this::loadLatestRate)
+                .filter(previous -> !previous.getExchangeDate().isAfter(exchangeRate.getExchangeDate()))
+                .ifPresent(previous -> alertRuleIndex.collectTriggered(
+                        exchangeRate.getCurrencyCode(), previous.getRate(), exchangeRate.getRate(), triggeredSubscriptions));
     }
 
     public ExchangeRateResponse getLatestRate(String currencyCode) {
         log.debug("Fetching latest rate for currency: {}", currencyCode);
 
-        ExchangeRate exchangeRate = exchangeRateRepository
-                .findFirstByCurrencyCodeOrderByExchangeDateDesc(currencyCode.toUpperCase())
-                .orElseThrow(() -> new RuntimeException("Exchange rate not found for currency: " + currencyCode));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Optional<ExchangeRateResponse> rate = exchangeRateCache.getLatest(currencyCode.toUpperCase(), this::loadLatestRate);
+        recordLookup(sample, "latest", rate.map(ExchangeRateResponse::getCurrencyCode));
 
-        return mapToResponse(exchangeRate);
+        return rate.orElseThrow(() -> new RuntimeException("Exchange rate not found for currency: " + currencyCode));
     }
 
     public ExchangeRateResponse getRateByDate(String currencyCode, LocalDate date) {
         log.debug("Fetching rate for currency: {} on date: {}", currencyCode, date);
 
-        ExchangeRate exchangeRate = exchangeRateRepository
-                .findByCurrencyCodeAndExchangeDate(currencyCode.toUpperCase(), date)
-                .orElseThrow(() -> new RuntimeException(
-                        "Exchange rate not found for currency: " + currencyCode + " on date: " + date));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Optional<ExchangeRate> rate = exchangeRateRepository.findByCurrencyCodeAndExchangeDate(currencyCode.toUpperCase(), date);
+        recordLookup(sample, "by_date", rate.map(ExchangeRate::getCurrencyCode));
+
+        ExchangeRate exchangeRate = rate.orElseThrow(() -> new RuntimeException(
+                "Exchange rate not found for currency: " + currencyCode + " on date: " + date));
 
         return mapToResponse(exchangeRate);
     }
 
+    public SerializedSnapshot getLatestSnapshot() {
+        return exchangeRateCache.getSerializedSnapshot().orElseGet(() -> {
+            refreshLatestRates();
+            return exchangeRateCache.getSerializedSnapshot()
+                    .orElseThrow(() -> new IllegalStateException("Latest-rate snapshot is not available"));
+        });
+    }
+
+    public List<ExchangeRateResponse> getRatesByDate(LocalDate date) {
+        log.debug("Fetching all rates on date: {}", date);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<ExchangeRateResponse> rates = exchangeRateRepository.findAllByExchangeDateOrderByCurrencyCode(date).stream()
+                .map(this::mapToResponse)
+                .toList();
+        sample.stop(lookupTimer("snapshot_by_date", !rates.isEmpty()));
+
+        return rates;
+    }
+
+    public CrossRateResponse getCrossRate(String baseCurrencyCode, String quoteCurrencyCode) {
+        return getCrossRate(getCrossRateSnapshot().matrix(), baseCurrencyCode, quoteCurrencyCode);
+    }
+
+    public CrossRateResponse getCrossRate(CrossRateMatrix matrix, String baseCurrencyCode, String quoteCurrencyCode) {
+        int base = matrix.r030(baseCurrencyCode.toUpperCase());
+        int quote = matrix.r030(quoteCurrencyCode.toUpperCase());
+        if (base < 0 || quote < 0) {
+            throw new RuntimeException("Exchange rate not found for currency: "
+                    + (base < 0 ? baseCurrencyCode : quoteCurrencyCode));
+        }
+
+        return new CrossRateResponse(
+                matrix.currencyCode(base),
+                matrix.currencyCode(quote),
+                matrix.rate(base, quote),
+                matrix.exchangeDate(base, quote));
+    }
+
+    public CrossRateSnapshot getCrossRateSnapshot() {
+        return exchangeRateCache.getCrossRateSnapshot().orElseGet(() -> {
+            refreshLatestRates();
+            return exchangeRateCache.getCrossRateSnapshot()
+                    .orElseThrow(() -> new IllegalStateException("Cross-rate matrix is not available"));
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExchangeRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        refreshLatestRates();
+    }
+
+    // Refreshes run one at a time, so a slower read that started earlier cannot replace a newer snapshot, and
+    // stream subscribers see snapshots in the order they were published.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refreshLatestRates() {
+        List<ExchangeRate> latest = exchangeRateRepository.findLatestRates();
+        List<ExchangeRateResponse> latestRates = latest.stream()
+                .map(this::mapToResponse)
+                .toList();
+
+        exchangeRateCache.replaceAll(latestRates, CrossRateMatrix.of(latest));
+        rateStreamBroadcaster.publish(latestRates);
+    }
+
+    private void recordLookup(Timer.Sample sample, String query, Optional<String> foundCurrency) {
+        sample.stop(lookupTimer(query, foundCurrency.isPresent()));
+        lookupRequests(foundCurrency.orElse(UNKNOWN_CURRENCY)).increment();
+    }
+
+    private Timer lookupTimer(String query, boolean found) {
+        LookupTimers timers = lookupTimers.get(query);
+        if (timers == null) {
+            timers = lookupTimers.computeIfAbsent(query, key -> new LookupTimers(
+                    lookupTimer(key, "found"), lookupTimer(key, "not_found")));
+        }
+        return found ? timers.found() : timers.notFound();
+    }
+
+    private Timer lookupTimer(String query, String outcome) {
+        return Timer.builder(LOOKUP_METRIC)
+                .tag("query", query)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter lookupRequests(String currencyCode) {
+        Counter counter = lookupRequests.get(currencyCode);
+        if (counter == null) {
+            counter = lookupRequests.computeIfAbsent(currencyCode, key -> meterRegistry.counter(LOOKUP_REQUESTS_METRIC,
+                    "currency", key, "outcome", key.equals(UNKNOWN_CURRENCY) ? "not_found" : "found"));
+        }
+        return counter;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Optional<ExchangeRateResponse> loadLatestRate(String currencyCode) {
+        return exchangeRateRepository
+                .findFirstByCurrencyCodeOrderByExchangeDateDesc(currencyCode)
+                .map(this::mapToResponse);
+    }
+
+    static ExchangeRate mapToEntity(NbuRate nbuRate) {
+        return ExchangeRate.builder()
+                .r030(nbuRate.r030())
+                .currencyCode(nbuRate.currencyCode())
+                .currencyName(nbuRate.currencyName())
+                .rate(nbuRate.rate())
+                .exchangeDate(nbuRate.exchangeDate())
+                .build();
+    }
+
     private ExchangeRateResponse mapToResponse(ExchangeRate exchangeRate) {
         return ExchangeRateResponse.builder()
                 .currencyCode(exchangeRate.getCurrencyCode())
@@ -98,4 +283,7 @@ public class ExchangeRateService {
                 .exchangeDate(exchangeRate.getExchangeDate())
                 .build();
     }
+
+    private record LookupTimers(Timer found, Timer notFound) {
+    }
 }
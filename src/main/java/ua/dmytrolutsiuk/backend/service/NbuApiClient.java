@@ -1,42 +1,132 @@
 package ua.dmytrolutsiuk.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.stereotype.Service;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.client.RestClient;
-import ua.dmytrolutsiuk.backend.dto.NbuExchangeRateDto;
+import org.springframework.web.util.UriComponentsBuilder;
+import ua.dmytrolutsiuk.backend.cache.Fingerprints;
+import ua.dmytrolutsiuk.backend.dto.NbuPayload;
+import ua.dmytrolutsiuk.backend.dto.NbuRate;
+import ua.dmytrolutsiuk.backend.provider.RateProvider;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
-@Service
 @Slf4j
-public class NbuApiClient {
+public class NbuApiClient implements RateProvider {
+
+    private static final DateTimeFormatter NBU_QUERY_DATE_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
 
     private final RestClient restClient;
+    private final NbuRateParser rateParser;
     private final String nbuApiUrl;
+    private final AtomicReference<NbuPayload> lastProcessed = new AtomicReference<>();
 
     public NbuApiClient(
             RestClient.Builder restClientBuilder,
-            @Value("${nbu.api.url}") String nbuApiUrl) {
+            ObjectMapper objectMapper,
+            String nbuApiUrl) {
         this.restClient = restClientBuilder.build();
+        this.rateParser = new NbuRateParser(objectMapper.getFactory());
         this.nbuApiUrl = nbuApiUrl;
     }
 
-    public List<NbuExchangeRateDto> fetchExchangeRates() {
+    @Override
+    public String name() {
+        return "nbu";
+    }
+
+    @Override
+    public Optional<NbuPayload> fetchExchangeRatesIfChanged() {
         log.info("Fetching exchange rates from NBU API: {}", nbuApiUrl);
+        NbuPayload previous = lastProcessed.get();
 
         try {
-            List<NbuExchangeRateDto> rates = restClient.get()
+            NbuPayload payload = restClient.get()
                     .uri(nbuApiUrl)
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<>() {});
+                    .headers(headers -> {
+                        if (previous != null && previous.etag() != null) {
+                            headers.setIfNoneMatch(previous.etag());
+                        }
+                        if (previous != null && previous.lastModified() != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                        }
+                    })
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            return null;
+                        }
+                        if (response.getStatusCode().isError()) {
+                            throw new IllegalStateException("NBU API responded with " + response.getStatusCode());
+                        }
+                        MessageDigest digest = Fingerprints.sha256();
+                        List<NbuRate> rates = new ArrayList<>();
+                        try (InputStream body = new DigestInputStream(response.getBody(), digest)) {
+                            rateParser.parse(body, rates::add);
+                            body.transferTo(OutputStream.nullOutputStream());
+                        }
+                        return new NbuPayload(
+                                rates,
+                                response.getHeaders().getETag(),
+                                response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED),
+                                HexFormat.of().formatHex(digest.digest()));
+                    });
 
-            log.info("Successfully fetched {} exchange rates", rates != null ? rates.size() : 0);
-            return rates;
+            if (payload == null) {
+                log.info("NBU API reported exchange rates as not modified");
+                return Optional.empty();
+            }
+            if (previous != null && payload.contentHash().equals(previous.contentHash())) {
+                log.info("NBU API returned an identical payload; skipping");
+                return Optional.empty();
+            }
+
+            log.info("Successfully fetched {} exchange rates", payload.rates().size());
+            return Optional.of(payload);
         } catch (Exception e) {
             log.error("Error fetching exchange rates from NBU API", e);
             throw new RuntimeException("Failed to fetch exchange rates from NBU API", e);
         }
     }
+
+    @Override
+    public void markProcessed(NbuPayload payload) {
+        lastProcessed.set(payload);
+    }
+
+    public int streamExchangeRates(LocalDate date, Consumer<NbuRate> sink) {
+        URI uri = UriComponentsBuilder.fromUriString(nbuApiUrl)
+                .queryParam("date", date.format(NBU_QUERY_DATE_FORMATTER))
+                .build()
+                .toUri();
+        log.debug("Fetching exchange rates for {} from NBU API: {}", date, uri);
+
+        try {
+            return restClient.get()
+                    .uri(uri)
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            throw new IllegalStateException("NBU API responded with " + response.getStatusCode());
+                        }
+                        try (InputStream body = response.getBody()) {
+                            return rateParser.parse(body, sink);
+                        }
+                    });
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch exchange rates for " + date + " from NBU API", e);
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import ua.dmytrolutsiuk.backend.dto.NbuRate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Slf4j
+public class NbuRateParser {
+
+    private static final DateTimeFormatter NBU_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final JsonFactory jsonFactory;
+
+    public NbuRateParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public int parse(InputStream body, Consumer<NbuRate> sink) throws IOException {
+        ParseState state = new ParseState();
+        int parsed = 0;
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            parser.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                return 0;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of exchange rates but got " + first);
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                NbuRate rate = readRate(parser, state);
+                if (rate != null) {
+                    sink.accept(rate);
+                    parsed++;
+                }
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Unexpected token in exchange rate array: " + token);
+            }
+        }
+        return parsed;
+    }
+
+    private NbuRate readRate(JsonParser parser, ParseState state) throws IOException {
+        int r030 = 0;
+        String currencyCode = null;
+        String currencyName = null;
+        BigDecimal rate = null;
+        LocalDate exchangeDate = null;
+        DateTimeParseException dateError = null;
+
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "r030" -> r030 = parser.getValueAsInt();
+                case "cc" -> currencyCode = state.intern(parser.getValueAsString());
+                case "txt" -> currencyName = state.intern(parser.getValueAsString());
+                case "rate" -> rate = value.isNumeric() ? parser.getDecimalValue() : null;
+                case "exchangedate" -> {
+                    try {
+                        exchangeDate = value == JsonToken.VALUE_STRING ? state.date(parser) : null;
+                    } catch (DateTimeParseException e) {
+                        dateError = e;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (dateError != null) {
+            log.error("Error processing exchange rate for currency: {}", currencyCode, dateError);
+            return null;
+        }
+        if (currencyCode == null || rate == null || exchangeDate == null) {
+            log.warn("Skipping incomplete exchange rate for currency: {}", currencyCode);
+            return null;
+        }
+        return new NbuRate(r030, currencyCode, currencyName, rate, exchangeDate);
+    }
+
+    private static final class ParseState {
+
+        private final Map<String, LocalDate> dates = new HashMap<>();
+        private final Map<String, String> strings = new HashMap<>();
+        private char[] lastDateText = new char[0];
+        private LocalDate lastDate;
+
+        LocalDate date(JsonParser parser) throws IOException {
+            char[] buffer = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int length = parser.getTextLength();
+            if (lastDate != null && Arrays.equals(lastDateText, 0, lastDateText.length, buffer, offset, offset + length)) {
+                return lastDate;
+            }
+
+            String text = new String(buffer, offset, length);
+            LocalDate date = dates.get(text);
+            if (date == null) {
+                date = LocalDate.parse(text, NBU_DATE_FORMATTER);
+                dates.put(text, date);
+            }
+            lastDateText = text.toCharArray();
+            lastDate = date;
+            return date;
+        }
+
+        String intern(String value) {
+            if (value == null) {
+                return null;
+            }
+            String interned = strings.putIfAbsent(value, value);
+            return interned != null ? interned : value;
+        }
+    }
+}
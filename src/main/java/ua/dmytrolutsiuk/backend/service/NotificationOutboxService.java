@@ -0,0 +1,178 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.dmytrolutsiuk.backend.model.NotificationRun;
+import ua.dmytrolutsiuk.backend.model.NotificationRunStatus;
+import ua.dmytrolutsiuk.backend.model.OutboxEntry;
+import ua.dmytrolutsiuk.backend.model.OutboxStatus;
+import ua.dmytrolutsiuk.backend.repository.NotificationRunRepository;
+import ua.dmytrolutsiuk.backend.repository.OutboxEntryRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+@Service
+@Slf4j
+public class NotificationOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int ENQUEUE_CHUNK_SIZE = 1000;
+
+    private final OutboxEntryRepository outboxEntryRepository;
+    private final NotificationRunRepository notificationRunRepository;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int partitions;
+
+    public NotificationOutboxService(
+            OutboxEntryRepository outboxEntryRepository,
+            NotificationRunRepository notificationRunRepository,
+            @Value("${notification.outbox.lease:5m}") Duration lease,
+            @Value("${notification.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${notification.outbox.backoff.initial:30s}") Duration initialBackoff,
+            @Value("${notification.outbox.backoff.max:30m}") Duration maxBackoff,
+            @Value("${notification.outbox.partitions:12}") int partitions) {
+        this.outboxEntryRepository = outboxEntryRepository;
+        this.notificationRunRepository = notificationRunRepository;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.partitions = partitions;
+    }
+
+    @Transactional
+    public NotificationRun startRun(LocalDate runDate) {
+        Optional<NotificationRun> existing = notificationRunRepository.findByRunDate(runDate);
+        if (existing.isPresent()) {
+            log.info("Resuming notification run for {} (status: {})", runDate, existing.get().getStatus());
+            return existing.get();
+        }
+
+        int enqueued = outboxEntryRepository.enqueueActiveSubscriptions(runDate, LocalDateTime.now(), partitions);
+
+        NotificationRun run = notificationRunRepository.save(NotificationRun.builder()
+                .runDate(runDate)
+                .enqueuedCount(enqueued)
+                .build());
+
+        log.info("Started notification run for {} with {} pending notifications", runDate, enqueued);
+        return run;
+    }
+
+    @Transactional
+    public int enqueueTriggered(LocalDate runDate, Collection<Long> subscriptionIds) {
+        if (subscriptionIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = List.copyOf(subscriptionIds);
+        LocalDateTime now = LocalDateTime.now();
+        int enqueued = 0;
+        for (int from = 0; from < ids.size(); from += ENQUEUE_CHUNK_SIZE) {
+            enqueued += outboxEntryRepository.enqueueSubscriptions(
+                    runDate, now, partitions, ids.subList(from, Math.min(from + ENQUEUE_CHUNK_SIZE, ids.size())));
+        }
+
+        if (enqueued > 0) {
+            notificationRunRepository.findByRunDate(runDate)
+                    .filter(run -> run.getStatus() == NotificationRunStatus.COMPLETED)
+                    .ifPresent(run -> {
+                        run.setStatus(NotificationRunStatus.IN_PROGRESS);
+                        run.setCompletedAt(null);
+                        log.info("Reopened notification run for {} to deliver triggered alerts", runDate);
+                    });
+        }
+
+        log.info("Enqueued {} triggered alert notifications for {} ({} subscriptions matched)",
+                enqueued, runDate, ids.size());
+        return enqueued;
+    }
+
+    public Optional<NotificationRun> findRun(LocalDate runDate) {
+        return notificationRunRepository.findByRunDate(runDate);
+    }
+
+    @Transactional
+    public List<OutboxEntry> claimBatch(LocalDate runDate, int recipients) {
+        return claimBatch(runDate, recipients, IntStream.range(0, partitions).boxed().toList());
+    }
+
+    @Transactional
+    public List<OutboxEntry> claimBatch(LocalDate runDate, int recipients, Collection<Integer> ownedPartitions) {
+        if (ownedPartitions.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEntry> entries = outboxEntryRepository.lockClaimableRecipients(
+                runDate, now, recipients, partitions, ownedPartitions);
+
+        for (OutboxEntry entry : entries) {
+            entry.setStatus(OutboxStatus.SENDING);
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setLeaseUntil(now.plus(lease));
+            entry.setUpdatedAt(now);
+        }
+
+        return entries;
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxEntryRepository.markSent(ids, LocalDateTime.now());
+        }
+    }
+
+    @Transactional
+    public void markFailed(Long id, String error) {
+        OutboxEntry entry = outboxEntryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Outbox entry not found: " + id));
+
+        LocalDateTime now = LocalDateTime.now();
+        entry.setLeaseUntil(null);
+        entry.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        entry.setUpdatedAt(now);
+
+        if (entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(OutboxStatus.FAILED);
+            log.warn("Giving up on notification to {} after {} attempts: {}",
+                    entry.getEmail(), entry.getAttempts(), error);
+        } else {
+            entry.setStatus(OutboxStatus.PENDING);
+            entry.setNextAttemptAt(now.plus(backoff(entry.getAttempts())));
+        }
+    }
+
+    public Optional<LocalDateTime> findNextWakeUp(LocalDate runDate) {
+        return Optional.ofNullable(outboxEntryRepository.findNextWakeUp(runDate));
+    }
+
+    @Transactional
+    public void completeRun(LocalDate runDate) {
+        NotificationRun run = notificationRunRepository.findByRunDate(runDate)
+                .orElseThrow(() -> new RuntimeException("Notification run not found for date: " + runDate));
+
+        run.setStatus(NotificationRunStatus.COMPLETED);
+        run.setCompletedAt(LocalDateTime.now());
+
+        log.info("Notification run for {} completed. Sent: {}, Failed permanently: {}", runDate,
+                outboxEntryRepository.countByRunDateAndStatus(runDate, OutboxStatus.SENT),
+                outboxEntryRepository.countByRunDateAndStatus(runDate, OutboxStatus.FAILED));
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,67 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.dmytrolutsiuk.backend.repository.SchedulerLockRepository;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String nodeId;
+
+    public SchedulerLockService(
+            SchedulerLockRepository schedulerLockRepository,
+            @Value("${cluster.node-id:}") String nodeId) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        log.info("Scheduler locks are held as node {}", this.nodeId);
+    }
+
+    @Transactional
+    public boolean tryAcquire(String name, Duration lease) {
+        double leaseSeconds = seconds(lease);
+        return schedulerLockRepository.takeOver(name, nodeId, leaseSeconds) == 1
+                || schedulerLockRepository.insertIfAbsent(name, nodeId, leaseSeconds) == 1;
+    }
+
+    @Transactional
+    public void release(String name, Duration minHold) {
+        schedulerLockRepository.release(name, nodeId, seconds(minHold));
+    }
+
+    @Transactional
+    public void delete(String name) {
+        schedulerLockRepository.deleteOwned(name, nodeId);
+    }
+
+    public long countHeld(String namePrefix) {
+        return schedulerLockRepository.countHeld(namePrefix);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1_000_000_000.0;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
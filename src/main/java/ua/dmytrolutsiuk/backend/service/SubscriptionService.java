@@ -4,12 +4,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ua.dmytrolutsiuk.backend.dto.MultiCurrencySubscriptionRequest;
 import ua.dmytrolutsiuk.backend.dto.SubscriptionRequest;
 import ua.dmytrolutsiuk.backend.dto.SubscriptionResponse;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
 import ua.dmytrolutsiuk.backend.model.Subscription;
 import ua.dmytrolutsiuk.backend.repository.SubscriptionRepository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,6 +43,7 @@ public class SubscriptionService {
         }
 
         subscription.setActive(true);
+        subscription.setLocale(NotificationLocale.fromTag(request.getLocale()));
         subscription = subscriptionRepository.save(subscription);
 
         log.info("Subscription created successfully with ID: {}", subscription.getId());
@@ -44,6 +51,40 @@ public class SubscriptionService {
         return mapToResponse(subscription);
     }
 
+    @Transactional
+    public List<SubscriptionResponse> subscribeAll(MultiCurrencySubscriptionRequest request) {
+        List<String> currencyCodes = request.getCurrencyCodes().stream()
+                .map(String::toUpperCase)
+                .distinct()
+                .sorted()
+                .toList();
+        log.info("Creating subscriptions for email: {} and currencies: {}", request.getEmail(), currencyCodes);
+
+        Map<String, Subscription> existing = subscriptionRepository
+                .findByEmailAndCurrencyCodeIn(request.getEmail(), currencyCodes).stream()
+                .collect(Collectors.toMap(Subscription::getCurrencyCode, Function.identity()));
+        NotificationLocale locale = NotificationLocale.fromTag(request.getLocale());
+
+        List<Subscription> subscriptions = new ArrayList<>(currencyCodes.size());
+        for (String currencyCode : currencyCodes) {
+            Subscription subscription = existing.getOrDefault(currencyCode, Subscription.builder()
+                    .email(request.getEmail())
+                    .currencyCode(currencyCode)
+                    .build());
+            subscription.setActive(true);
+            subscription.setLocale(locale);
+            subscriptions.add(subscription);
+        }
+
+        List<SubscriptionResponse> responses = subscriptionRepository.saveAll(subscriptions).stream()
+                .map(SubscriptionService::mapToResponse)
+                .toList();
+
+        log.info("Subscribed {} to {} currencies ({} already existed)",
+                request.getEmail(), responses.size(), existing.size());
+        return responses;
+    }
+
     @Transactional
     public void unsubscribe(String email, String currencyCode) {
         log.info("Unsubscribing email: {} from currency: {}", email, currencyCode);
@@ -61,16 +102,13 @@ public class SubscriptionService {
         log.info("Subscription deactivated successfully");
     }
 
-    public List<Subscription> getAllActiveSubscriptions() {
-        return subscriptionRepository.findByActiveTrue();
-    }
-
-    private SubscriptionResponse mapToResponse(Subscription subscription) {
+    public static SubscriptionResponse mapToResponse(Subscription subscription) {
         return SubscriptionResponse.builder()
                 .id(subscription.getId())
                 .email(subscription.getEmail())
                 .currencyCode(subscription.getCurrencyCode())
                 .active(subscription.getActive())
+                .locale(subscription.getLocale() != null ? subscription.getLocale().tag() : null)
                 .createdAt(subscription.getCreatedAt())
                 .build();
     }
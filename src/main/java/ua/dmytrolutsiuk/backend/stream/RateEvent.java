@@ -0,0 +1,21 @@
+package ua.dmytrolutsiuk.backend.stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+
+import java.util.Set;
+
+record RateEvent(String currencyCode, ExchangeRateResponse rate, Set<DataWithMediaType> frame) {
+
+    static final String NAME = "rate";
+
+    static RateEvent of(ExchangeRateResponse rate, String json) {
+        return new RateEvent(rate.getCurrencyCode(), rate, SseEmitter.event()
+                .id(rate.getCurrencyCode() + ":" + rate.getExchangeDate())
+                .name(NAME)
+                .data(json, MediaType.APPLICATION_JSON)
+                .build());
+    }
+}
@@ -0,0 +1,209 @@
+package ua.dmytrolutsiuk.backend.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@Slf4j
+public class RateStreamBroadcaster implements DisposableBean {
+
+    private static final String EVENTS_METRIC = "rate.stream.events";
+
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final int maxConnections;
+    private final int maxPending;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService heartbeats;
+    private final Set<RateStreamConnection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicReference<Map<String, RateEvent>> latest = new AtomicReference<>(Map.of());
+    private final Counter delivered;
+    private final Counter conflated;
+    private final Counter dropped;
+    private final Counter rejected;
+
+    public RateStreamBroadcaster(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${rate-stream.timeout:30m}") Duration timeout,
+            @Value("${rate-stream.max-connections:20000}") int maxConnections,
+            @Value("${rate-stream.max-pending-events:64}") int maxPending,
+            @Value("${rate-stream.heartbeat-interval:25s}") Duration heartbeatInterval,
+            @Value("${rate-stream.virtual-threads:true}") boolean virtualThreads,
+            @Value("${rate-stream.send-threads:8}") int sendThreads) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.maxConnections = maxConnections;
+        this.maxPending = maxPending;
+        this.executor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rate-stream-", 0).factory())
+                : Executors.newFixedThreadPool(sendThreads, Thread.ofPlatform().name("rate-stream-", 0).factory());
+        this.delivered = eventCounter(meterRegistry, "delivered");
+        this.conflated = eventCounter(meterRegistry, "conflated");
+        this.dropped = eventCounter(meterRegistry, "dropped");
+        this.rejected = Counter.builder("rate.stream.rejected")
+                .description("Stream connections refused because the node is at its connection limit")
+                .register(meterRegistry);
+        Gauge.builder("rate.stream.connections", connectionCount, AtomicInteger::get)
+                .description("Open rate-update stream connections")
+                .register(meterRegistry);
+        // Heartbeats get their own thread: on Spring's single-thread scheduler they would wait behind the daily
+        // rate job, and proxies would close idle connections in the meantime.
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("rate-stream-heartbeat").daemon().factory());
+        heartbeats.scheduleWithFixedDelay(this::heartbeatSafely,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public Optional<SseEmitter> open(Set<String> currencyCodes) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        RateStreamConnection connection = newConnection(emitter, currencyCodes);
+        if (!register(connection)) {
+            return Optional.empty();
+        }
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> connection.close());
+        return Optional.of(emitter);
+    }
+
+    public int publish(Collection<ExchangeRateResponse> rates) {
+        Map<String, RateEvent> previous = latest.get();
+        Map<String, RateEvent> current = new HashMap<>();
+        List<RateEvent> changed = new ArrayList<>();
+        for (ExchangeRateResponse rate : rates) {
+            RateEvent known = previous.get(rate.getCurrencyCode());
+            RateEvent event = known != null && known.rate().equals(rate) ? known : RateEvent.of(rate, serialize(rate));
+            current.put(rate.getCurrencyCode(), event);
+            if (event != known) {
+                changed.add(event);
+            }
+        }
+        latest.set(Map.copyOf(current));
+
+        if (!changed.isEmpty()) {
+            for (RateStreamConnection connection : connections) {
+                for (RateEvent event : changed) {
+                    if (connection.accepts(event.currencyCode())) {
+                        offer(connection, event);
+                    }
+                }
+                schedule(connection);
+            }
+            log.info("Pushed {} changed rates to {} stream connections", changed.size(), connections.size());
+        }
+        return changed.size();
+    }
+
+    public void heartbeat() {
+        for (RateStreamConnection connection : connections) {
+            connection.heartbeatDue();
+            schedule(connection);
+        }
+    }
+
+    public int connections() {
+        return connectionCount.get();
+    }
+
+    RateStreamConnection newConnection(SseEmitter emitter, Set<String> currencyCodes) {
+        return new RateStreamConnection(emitter, currencyCodes, maxPending, delivered, this::unregister);
+    }
+
+    boolean register(RateStreamConnection connection) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        connections.add(connection);
+        latest.get().values().stream()
+                .filter(event -> connection.accepts(event.currencyCode()))
+                .forEach(event -> offer(connection, event));
+        schedule(connection);
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        connections.forEach(connection -> connection.emitter().complete());
+        executor.shutdownNow();
+    }
+
+    private void heartbeatSafely() {
+        try {
+            heartbeat();
+        } catch (RuntimeException e) {
+            log.warn("Rate stream heartbeat failed; retrying at the next interval", e);
+        }
+    }
+
+    private void unregister(RateStreamConnection connection) {
+        if (connections.remove(connection)) {
+            connectionCount.decrementAndGet();
+        }
+    }
+
+    private void offer(RateStreamConnection connection, RateEvent event) {
+        switch (connection.offer(event)) {
+            case CONFLATED -> conflated.increment();
+            case DROPPED -> dropped.increment();
+            case QUEUED -> {
+            }
+        }
+    }
+
+    private void schedule(RateStreamConnection connection) {
+        if (!connection.claimDrain()) {
+            return;
+        }
+        try {
+            executor.execute(connection::drain);
+        } catch (RejectedExecutionException e) {
+            connection.close();
+        }
+    }
+
+    private String serialize(ExchangeRateResponse rate) {
+        try {
+            return objectMapper.writeValueAsString(rate);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize exchange rate " + rate.getCurrencyCode(), e);
+        }
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(EVENTS_METRIC)
+                .description("Rate updates handed to stream connections")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,124 @@
+package ua.dmytrolutsiuk.backend.stream;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+final class RateStreamConnection {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("keep-alive").build();
+
+    private final SseEmitter emitter;
+    private final Set<String> currencyCodes;
+    private final int maxPending;
+    private final Counter delivered;
+    private final Consumer<RateStreamConnection> onClosed;
+    private final Map<String, RateEvent> pending = new LinkedHashMap<>();
+    private boolean heartbeatDue;
+    private boolean draining;
+    private volatile boolean closed;
+
+    RateStreamConnection(SseEmitter emitter, Set<String> currencyCodes, int maxPending, Counter delivered,
+                         Consumer<RateStreamConnection> onClosed) {
+        this.emitter = emitter;
+        this.currencyCodes = Set.copyOf(currencyCodes);
+        this.maxPending = maxPending;
+        this.delivered = delivered;
+        this.onClosed = onClosed;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean accepts(String currencyCode) {
+        return currencyCodes.isEmpty() || currencyCodes.contains(currencyCode);
+    }
+
+    synchronized Offer offer(RateEvent event) {
+        if (closed) {
+            return Offer.DROPPED;
+        }
+        if (pending.put(event.currencyCode(), event) != null) {
+            return Offer.CONFLATED;
+        }
+        if (pending.size() > maxPending) {
+            Iterator<RateEvent> oldest = pending.values().iterator();
+            oldest.next();
+            oldest.remove();
+            return Offer.DROPPED;
+        }
+        return Offer.QUEUED;
+    }
+
+    synchronized void heartbeatDue() {
+        heartbeatDue = true;
+    }
+
+    synchronized boolean claimDrain() {
+        if (draining || closed || (pending.isEmpty() && !heartbeatDue)) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    synchronized int pending() {
+        return pending.size();
+    }
+
+    void drain() {
+        while (true) {
+            List<RateEvent> batch;
+            boolean heartbeat;
+            synchronized (this) {
+                if (closed || (pending.isEmpty() && !heartbeatDue)) {
+                    draining = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                heartbeat = heartbeatDue && batch.isEmpty();
+                heartbeatDue = false;
+            }
+
+            try {
+                for (RateEvent event : batch) {
+                    emitter.send(event.frame());
+                    delivered.increment();
+                }
+                if (heartbeat) {
+                    emitter.send(HEARTBEAT);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            }
+        }
+    }
+
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            draining = false;
+        }
+        onClosed.accept(this);
+    }
+
+    enum Offer {
+        QUEUED, CONFLATED, DROPPED
+    }
+}
@@ -0,0 +1,13 @@
+package ua.dmytrolutsiuk.backend.subscription;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportRowResult(
+        long line,
+        String email,
+        String currencyCode,
+        ImportStatus status,
+        String error
+) {
+}
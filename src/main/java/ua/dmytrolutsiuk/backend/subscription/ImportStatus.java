@@ -0,0 +1,10 @@
+package ua.dmytrolutsiuk.backend.subscription;
+
+public enum ImportStatus {
+    CREATED,
+    REACTIVATED,
+    UPDATED,
+    UNCHANGED,
+    DUPLICATE,
+    INVALID
+}
@@ -0,0 +1,10 @@
+package ua.dmytrolutsiuk.backend.subscription;
+
+import java.util.Map;
+
+public record ImportSummary(
+        long rows,
+        Map<ImportStatus, Long> statuses,
+        long elapsedMs
+) {
+}
@@ -0,0 +1,125 @@
+package ua.dmytrolutsiuk.backend.subscription;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import ua.dmytrolutsiuk.backend.model.Subscription;
+import ua.dmytrolutsiuk.backend.repository.SubscriptionRepository;
+import ua.dmytrolutsiuk.backend.service.SubscriptionService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class SubscriptionExporter {
+
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("email")
+            .addColumn("currency_code")
+            .addColumn("locale")
+            .addColumn("active")
+            .addColumn("created_at")
+            .build()
+            .withHeader();
+
+    private static final ObjectWriter CSV_ROW_WRITER = CsvMapper.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build()
+            .writer(CSV_SCHEMA)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final int pageSize;
+
+    public SubscriptionExporter(
+            SubscriptionRepository subscriptionRepository,
+            ObjectMapper objectMapper,
+            @Value("${subscription.export.page-size:1000}") int pageSize) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.pageSize = pageSize;
+    }
+
+    public long export(SubscriptionFormat format, OutputStream out) throws IOException {
+        long exported = switch (format) {
+            case NDJSON -> exportNdjson(out);
+            case CSV -> exportCsv(out);
+        };
+        log.info("Exported {} subscriptions as {}", exported, format);
+        return exported;
+    }
+
+    private long exportNdjson(OutputStream out) throws IOException {
+        long exported = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null)) {
+            for (List<Subscription> page = nextPage(0L); !page.isEmpty(); page = nextPage(page)) {
+                for (Subscription subscription : page) {
+                    lineWriter.writeValue(generator, SubscriptionService.mapToResponse(subscription));
+                    generator.writeRaw('\n');
+                }
+                exported += page.size();
+                generator.flush();
+            }
+        }
+        return exported;
+    }
+
+    private long exportCsv(OutputStream out) throws IOException {
+        long exported = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // Closing the sequence writes the header even when there are no rows; the response stream stays open.
+        try (SequenceWriter rows = CSV_ROW_WRITER.writeValues(writer)) {
+            for (List<Subscription> page = nextPage(0L); !page.isEmpty(); page = nextPage(page)) {
+                for (Subscription subscription : page) {
+                    rows.write(csvRow(subscription));
+                }
+                exported += page.size();
+                rows.flush();
+            }
+        }
+        writer.flush();
+        return exported;
+    }
+
+    private static Map<String, Object> csvRow(Subscription subscription) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", subscription.getId());
+        row.put("email", subscription.getEmail());
+        row.put("currency_code", subscription.getCurrencyCode());
+        row.put("locale", subscription.getLocale() != null ? subscription.getLocale().tag() : null);
+        row.put("active", subscription.getActive());
+        row.put("created_at", subscription.getCreatedAt() != null ? subscription.getCreatedAt().toString() : null);
+        return row;
+    }
+
+    private List<Subscription> nextPage(List<Subscription> previous) {
+        return previous.size() < pageSize ? List.of() : nextPage(previous.getLast().getId());
+    }
+
+    private List<Subscription> nextPage(Long afterId) {
+        return subscriptionRepository.findByIdGreaterThanOrderById(afterId, Limit.of(pageSize));
+    }
+}
@@ -0,0 +1,39 @@
+package ua.dmytrolutsiuk.backend.subscription;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum SubscriptionFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    SubscriptionFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static SubscriptionFormat fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported subscription format: " + name + " (expected ndjson or csv)");
+        }
+    }
+
+    public static SubscriptionFormat fromContentType(MediaType contentType) {
+        for (SubscriptionFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType
+                + " (expected application/x-ndjson or text/csv)");
+    }
+}
@@ -0,0 +1,277 @@
+package ua.dmytrolutsiuk.backend.subscription;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.dmytrolutsiuk.backend.dto.SubscriptionRequest;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+import ua.dmytrolutsiuk.backend.model.Subscription;
+import ua.dmytrolutsiuk.backend.repository.SubscriptionRepository;
+import ua.dmytrolutsiuk.backend.repository.SubscriptionUpsertOutcome;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class SubscriptionImporter {
+
+    private static final List<String> DEFAULT_CSV_COLUMNS = List.of("email", "currency_code", "locale");
+
+    private static final ObjectReader CSV_RECORD_READER = new CsvMapper()
+            .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+            .readerFor(String[].class);
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final Validator validator;
+    private final int batchSize;
+
+    public SubscriptionImporter(
+            SubscriptionRepository subscriptionRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${subscription.import.batch-size:1000}") int batchSize) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    public ImportSummary importSubscriptions(InputStream in, SubscriptionFormat format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Map<ImportStatus, Long> statuses = new EnumMap<>(ImportStatus.class);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        try (JsonGenerator results = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null)) {
+            Map<String, Integer> csvColumns = null;
+            List<RawRow> batch = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                long recordLine = lineNumber;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == SubscriptionFormat.CSV) {
+                    // RFC 4180 lets a quoted field span lines, so a record ends only once every quote is closed.
+                    String next;
+                    while (hasOpenQuote(line) && (next = reader.readLine()) != null) {
+                        lineNumber++;
+                        line = line + '\n' + next;
+                    }
+                    if (csvColumns == null) {
+                        csvColumns = csvColumns(line);
+                        if (csvColumns.containsKey("email")) {
+                            continue;
+                        }
+                        csvColumns = columnIndexes(DEFAULT_CSV_COLUMNS);
+                    }
+                }
+
+                batch.add(new RawRow(recordLine, line));
+                if (batch.size() == batchSize) {
+                    writeBatch(process(batch, format, csvColumns), results, statuses);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(process(batch, format, csvColumns), results, statuses);
+            }
+
+            ImportSummary summary = new ImportSummary(
+                    statuses.values().stream().mapToLong(Long::longValue).sum(),
+                    statuses,
+                    (System.nanoTime() - start) / 1_000_000);
+            writeLine(results, summary);
+            results.flush();
+            log.info("Subscription import finished: {} rows in {} ms, {}", summary.rows(), summary.elapsedMs(), statuses);
+            return summary;
+        }
+    }
+
+    private List<ImportRowResult> process(List<RawRow> batch, SubscriptionFormat format, Map<String, Integer> csvColumns) {
+        List<ParsedRow> parsed = batch.parallelStream()
+                .map(row -> parse(row, format, csvColumns))
+                .toList();
+
+        ImportRowResult[] results = new ImportRowResult[parsed.size()];
+        List<Subscription> accepted = new ArrayList<>(parsed.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(parsed.size());
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < parsed.size(); i++) {
+            ParsedRow row = parsed.get(i);
+            if (row.error() != null) {
+                results[i] = new ImportRowResult(row.line(), row.email(), row.currencyCode(), ImportStatus.INVALID, row.error());
+            } else if (!seen.add(row.email() + '\n' + row.currencyCode())) {
+                results[i] = new ImportRowResult(row.line(), row.email(), row.currencyCode(), ImportStatus.DUPLICATE, null);
+            } else {
+                accepted.add(Subscription.builder()
+                        .email(row.email())
+                        .currencyCode(row.currencyCode())
+                        .locale(row.locale())
+                        .build());
+                acceptedIndexes.add(i);
+            }
+        }
+
+        List<SubscriptionUpsertOutcome> outcomes = accepted.isEmpty()
+                ? List.of()
+                : transactionTemplate.execute(status -> subscriptionRepository.upsertAll(accepted));
+        for (int i = 0; i < accepted.size(); i++) {
+            ParsedRow row = parsed.get(acceptedIndexes.get(i));
+            results[acceptedIndexes.get(i)] = new ImportRowResult(
+                    row.line(), row.email(), row.currencyCode(), ImportStatus.valueOf(outcomes.get(i).name()), null);
+        }
+        return List.of(results);
+    }
+
+    private ParsedRow parse(RawRow row, SubscriptionFormat format, Map<String, Integer> csvColumns) {
+        SubscriptionRequest request;
+        try {
+            request = format == SubscriptionFormat.NDJSON
+                    ? objectMapper.readValue(row.content(), SubscriptionRequest.class)
+                    : fromCsv(row.content(), csvColumns);
+        } catch (JsonProcessingException e) {
+            String kind = format == SubscriptionFormat.NDJSON ? "JSON" : "CSV";
+            return ParsedRow.invalid(row.line(), null, null, "Malformed " + kind + ": " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String email = request.getEmail() == null ? null : request.getEmail().trim();
+        String currencyCode = request.getCurrencyCode() == null ? null : request.getCurrencyCode().trim().toUpperCase(Locale.ROOT);
+        request.setEmail(email);
+        request.setCurrencyCode(currencyCode);
+
+        Set<ConstraintViolation<SubscriptionRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return ParsedRow.invalid(row.line(), email, currencyCode, error);
+        }
+
+        return new ParsedRow(row.line(), email, currencyCode, NotificationLocale.fromTag(request.getLocale()), null);
+    }
+
+    private static SubscriptionRequest fromCsv(String record, Map<String, Integer> columns) throws IOException {
+        String[] values = csvFields(record);
+        return SubscriptionRequest.builder()
+                .email(column(values, columns.get("email")))
+                .currencyCode(column(values, columns.get("currency_code")))
+                .locale(column(values, columns.get("locale")))
+                .build();
+    }
+
+    private static String column(String[] values, Integer index) {
+        if (index == null || index >= values.length) {
+            return null;
+        }
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String[] csvFields(String record) throws IOException {
+        try (MappingIterator<String[]> rows = CSV_RECORD_READER.readValues(record)) {
+            return rows.hasNextValue() ? rows.nextValue() : new String[0];
+        }
+    }
+
+    private static boolean hasOpenQuote(String record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 != 0;
+    }
+
+    private static Map<String, Integer> csvColumns(String header) throws IOException {
+        String[] fields;
+        try {
+            fields = csvFields(header);
+        } catch (JsonProcessingException e) {
+            return Map.of();
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : fields) {
+            String normalized = name.trim().toLowerCase(Locale.ROOT);
+            names.add(normalized.equals("currencycode") ? "currency_code" : normalized);
+        }
+        return columnIndexes(names);
+    }
+
+    private static Map<String, Integer> columnIndexes(List<String> names) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            indexes.putIfAbsent(names.get(i), i);
+        }
+        return indexes;
+    }
+
+    private void writeBatch(List<ImportRowResult> batch, JsonGenerator results,
+                            Map<ImportStatus, Long> statuses) throws IOException {
+        for (ImportRowResult result : batch) {
+            writeLine(results, result);
+            statuses.merge(result.status(), 1L, Long::sum);
+        }
+        results.flush();
+    }
+
+    private void writeLine(JsonGenerator generator, Object value) throws IOException {
+        lineWriter.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    private record RawRow(long line, String content) {
+    }
+
+    private record ParsedRow(long line, String email, String currencyCode, NotificationLocale locale, String error) {
+
+        static ParsedRow invalid(long line, String email, String currencyCode, String error) {
+            return new ParsedRow(line, email, currencyCode, null, error);
+        }
+    }
+}
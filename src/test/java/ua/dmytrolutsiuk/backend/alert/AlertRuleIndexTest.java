@@ -0,0 +1,107 @@
+package ua.dmytrolutsiuk.backend.alert;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.dmytrolutsiuk.backend.model.AlertType;
+import ua.dmytrolutsiuk.backend.repository.AlertRuleRepository;
+import ua.dmytrolutsiuk.backend.repository.IndexedAlertRule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertRuleIndexTest {
+
+    @Mock
+    private AlertRuleRepository alertRuleRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AlertRuleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(alertRuleRepository.findAllIndexed()).thenReturn(List.of(
+                rule(1L, 10L, "USD", AlertType.CROSSES_ABOVE, "42.00"),
+                rule(2L, 11L, "USD", AlertType.CROSSES_ABOVE, "42.50"),
+                rule(3L, 12L, "USD", AlertType.CROSSES_ABOVE, "43.00"),
+                rule(4L, 13L, "USD", AlertType.CROSSES_BELOW, "41.50"),
+                rule(5L, 14L, "USD", AlertType.CHANGE_PERCENT, "0.5"),
+                rule(6L, 15L, "USD", AlertType.CHANGE_PERCENT, "2"),
+                rule(7L, 16L, "EUR", AlertType.CROSSES_ABOVE, "45.00")));
+        index = new AlertRuleIndex(alertRuleRepository, meterRegistry);
+    }
+
+    @Test
+    void collectTriggered_shouldMatchThresholdsCrossedUpward() {
+        Set<Long> triggered = new TreeSet<>();
+
+        int matched = index.collectTriggered("USD", new BigDecimal("42.00"), new BigDecimal("42.5000"), triggered);
+
+        assertEquals(Set.of(11L, 14L), triggered);
+        assertEquals(2, matched);
+        assertEquals(1.0, meterRegistry.get("alert.rules.triggered").tag("type", "CROSSES_ABOVE").counter().count());
+    }
+
+    @Test
+    void collectTriggered_shouldMatchThresholdsCrossedDownwardAndLargeMoves() {
+        Set<Long> triggered = new TreeSet<>();
+
+        index.collectTriggered("USD", new BigDecimal("42.40"), new BigDecimal("41.50"), triggered);
+
+        assertEquals(Set.of(13L, 14L, 15L), triggered);
+    }
+
+    @Test
+    void collectTriggered_shouldIgnoreUnchangedRatesAndOtherCurrencies() {
+        Set<Long> triggered = new TreeSet<>();
+
+        index.collectTriggered("USD", new BigDecimal("42.50"), new BigDecimal("42.500000"), triggered);
+        index.collectTriggered("GBP", new BigDecimal("50"), new BigDecimal("60"), triggered);
+
+        assertTrue(triggered.isEmpty());
+    }
+
+    @Test
+    void addAndRemove_shouldUpdateIndexWithoutReloading() {
+        IndexedAlertRule added = rule(8L, 17L, "EUR", AlertType.CROSSES_BELOW, "44.00");
+        index.add(added);
+        index.remove(rule(7L, 16L, "EUR", AlertType.CROSSES_ABOVE, "45.00"));
+
+        Set<Long> up = new TreeSet<>();
+        Set<Long> down = new TreeSet<>();
+        index.collectTriggered("EUR", new BigDecimal("44.90"), new BigDecimal("45.10"), up);
+        index.collectTriggered("EUR", new BigDecimal("44.10"), new BigDecimal("43.90"), down);
+
+        assertTrue(up.isEmpty());
+        assertEquals(Set.of(17L), down);
+        assertEquals(7, index.size());
+        verify(alertRuleRepository, times(1)).findAllIndexed();
+    }
+
+    @Test
+    void add_shouldReplaceARuleThatIsAlreadyIndexed() {
+        index.add(rule(7L, 16L, "EUR", AlertType.CROSSES_ABOVE, "45.00"));
+
+        List<Long> triggered = new ArrayList<>();
+        index.collectTriggered("EUR", new BigDecimal("44.90"), new BigDecimal("45.10"), triggered);
+
+        assertEquals(List.of(16L), triggered);
+        assertEquals(7, index.size());
+    }
+
+    private static IndexedAlertRule rule(Long id, Long subscriptionId, String currencyCode, AlertType type, String threshold) {
+        return new IndexedAlertRule(id, subscriptionId, currencyCode, type, new BigDecimal(threshold));
+    }
+}
@@ -0,0 +1,99 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.mail.MailTemplate;
+import ua.dmytrolutsiuk.backend.mail.RateNotificationRenderer;
+import ua.dmytrolutsiuk.backend.mail.RenderedMail;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailRenderingBenchmark {
+
+    private static final String LEGACY_BODY = """
+            Hello,
+
+            Here is the latest exchange rate information:
+
+            Currency: %s (%s)
+            Rate: %s UAH
+            Date: %s
+
+            Best regards,
+            Exchange Rate Notifier
+            """;
+
+    private static final MailTemplate PRECOMPILED_BODY = MailTemplate.parse(LEGACY_BODY
+            .replaceFirst("%s", "{{currencyName}}")
+            .replaceFirst("%s", "{{currencyCode}}")
+            .replaceFirst("%s", "{{rate}}")
+            .replaceFirst("%s", "{{date}}"));
+
+    private RateNotificationRenderer renderer;
+    private ExchangeRateResponse rate;
+
+    @Setup
+    public void setUp() {
+        renderer = new RateNotificationRenderer();
+        rate = rate(new BigDecimal("42.0423"));
+    }
+
+    @Benchmark
+    public String legacyStringFormat() {
+        return String.format(LEGACY_BODY,
+                rate.getCurrencyName(), rate.getCurrencyCode(), rate.getRate(), rate.getExchangeDate());
+    }
+
+    @Benchmark
+    public String precompiledTemplate() {
+        return PRECOMPILED_BODY.render(Map.of(
+                "currencyName", rate.getCurrencyName(),
+                "currencyCode", rate.getCurrencyCode(),
+                "rate", rate.getRate().toPlainString(),
+                "date", rate.getExchangeDate().toString()));
+    }
+
+    @Benchmark
+    public RenderedMail sharedPerCurrencyBody() {
+        return renderer.render(rate, NotificationLocale.EN);
+    }
+
+    @Test
+    void compareLegacyFormatterAndPrecompiledTemplates() throws Exception {
+        Collection<RunResult> results = JmhRunner.run(EmailRenderingBenchmark.class);
+
+        assertEquals(3, results.size());
+        log.info("Email rendering benchmark (ns/op, per recipient)");
+        results.forEach(result -> log.info("  {}: {}",
+                JmhRunner.shortName(EmailRenderingBenchmark.class, result),
+                "%.1f".formatted(result.getPrimaryResult().getScore())));
+    }
+
+    private static ExchangeRateResponse rate(BigDecimal value) {
+        return ExchangeRateResponse.builder()
+                .currencyCode("USD")
+                .currencyName("Долар США")
+                .rate(value)
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build();
+    }
+}
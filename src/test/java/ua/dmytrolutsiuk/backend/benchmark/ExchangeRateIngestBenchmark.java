@@ -0,0 +1,131 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+import ua.dmytrolutsiuk.backend.repository.ExchangeRateRepository;
+import ua.dmytrolutsiuk.backend.repository.UpsertResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Slf4j
+class ExchangeRateIngestBenchmark {
+
+    private static final int CURRENCIES = 60;
+    private static final int DAYS = 365;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void compareRowByRowAndBatchedUpsert() {
+        List<ExchangeRate> legacyPayload = syntheticPayload(LocalDate.of(2020, 1, 1), BigDecimal.ONE);
+        List<ExchangeRate> batchedPayload = syntheticPayload(LocalDate.of(2022, 1, 1), BigDecimal.ONE);
+
+        long legacyInsert = measure("row-by-row insert", legacyPayload, this::legacyIngest);
+        long legacyUpdate = measure("row-by-row update",
+                syntheticPayload(LocalDate.of(2020, 1, 1), BigDecimal.TWO), this::legacyIngest);
+
+        long batchedInsert = measure("batched insert", batchedPayload, exchangeRateRepository::upsertAll);
+        long batchedUpdate = measure("batched update",
+                syntheticPayload(LocalDate.of(2022, 1, 1), BigDecimal.TWO), exchangeRateRepository::upsertAll);
+
+        assertEquals(2L * CURRENCIES * DAYS, exchangeRateRepository.count());
+
+        log.info("Ingest benchmark, {} rows per payload", legacyPayload.size());
+        log.info("  insert: row-by-row {} ms, batched {} ms ({}x)",
+                legacyInsert, batchedInsert, speedup(legacyInsert, batchedInsert));
+        log.info("  update: row-by-row {} ms, batched {} ms ({}x)",
+                legacyUpdate, batchedUpdate, speedup(legacyUpdate, batchedUpdate));
+    }
+
+    private long measure(String name, List<ExchangeRate> payload, Function<List<ExchangeRate>, UpsertResult> ingest) {
+        long start = System.nanoTime();
+        UpsertResult result = ingest.apply(payload);
+        entityManager.flush();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        entityManager.clear();
+
+        assertEquals(payload.size(), result.total());
+        log.info("{}: {} rows in {} ms (saved {}, updated {})",
+                name, payload.size(), elapsedMs, result.saved(), result.updated());
+        return elapsedMs;
+    }
+
+    // Mirrors the former per-row ingest; the persistence context is cleared after every
+    // daily payload so the baseline is not penalised by dirty checking across days.
+    private UpsertResult legacyIngest(List<ExchangeRate> payload) {
+        int savedCount = 0;
+        int updatedCount = 0;
+
+        for (int i = 0; i < payload.size(); i++) {
+            ExchangeRate incoming = payload.get(i);
+            ExchangeRate exchangeRate = exchangeRateRepository
+                    .findByCurrencyCodeAndExchangeDate(incoming.getCurrencyCode(), incoming.getExchangeDate())
+                    .orElse(ExchangeRate.builder()
+                            .currencyCode(incoming.getCurrencyCode())
+                            .exchangeDate(incoming.getExchangeDate())
+                            .build());
+
+            boolean isNew = exchangeRate.getId() == null;
+
+            exchangeRate.setR030(incoming.getR030());
+            exchangeRate.setCurrencyName(incoming.getCurrencyName());
+            exchangeRate.setRate(incoming.getRate());
+
+            exchangeRateRepository.save(exchangeRate);
+
+            if (isNew) {
+                savedCount++;
+            } else {
+                updatedCount++;
+            }
+
+            if ((i + 1) % CURRENCIES == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        return new UpsertResult(savedCount, updatedCount, 0);
+    }
+
+    private static List<ExchangeRate> syntheticPayload(LocalDate firstDate, BigDecimal multiplier) {
+        List<ExchangeRate> payload = new ArrayList<>(CURRENCIES * DAYS);
+        for (int day = 0; day < DAYS; day++) {
+            for (int currency = 0; currency < CURRENCIES; currency++) {
+                payload.add(ExchangeRate.builder()
+                        .r030(100 + currency)
+                        .currencyCode("C%02d".formatted(currency))
+                        .currencyName("Synthetic currency " + currency)
+                        .rate(BigDecimal.valueOf(10_000L + currency * 100L + day, 4).multiply(multiplier))
+                        .exchangeDate(firstDate.plusDays(day))
+                        .build());
+            }
+        }
+        return payload;
+    }
+
+    private static String speedup(long baselineMs, long candidateMs) {
+        return "%.1f".formatted((double) baselineMs / Math.max(candidateMs, 1));
+    }
+}
@@ -0,0 +1,40 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.UnaryOperator;
+
+final class JmhRunner {
+
+    private JmhRunner() {
+    }
+
+    static Collection<RunResult> run(Class<?> benchmark) throws RunnerException, IOException {
+        return run(benchmark, UnaryOperator.identity());
+    }
+
+    static Collection<RunResult> run(Class<?> benchmark, UnaryOperator<ChainedOptionsBuilder> customizer)
+            throws RunnerException, IOException {
+        Path resultDir = Files.createDirectories(Path.of(System.getProperty("jmh.result.dir", "target/jmh-results")));
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(benchmark.getName() + "\\.")
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultDir.resolve(benchmark.getSimpleName() + ".json").toString());
+
+        return new Runner(customizer.apply(options).build()).run();
+    }
+
+    static String shortName(Class<?> benchmark, RunResult result) {
+        return result.getParams().getBenchmark().replace(benchmark.getName() + ".", "");
+    }
+}
@@ -0,0 +1,158 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import ua.dmytrolutsiuk.backend.notification.LatencyRecorder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+class LoadGenerator {
+
+    record Scenario(String name, int weight, Function<RandomGenerator, HttpRequest> request) {
+    }
+
+    record LatencySummary(long requests, long errors, double errorRate,
+                          double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+
+    record StageResult(int concurrency, long durationMs, double throughputPerSecond,
+                       LatencySummary overall, Map<String, LatencySummary> scenarios) {
+    }
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+
+    LoadGenerator(List<Scenario> scenarios) {
+        this.scenarios = scenarios.stream().filter(scenario -> scenario.weight() > 0).toList();
+        this.totalWeight = this.scenarios.stream().mapToInt(Scenario::weight).sum();
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("At least one scenario must have a positive weight");
+        }
+    }
+
+    StageResult runStage(int concurrency, Duration warmup, Duration duration) throws Exception {
+        drive(concurrency, warmup);
+
+        long start = System.nanoTime();
+        List<WorkerStats> workers = drive(concurrency, duration);
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, LatencySummary> perScenario = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios) {
+            perScenario.put(scenario.name(), summarize(workers, scenario.name()));
+        }
+        LatencySummary overall = summarize(workers, null);
+
+        return new StageResult(concurrency, Duration.ofNanos(elapsed).toMillis(),
+                overall.requests() / (elapsed / 1_000_000_000.0), overall, perScenario);
+    }
+
+    private List<WorkerStats> drive(int concurrency, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<WorkerStats>> futures = new ArrayList<>(concurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> work(deadline)));
+            }
+        }
+
+        List<WorkerStats> workers = new ArrayList<>(concurrency);
+        for (Future<WorkerStats> future : futures) {
+            workers.add(future.get());
+        }
+        return workers;
+    }
+
+    private WorkerStats work(long deadline) throws InterruptedException {
+        RandomGenerator random = ThreadLocalRandom.current();
+        WorkerStats stats = new WorkerStats();
+
+        while (System.nanoTime() < deadline) {
+            Scenario scenario = pick(random);
+            HttpRequest request = scenario.request().apply(random);
+
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+            } catch (IOException e) {
+                success = false;
+            }
+            stats.record(scenario.name(), System.nanoTime() - start, success);
+        }
+        return stats;
+    }
+
+    private Scenario pick(RandomGenerator random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            ticket -= scenario.weight();
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.getLast();
+    }
+
+    private static LatencySummary summarize(List<WorkerStats> workers, String scenario) {
+        List<long[]> parts = new ArrayList<>();
+        long errors = 0;
+        for (WorkerStats worker : workers) {
+            for (Map.Entry<String, ScenarioStats> entry : worker.scenarios.entrySet()) {
+                if (scenario == null || scenario.equals(entry.getKey())) {
+                    parts.add(entry.getValue().latencies.sortedSnapshot());
+                    errors += entry.getValue().errors;
+                }
+            }
+        }
+
+        long[] sorted = parts.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new LatencySummary(sorted.length, errors, sorted.length == 0 ? 0 : (double) errors / sorted.length,
+                millis(LatencyRecorder.percentile(sorted, 50)),
+                millis(LatencyRecorder.percentile(sorted, 95)),
+                millis(LatencyRecorder.percentile(sorted, 99)),
+                millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static final class WorkerStats {
+
+        private final Map<String, ScenarioStats> scenarios = new HashMap<>();
+
+        void record(String scenario, long nanos, boolean success) {
+            ScenarioStats stats = scenarios.computeIfAbsent(scenario, name -> new ScenarioStats());
+            stats.latencies.record(nanos);
+            if (!success) {
+                stats.errors++;
+            }
+        }
+    }
+
+    private static final class ScenarioStats {
+
+        private final LatencyRecorder latencies = new LatencyRecorder();
+        private long errors;
+    }
+}
@@ -0,0 +1,111 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import ua.dmytrolutsiuk.backend.dto.NbuRate;
+import ua.dmytrolutsiuk.backend.service.NbuRateParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NbuPayloadParsingBenchmark {
+
+    private static final int CURRENCIES = 60;
+    private static final int DAYS = 2_000;
+    private static final DateTimeFormatter NBU_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final TypeReference<List<LegacyNbuRate>> LEGACY_RATE_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private NbuRateParser parser;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        parser = new NbuRateParser(objectMapper.getFactory());
+        payload = syntheticPayload();
+    }
+
+    @Benchmark
+    public void materializedDtoList(Blackhole blackhole) throws IOException {
+        List<LegacyNbuRate> rates = objectMapper.readValue(payload, LEGACY_RATE_LIST);
+        for (LegacyNbuRate rate : rates) {
+            blackhole.consume(new NbuRate(rate.getR030(), rate.getCc(), rate.getTxt(), rate.getRate(),
+                    LocalDate.parse(rate.getExchangedate(), NBU_DATE_FORMATTER)));
+        }
+    }
+
+    @Benchmark
+    public int streamingParser(Blackhole blackhole) throws IOException {
+        return parser.parse(new ByteArrayInputStream(payload), blackhole::consume);
+    }
+
+    @Test
+    void compareMaterializedAndStreamingParsing() throws Exception {
+        Collection<RunResult> results = JmhRunner.run(NbuPayloadParsingBenchmark.class,
+                options -> options.addProfiler(GCProfiler.class));
+
+        assertEquals(2, results.size());
+        log.info("NBU payload parsing benchmark, {} rows", CURRENCIES * DAYS);
+        for (RunResult result : results) {
+            Result<?> allocated = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            log.info("  {}: {} ms/op, {} MB allocated/op",
+                    JmhRunner.shortName(NbuPayloadParsingBenchmark.class, result),
+                    "%.1f".formatted(result.getPrimaryResult().getScore()),
+                    allocated == null ? "n/a" : "%.1f".formatted(allocated.getScore() / (1024 * 1024)));
+        }
+    }
+
+    private static byte[] syntheticPayload() {
+        StringBuilder json = new StringBuilder("[");
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int day = 0; day < DAYS; day++) {
+            String date = start.plusDays(day).format(NBU_DATE_FORMATTER);
+            for (int currency = 0; currency < CURRENCIES; currency++) {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append("{\"r030\":").append(100 + currency)
+                        .append(",\"txt\":\"Валюта ").append(currency)
+                        .append("\",\"rate\":").append(new BigDecimal(10_000 + currency * 37 + day).movePointLeft(4))
+                        .append(",\"cc\":\"C").append(currency < 10 ? "0" : "").append(currency)
+                        .append("\",\"exchangedate\":\"").append(date).append("\"}");
+            }
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Data
+    public static class LegacyNbuRate {
+        private Integer r030;
+        private String txt;
+        private BigDecimal rate;
+        private String cc;
+        private String exchangedate;
+    }
+}
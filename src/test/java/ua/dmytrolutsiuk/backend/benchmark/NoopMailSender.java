@@ -0,0 +1,11 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+class NoopMailSender extends JavaMailSenderImpl {
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+    }
+}
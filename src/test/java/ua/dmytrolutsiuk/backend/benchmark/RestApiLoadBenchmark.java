@@ -0,0 +1,253 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+import ua.dmytrolutsiuk.backend.model.Subscription;
+import ua.dmytrolutsiuk.backend.provider.RateProvider;
+import ua.dmytrolutsiuk.backend.repository.ExchangeRateRepository;
+import ua.dmytrolutsiuk.backend.repository.SubscriptionRepository;
+import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "scheduler.exchange-rate.cron=-",
+        "mail.pool.enabled=false",
+        "logging.level.ua.dmytrolutsiuk.backend=WARN",
+        "logging.level.ua.dmytrolutsiuk.backend.benchmark=INFO"
+})
+@ActiveProfiles("test")
+class RestApiLoadBenchmark {
+
+    private static final int CURRENCIES = 20;
+    private static final int HISTORY_DAYS = 365;
+    private static final int SEEDED_SUBSCRIPTIONS = 5_000;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private static final String MIX = System.getProperty("load.mix",
+            "latest:70,by-date:15,history:5,subscribe:5,unsubscribe:5");
+    private static final String CONCURRENCY = System.getProperty("load.concurrency", "1,8,32,64");
+    private static final Duration WARMUP = DurationStyle.detectAndParse(System.getProperty("load.warmup", "2s"));
+    private static final Duration STAGE_DURATION = DurationStyle.detectAndParse(System.getProperty("load.stage-duration", "5s"));
+    private static final double P99_DEGRADATION_FACTOR = Double.parseDouble(System.getProperty("load.p99-degradation-factor", "2"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "target/load-test/rest-api.json"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong subscriberSequence = new AtomicLong();
+    private final Queue<String[]> activeSubscriptions = new ConcurrentLinkedQueue<>();
+
+    @TestConfiguration
+    static class LocalStandIns {
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        RateProvider syntheticRateProvider() {
+            return new SyntheticRateProvider(CURRENCIES, TODAY);
+        }
+
+        @Bean
+        JavaMailSender javaMailSender() {
+            return new NoopMailSender();
+        }
+    }
+
+    @Test
+    void measureRestApiUnderLoad() throws Exception {
+        seedHistory();
+        seedSubscriptions();
+        Map<String, Integer> mix = parseMix(MIX);
+        LoadGenerator generator = new LoadGenerator(scenarios(mix));
+
+        List<LoadGenerator.StageResult> stages = new ArrayList<>();
+        for (int concurrency : Arrays.stream(CONCURRENCY.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray()) {
+            LoadGenerator.StageResult stage = generator.runStage(concurrency, WARMUP, STAGE_DURATION);
+            stages.add(stage);
+            log.info("concurrency {}: {} req/s, p50 {} ms, p99 {} ms, errors {}%",
+                    concurrency, "%.0f".formatted(stage.throughputPerSecond()), stage.overall().p50Ms(),
+                    stage.overall().p99Ms(), "%.2f".formatted(stage.overall().errorRate() * 100));
+        }
+
+        LoadReport report = LoadReport.of(mix, STAGE_DURATION, P99_DEGRADATION_FACTOR, MAX_ERROR_RATE, stages);
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+
+        log.info("Load test report written to {}; sustainable throughput {} req/s, p99 degraded at concurrency {}",
+                REPORT.toAbsolutePath(), "%.0f".formatted(report.sustainableThroughputPerSecond()),
+                report.p99DegradedAtConcurrency());
+        assertTrue(stages.stream().allMatch(stage -> stage.overall().requests() > 0));
+    }
+
+    record LoadReport(
+            Instant generatedAt,
+            Map<String, Integer> mix,
+            long stageDurationMs,
+            double p99DegradationFactor,
+            double maxErrorRate,
+            double sustainableThroughputPerSecond,
+            Integer p99DegradedAtConcurrency,
+            List<LoadGenerator.StageResult> stages
+    ) {
+
+        static LoadReport of(Map<String, Integer> mix, Duration stageDuration, double degradationFactor,
+                             double maxErrorRate, List<LoadGenerator.StageResult> stages) {
+            double baselineP99 = stages.getFirst().overall().p99Ms();
+            double sustainable = 0;
+            Integer degradedAt = null;
+
+            for (LoadGenerator.StageResult stage : stages) {
+                if (stage.overall().p99Ms() > baselineP99 * degradationFactor
+                        || stage.overall().errorRate() > maxErrorRate) {
+                    degradedAt = stage.concurrency();
+                    break;
+                }
+                sustainable = Math.max(sustainable, stage.throughputPerSecond());
+            }
+
+            return new LoadReport(Instant.now(), mix, stageDuration.toMillis(), degradationFactor, maxErrorRate,
+                    sustainable, degradedAt, stages);
+        }
+    }
+
+    private List<LoadGenerator.Scenario> scenarios(Map<String, Integer> mix) {
+        return List.of(
+                new LoadGenerator.Scenario("latest", mix.getOrDefault("latest", 0),
+                        random -> get("/api/rates/" + currency(random))),
+                new LoadGenerator.Scenario("by-date", mix.getOrDefault("by-date", 0),
+                        random -> get("/api/rates/" + currency(random) + "/history?date="
+                                + TODAY.minusDays(random.nextInt(HISTORY_DAYS)))),
+                new LoadGenerator.Scenario("history", mix.getOrDefault("history", 0),
+                        random -> get("/api/rates/history?from=" + TODAY.minusDays(30) + "&to=" + TODAY
+                                + "&currencies=" + currency(random) + "," + currency(random))),
+                new LoadGenerator.Scenario("subscribe", mix.getOrDefault("subscribe", 0), this::subscribe),
+                new LoadGenerator.Scenario("unsubscribe", mix.getOrDefault("unsubscribe", 0), this::unsubscribe));
+    }
+
+    private HttpRequest subscribe(RandomGenerator random) {
+        String email = "load-" + subscriberSequence.incrementAndGet() + "@example.com";
+        String currency = currency(random);
+        activeSubscriptions.add(new String[]{email, currency});
+
+        return HttpRequest.newBuilder(uri("/api/subscriptions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"currencyCode\":\"" + currency + "\"}"))
+                .build();
+    }
+
+    private HttpRequest unsubscribe(RandomGenerator random) {
+        String[] subscription = activeSubscriptions.poll();
+        if (subscription == null) {
+            return subscribe(random);
+        }
+        return HttpRequest.newBuilder(uri("/api/subscriptions?email="
+                        + URLEncoder.encode(subscription[0], StandardCharsets.UTF_8) + "&currencyCode=" + subscription[1]))
+                .DELETE()
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String currency(RandomGenerator random) {
+        return SyntheticRateProvider.currencyCode(random.nextInt(CURRENCIES));
+    }
+
+    private void seedHistory() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int day = 1; day < HISTORY_DAYS; day++) {
+                exchangeRateRepository.upsertAll(SyntheticRateProvider.rates(CURRENCIES, TODAY.minusDays(day), day % 2)
+                        .stream()
+                        .map(rate -> ExchangeRate.builder()
+                                .r030(rate.r030())
+                                .currencyCode(rate.currencyCode())
+                                .currencyName(rate.currencyName())
+                                .rate(rate.rate())
+                                .exchangeDate(rate.exchangeDate())
+                                .build())
+                        .toList());
+            }
+        });
+        exchangeRateService.fetchAndSaveExchangeRates();
+    }
+
+    private void seedSubscriptions() {
+        List<Subscription> subscriptions = new ArrayList<>(SEEDED_SUBSCRIPTIONS);
+        for (int i = 0; i < SEEDED_SUBSCRIPTIONS; i++) {
+            subscriptions.add(Subscription.builder()
+                    .email("seed-" + i + "@example.com")
+                    .currencyCode(SyntheticRateProvider.currencyCode(i % CURRENCIES))
+                    .active(true)
+                    .build());
+        }
+        subscriptionRepository.saveAll(subscriptions)
+                .forEach(subscription -> activeSubscriptions.add(
+                        new String[]{subscription.getEmail(), subscription.getCurrencyCode()}));
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,176 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.mail.javamail.JavaMailSender;
+import ua.dmytrolutsiuk.backend.Application;
+import ua.dmytrolutsiuk.backend.dto.CrossRateResponse;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+import ua.dmytrolutsiuk.backend.model.Subscription;
+import ua.dmytrolutsiuk.backend.notification.DispatchReport;
+import ua.dmytrolutsiuk.backend.notification.NotificationOutboxProcessor;
+import ua.dmytrolutsiuk.backend.provider.RateProvider;
+import ua.dmytrolutsiuk.backend.repository.NotificationRunRepository;
+import ua.dmytrolutsiuk.backend.repository.OutboxEntryRepository;
+import ua.dmytrolutsiuk.backend.repository.SubscriptionRepository;
+import ua.dmytrolutsiuk.backend.repository.UpsertResult;
+import ua.dmytrolutsiuk.backend.service.EmailService;
+import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceLayerBenchmark {
+
+    private static final int CURRENCIES = 60;
+    private static final int SUBSCRIPTIONS = 1_000;
+    private static final LocalDate RATE_DATE = LocalDate.of(2025, 11, 17);
+
+    private ConfigurableApplicationContext context;
+    private ExchangeRateService exchangeRateService;
+    private EmailService emailService;
+    private NotificationOutboxProcessor outboxProcessor;
+    private OutboxEntryRepository outboxEntryRepository;
+    private NotificationRunRepository notificationRunRepository;
+    private ExchangeRateResponse rate;
+    private LocalDate runDate = LocalDate.of(2000, 1, 1);
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class, InMemoryBackends.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:tc:postgresql:17-alpine:///service_benchmark",
+                        "--spring.datasource.username=test",
+                        "--spring.datasource.password=test",
+                        "--spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver",
+                        "--spring.jpa.show-sql=false",
+                        "--mail.pool.enabled=false",
+                        "--scheduler.exchange-rate.cron=-",
+                        "--notification.outbox.poll-interval=1ms",
+                        "--notification.dispatch.rate-limit.global-per-second=0",
+                        "--notification.dispatch.rate-limit.per-host-per-second=0",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ua.dmytrolutsiuk.backend=WARN");
+
+        exchangeRateService = context.getBean(ExchangeRateService.class);
+        emailService = context.getBean(EmailService.class);
+        outboxProcessor = context.getBean(NotificationOutboxProcessor.class);
+        outboxEntryRepository = context.getBean(OutboxEntryRepository.class);
+        notificationRunRepository = context.getBean(NotificationRunRepository.class);
+
+        exchangeRateService.fetchAndSaveExchangeRates();
+        context.getBean(SubscriptionRepository.class).saveAll(subscriptions());
+        rate = exchangeRateService.getLatestRate(SyntheticRateProvider.currencyCode(7));
+    }
+
+    @Setup(Level.Iteration)
+    public void clearOutbox() {
+        outboxEntryRepository.deleteAllInBatch();
+        notificationRunRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UpsertResult fetchAndSaveExchangeRates() {
+        return exchangeRateService.fetchAndSaveExchangeRates();
+    }
+
+    @Benchmark
+    public ExchangeRateResponse getLatestRate() {
+        return exchangeRateService.getLatestRate(SyntheticRateProvider.currencyCode(7));
+    }
+
+    @Benchmark
+    public ExchangeRateResponse getRateByDate() {
+        return exchangeRateService.getRateByDate(SyntheticRateProvider.currencyCode(7), RATE_DATE);
+    }
+
+    @Benchmark
+    public CrossRateResponse getCrossRate() {
+        return exchangeRateService.getCrossRate(
+                SyntheticRateProvider.currencyCode(7), SyntheticRateProvider.currencyCode(11));
+    }
+
+    @Benchmark
+    public void refreshLatestRates() {
+        exchangeRateService.refreshLatestRates();
+    }
+
+    @Benchmark
+    public MimeMessage buildExchangeRateNotification() {
+        return emailService.buildExchangeRateNotification("user@example.com", rate, NotificationLocale.UK);
+    }
+
+    @Benchmark
+    public DispatchReport notificationRun() {
+        runDate = runDate.plusDays(1);
+        return outboxProcessor.process(runDate);
+    }
+
+    @Test
+    void measureServiceLayer() throws Exception {
+        Collection<RunResult> results = JmhRunner.run(ServiceLayerBenchmark.class);
+
+        assertEquals(7, results.size());
+        log.info("Service layer benchmark ({} currencies, {} subscriptions), us/op", CURRENCIES, SUBSCRIPTIONS);
+        results.forEach(result -> log.info("  {}: {}",
+                JmhRunner.shortName(ServiceLayerBenchmark.class, result),
+                "%.1f".formatted(result.getPrimaryResult().getScore())));
+    }
+
+    private static List<Subscription> subscriptions() {
+        List<Subscription> subscriptions = new ArrayList<>(SUBSCRIPTIONS);
+        for (int i = 0; i < SUBSCRIPTIONS; i++) {
+            subscriptions.add(Subscription.builder()
+                    .email("user" + i + "@example.com")
+                    .currencyCode(SyntheticRateProvider.currencyCode(i % CURRENCIES))
+                    .active(true)
+                    .locale(i % 2 == 0 ? NotificationLocale.EN : NotificationLocale.UK)
+                    .build());
+        }
+        return subscriptions;
+    }
+
+    public static class InMemoryBackends {
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        public RateProvider syntheticRateProvider() {
+            return new SyntheticRateProvider(CURRENCIES, RATE_DATE);
+        }
+
+        @Bean
+        public JavaMailSender javaMailSender() {
+            return new NoopMailSender();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import ua.dmytrolutsiuk.backend.dto.NbuPayload;
+import ua.dmytrolutsiuk.backend.dto.NbuRate;
+import ua.dmytrolutsiuk.backend.provider.RateProvider;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SyntheticRateProvider implements RateProvider {
+
+    private final List<NbuPayload> payloads;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    SyntheticRateProvider(int currencies, LocalDate exchangeDate) {
+        this.payloads = List.of(payload(currencies, exchangeDate, 0), payload(currencies, exchangeDate, 1));
+    }
+
+    @Override
+    public String name() {
+        return "synthetic";
+    }
+
+    @Override
+    public Optional<NbuPayload> fetchExchangeRatesIfChanged() {
+        return Optional.of(payloads.get(calls.getAndIncrement() % payloads.size()));
+    }
+
+    @Override
+    public void markProcessed(NbuPayload payload) {
+    }
+
+    static String currencyCode(int index) {
+        return "C%02d".formatted(index);
+    }
+
+    static List<NbuRate> rates(int currencies, LocalDate exchangeDate, int version) {
+        List<NbuRate> rates = new ArrayList<>(currencies);
+        for (int i = 0; i < currencies; i++) {
+            rates.add(new NbuRate(100 + i, currencyCode(i), "Currency " + i,
+                    BigDecimal.valueOf(10_000 + i * 37 + version, 4), exchangeDate));
+        }
+        return rates;
+    }
+
+    private static NbuPayload payload(int currencies, LocalDate exchangeDate, int version) {
+        return new NbuPayload(rates(currencies, exchangeDate, version), null, null, "v" + version);
+    }
+}
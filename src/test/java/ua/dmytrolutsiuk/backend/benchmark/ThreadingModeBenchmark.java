@@ -0,0 +1,193 @@
+package ua.dmytrolutsiuk.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.mail.javamail.JavaMailSender;
+import ua.dmytrolutsiuk.backend.Application;
+import ua.dmytrolutsiuk.backend.provider.RateProvider;
+import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+@Slf4j
+class ThreadingModeBenchmark {
+
+    private static final int CURRENCIES = 20;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private static final String CONCURRENCY = System.getProperty("load.concurrency", "50,200,400");
+    private static final Duration WARMUP = DurationStyle.detectAndParse(System.getProperty("load.warmup", "2s"));
+    private static final Duration STAGE_DURATION = DurationStyle.detectAndParse(System.getProperty("load.stage-duration", "5s"));
+    private static final Duration DB_LATENCY = DurationStyle.detectAndParse(System.getProperty("load.db-latency", "5ms"));
+    private static final int TOMCAT_THREADS = Integer.getInteger("load.tomcat-threads", 200);
+    private static final int POOL_SIZE = Integer.getInteger("load.pool-size", 10);
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "target/load-test/threading-modes.json"));
+
+    @Test
+    void compareThreadingModesUnderLoad() throws Exception {
+        Map<String, List<LoadGenerator.StageResult>> modes = new LinkedHashMap<>();
+        modes.put("platform", runMode(false));
+        modes.put("virtual", runMode(true));
+
+        ModeReport report = new ModeReport(Instant.now(), DB_LATENCY.toMillis(), TOMCAT_THREADS, POOL_SIZE, modes);
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        new ObjectMapper().findAndRegisterModules().writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+
+        log.info("Threading mode report written to {}", REPORT.toAbsolutePath());
+        assertTrue(modes.values().stream().flatMap(List::stream).allMatch(stage -> stage.overall().requests() > 0));
+    }
+
+    record ModeReport(
+            Instant generatedAt,
+            long dbLatencyMs,
+            int tomcatThreads,
+            int connectionPoolSize,
+            Map<String, List<LoadGenerator.StageResult>> modes
+    ) {
+    }
+
+    private List<LoadGenerator.StageResult> runMode(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = start(mode, virtualThreads)) {
+            context.getBean(ExchangeRateService.class).fetchAndSaveExchangeRates();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            AtomicLong subscribers = new AtomicLong();
+            LoadGenerator generator = new LoadGenerator(List.of(
+                    new LoadGenerator.Scenario("by-date", 40,
+                            random -> get(port, "/api/rates?date=" + TODAY)),
+                    new LoadGenerator.Scenario("history", 40,
+                            random -> get(port, "/api/rates/history?from=" + TODAY.minusDays(6) + "&to=" + TODAY
+                                    + "&currencies=" + currency(random.nextInt(CURRENCIES)))),
+                    new LoadGenerator.Scenario("subscribe", 20,
+                            random -> post(port, "/api/subscriptions", subscribeBody(
+                                    mode + "-" + subscribers.incrementAndGet(), currency(random.nextInt(CURRENCIES)))))));
+
+            List<LoadGenerator.StageResult> stages = new ArrayList<>();
+            for (int concurrency : Arrays.stream(CONCURRENCY.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray()) {
+                LoadGenerator.StageResult stage = generator.runStage(concurrency, WARMUP, STAGE_DURATION);
+                stages.add(stage);
+                log.info("{} threads, concurrency {}: {} req/s, p50 {} ms, p99 {} ms, by-date p99 {} ms, history p99 {} ms, "
+                                + "subscribe p99 {} ms, errors {}%",
+                        mode, concurrency, "%.0f".formatted(stage.throughputPerSecond()),
+                        stage.overall().p50Ms(), stage.overall().p99Ms(),
+                        stage.scenarios().get("by-date").p99Ms(), stage.scenarios().get("history").p99Ms(),
+                        stage.scenarios().get("subscribe").p99Ms(),
+                        "%.2f".formatted(stage.overall().errorRate() * 100));
+            }
+            return stages;
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String mode, boolean virtualThreads) {
+        return new SpringApplicationBuilder(Application.class, SlowBackends.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.url=jdbc:tc:postgresql:17-alpine:///threading_" + mode,
+                        "--spring.datasource.username=test",
+                        "--spring.datasource.password=test",
+                        "--spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver",
+                        "--spring.jpa.show-sql=false",
+                        "--mail.pool.enabled=false",
+                        "--scheduler.exchange-rate.cron=-",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ua.dmytrolutsiuk.backend=WARN",
+                        "--logging.level.ua.dmytrolutsiuk.backend.benchmark=INFO");
+    }
+
+    private static HttpRequest get(int port, String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private static HttpRequest post(int port, String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String subscribeBody(String subscriber, String currencyCode) {
+        return "{\"email\":\"load-" + subscriber + "@example.com\",\"currencyCode\":\"" + currencyCode + "\"}";
+    }
+
+    private static String currency(int index) {
+        return SyntheticRateProvider.currencyCode(index);
+    }
+
+    public static class SlowBackends {
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        public RateProvider syntheticRateProvider() {
+            return new SyntheticRateProvider(CURRENCIES, TODAY);
+        }
+
+        @Bean
+        public JavaMailSender javaMailSender() {
+            return new NoopMailSender();
+        }
+
+        @Bean
+        public static BeanPostProcessor networkLatencyDataSource() {
+            return new SimulatedLatencyPostProcessor();
+        }
+    }
+
+    static class SimulatedLatencyPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    try {
+                        Thread.sleep(DB_LATENCY);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return connection;
+                }
+            };
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
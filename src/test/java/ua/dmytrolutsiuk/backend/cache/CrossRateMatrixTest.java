@@ -0,0 +1,85 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossRateMatrixTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 11, 17);
+
+    @Test
+    void of_shouldIncludeUahAndSortCurrenciesByCode() {
+        CrossRateMatrix matrix = CrossRateMatrix.of(List.of(
+                rate(840, "USD", "42.0", TODAY),
+                rate(978, "EUR", "48.0", TODAY)));
+
+        assertEquals(3, matrix.size());
+        assertEquals(List.of("EUR", "UAH", "USD"), matrix.toResponse().currencies());
+        assertEquals(TODAY, matrix.toResponse().exchangeDate());
+        assertEquals(42.0, matrix.rate(840, CrossRateMatrix.UAH_R030));
+        assertEquals(48.0 / 42.0, matrix.rate(978, 840), 1e-12);
+        assertEquals(1.0, matrix.rate(978, 978));
+        assertEquals(48.0 / 42.0, matrix.toResponse().rates().get(0).get(2), 1e-12);
+    }
+
+    @Test
+    void toResponse_shouldNotExposeMutableRates() {
+        CrossRateMatrix matrix = CrossRateMatrix.of(List.of(rate(840, "USD", "42.0", TODAY)));
+        List<List<Double>> rates = matrix.toResponse().rates();
+
+        assertThrows(UnsupportedOperationException.class, () -> rates.get(0).set(1, 0.0));
+        assertThrows(UnsupportedOperationException.class, () -> rates.set(0, List.of()));
+        assertEquals(42.0, matrix.rate(840, CrossRateMatrix.UAH_R030));
+    }
+
+    @Test
+    void fingerprint_shouldFollowInputs() {
+        CrossRateMatrix matrix = CrossRateMatrix.of(List.of(rate(840, "USD", "42.0", TODAY)));
+
+        assertEquals(matrix.fingerprint(), CrossRateMatrix.of(List.of(rate(840, "USD", "42.0", TODAY))).fingerprint());
+        assertNotEquals(matrix.fingerprint(), CrossRateMatrix.of(List.of(rate(840, "USD", "42.1", TODAY))).fingerprint());
+        assertNotEquals(matrix.fingerprint(),
+                CrossRateMatrix.of(List.of(rate(840, "USD", "42.0", TODAY.minusDays(1)))).fingerprint());
+    }
+
+    @Test
+    void lookups_shouldReportUnknownCurrencies() {
+        CrossRateMatrix matrix = CrossRateMatrix.of(List.of(rate(840, "USD", "42.0", TODAY)));
+
+        assertEquals(-1, matrix.r030("GBP"));
+        assertTrue(Double.isNaN(matrix.rate(840, 826)));
+        assertTrue(Double.isNaN(matrix.rate(840, 5000)));
+        assertNull(matrix.currencyCode(826));
+        assertNull(matrix.exchangeDate(840, 826));
+    }
+
+    @Test
+    void of_shouldSkipUnusableRatesAndUseOlderDateOfPair() {
+        CrossRateMatrix matrix = CrossRateMatrix.of(List.of(
+                rate(840, "USD", "42.0", TODAY),
+                rate(978, "EUR", "48.0", TODAY.minusDays(3)),
+                rate(null, "XDR", "55.0", TODAY),
+                rate(643, "RUB", "0", TODAY)));
+
+        assertEquals(3, matrix.size());
+        assertEquals(-1, matrix.r030("XDR"));
+        assertEquals(-1, matrix.r030("RUB"));
+        assertEquals(TODAY.minusDays(3), matrix.exchangeDate(840, 978));
+        assertEquals(TODAY, matrix.exchangeDate(840, CrossRateMatrix.UAH_R030));
+    }
+
+    private static ExchangeRate rate(Integer r030, String currencyCode, String rate, LocalDate exchangeDate) {
+        return ExchangeRate.builder()
+                .r030(r030)
+                .currencyCode(currencyCode)
+                .rate(new BigDecimal(rate))
+                .exchangeDate(exchangeDate)
+                .build();
+    }
+}
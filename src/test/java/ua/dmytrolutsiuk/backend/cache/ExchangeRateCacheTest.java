@@ -0,0 +1,150 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateCacheTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static final CrossRateMatrix NO_CROSS_RATES = CrossRateMatrix.of(List.of());
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExchangeRateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ExchangeRateCache(meterRegistry, OBJECT_MAPPER);
+    }
+
+    @Test
+    void getLatest_shouldLoadOnMissAndServeFromCacheAfterwards() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getLatest("USD", code -> {
+            loads.incrementAndGet();
+            return Optional.of(rate("USD", "42.0423"));
+        });
+        Optional<ExchangeRateResponse> cached = cache.getLatest("USD", code -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertTrue(cached.isPresent());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, requests("hit"));
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    void getCompleteVersion_shouldFingerprintSnapshotContent() {
+        assertTrue(cache.getCompleteVersion().isEmpty());
+
+        cache.replaceAll(List.of(rate("USD", "42.0423"), rate("EUR", "48.7512")), NO_CROSS_RATES);
+        SnapshotVersion first = cache.getCompleteVersion().orElseThrow();
+        cache.replaceAll(List.of(rate("EUR", "48.7512"), rate("USD", "42.0423")), NO_CROSS_RATES);
+        SnapshotVersion reordered = cache.getCompleteVersion().orElseThrow();
+        cache.replaceAll(List.of(rate("USD", "42.0500"), rate("EUR", "48.7512")), NO_CROSS_RATES);
+        SnapshotVersion changed = cache.getCompleteVersion().orElseThrow();
+
+        assertEquals(16, first.fingerprint().length());
+        assertEquals(first.fingerprint(), reordered.fingerprint());
+        assertNotEquals(first.fingerprint(), changed.fingerprint());
+        assertEquals(3, changed.version());
+        assertNotNull(changed.latestExchangeDate());
+    }
+
+    @Test
+    void getSerializedSnapshot_shouldPrecomputeSortedJsonAndGzipBodies() throws IOException {
+        assertTrue(cache.getSerializedSnapshot().isEmpty());
+
+        cache.replaceAll(List.of(rate("USD", "42.0423"), rate("EUR", "48.7512")), NO_CROSS_RATES);
+        SerializedSnapshot snapshot = cache.getSerializedSnapshot().orElseThrow();
+
+        String expected = "[{\"currencyCode\":\"EUR\",\"currencyName\":\"EUR\",\"rate\":48.7512,\"exchangeDate\":\"2025-11-17\"},"
+                + "{\"currencyCode\":\"USD\",\"currencyName\":\"USD\",\"rate\":42.0423,\"exchangeDate\":\"2025-11-17\"}]";
+        assertEquals(expected, new String(snapshot.json(), StandardCharsets.UTF_8));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzip()))) {
+            assertArrayEquals(snapshot.json(), in.readAllBytes());
+        }
+        assertEquals(cache.getCompleteVersion().orElseThrow(), snapshot.version());
+        assertSame(snapshot.json(), cache.getSerializedSnapshot().orElseThrow().json());
+    }
+
+    @Test
+    void replaceAll_shouldSwapSnapshotAndAnswerUnknownCurrenciesWithoutLoading() {
+        cache.replaceAll(List.of(rate("USD", "42.0423"), rate("EUR", "48.7512")), NO_CROSS_RATES);
+
+        assertEquals(1, cache.getVersion());
+        assertEquals(new BigDecimal("48.7512"),
+                cache.getLatest("EUR", code -> fail("loader must not be called")).orElseThrow().getRate());
+        assertTrue(cache.getLatest("GBP", code -> fail("loader must not be called")).isEmpty());
+        assertEquals(0.0, requests("miss"));
+    }
+
+    @Test
+    void getCrossRateSnapshot_shouldComeFromTheSameSnapshotAsTheRates() {
+        cache.getLatest("USD", code -> Optional.of(rate("USD", "42.0423")));
+        assertTrue(cache.getCrossRateSnapshot().isEmpty());
+
+        CrossRateMatrix crossRates = CrossRateMatrix.of(List.of(ExchangeRate.builder()
+                .r030(840)
+                .currencyCode("USD")
+                .rate(new BigDecimal("42.0423"))
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build()));
+        cache.replaceAll(List.of(rate("USD", "42.0423")), crossRates);
+
+        CrossRateSnapshot snapshot = cache.getCrossRateSnapshot().orElseThrow();
+        assertSame(crossRates, snapshot.matrix());
+        assertEquals(cache.getCompleteVersion().orElseThrow(), snapshot.version());
+        assertEquals(2.0, meterRegistry.get("exchange.rate.cross.size").gauge().value());
+    }
+
+    @Test
+    void getLatest_shouldNotOverwriteNewerSnapshotWithStaleLoad() {
+        Optional<ExchangeRateResponse> loaded = cache.getLatest("USD", code -> {
+            cache.replaceAll(List.of(rate("USD", "42.5000")), NO_CROSS_RATES);
+            return Optional.of(rate("USD", "41.0000"));
+        });
+
+        assertEquals(new BigDecimal("41.0000"), loaded.orElseThrow().getRate());
+        assertEquals(new BigDecimal("42.5000"),
+                cache.getLatest("USD", code -> Optional.empty()).orElseThrow().getRate());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("exchange.rate.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static ExchangeRateResponse rate(String currencyCode, String rate) {
+        return ExchangeRateResponse.builder()
+                .currencyCode(currencyCode)
+                .currencyName(currencyCode)
+                .rate(new BigDecimal(rate))
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build();
+    }
+}
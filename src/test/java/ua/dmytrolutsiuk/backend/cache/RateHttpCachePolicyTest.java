@@ -0,0 +1,152 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateHttpCachePolicyTest {
+
+    private static final ZoneId KYIV = ZoneId.of("Europe/Kyiv");
+    private static final LocalDate LATEST = LocalDate.of(2025, 11, 17);
+    private static final Instant REFRESHED_AT = Instant.parse("2025-11-17T07:00:05Z");
+
+    @Mock
+    private ExchangeRateCache exchangeRateCache;
+
+    @Test
+    void snapshot_shouldExpireAtNextScheduledRefresh() {
+        RateHttpCachePolicy policy = policy("2025-11-17T10:00:00Z");
+
+        RateValidators validators = policy.snapshot(version(), null);
+
+        assertEquals("\"a1b2c3d4e5f60718\"", validators.eTag());
+        assertEquals(REFRESHED_AT, validators.lastModified());
+        assertEquals("max-age=75600, public", validators.cacheControl().getHeaderValue());
+    }
+
+    @Test
+    void snapshot_shouldUseShortMaxAgeWhenScheduledRefreshIsOverdue() {
+        RateHttpCachePolicy policy = policy("2025-11-18T07:00:30Z");
+
+        assertEquals("max-age=60, public", policy.snapshot(version(), null).cacheControl().getHeaderValue());
+    }
+
+    @Test
+    void cross_shouldTakeEveryValidatorFromTheMatrixSnapshot() {
+        RateHttpCachePolicy policy = policy("2025-11-17T10:00:00Z");
+        CrossRateMatrix matrix = matrix("42.0423");
+
+        RateValidators validators = policy.cross(new CrossRateSnapshot(version(), matrix));
+
+        assertEquals("\"x-" + matrix.fingerprint() + "\"", validators.eTag());
+        assertEquals(REFRESHED_AT, validators.lastModified());
+        assertEquals("max-age=75600, public", validators.cacheControl().getHeaderValue());
+        assertEquals(validators.eTag(), policy.cross(new CrossRateSnapshot(version(), matrix("42.0423"))).eTag());
+        assertNotEquals(validators.eTag(), policy.cross(new CrossRateSnapshot(version(), matrix("42.1"))).eTag());
+        verifyNoInteractions(exchangeRateCache);
+    }
+
+    @Test
+    void latest_shouldTagRateByItsContent() {
+        when(exchangeRateCache.getCompleteVersion()).thenReturn(Optional.of(version()));
+        RateHttpCachePolicy policy = policy("2025-11-17T10:00:00Z");
+
+        RateValidators usd = policy.latest(rate("USD", "42.0423", LATEST)).orElseThrow();
+        RateValidators eur = policy.latest(rate("EUR", "48.7512", LATEST)).orElseThrow();
+
+        assertNotEquals(usd.eTag(), eur.eTag());
+        assertEquals(REFRESHED_AT, usd.lastModified());
+        assertEquals("max-age=75600, public", usd.cacheControl().getHeaderValue());
+    }
+
+    @Test
+    void byDate_shouldTreatDatesBeforeLatestSnapshotAsImmutable() {
+        when(exchangeRateCache.getCompleteVersion()).thenReturn(Optional.of(version()));
+        RateHttpCachePolicy policy = policy("2025-11-17T10:00:00Z");
+
+        RateValidators historical = policy.byDate("USD", LocalDate.of(2024, 1, 15)).orElseThrow();
+        RateValidators current = policy.byDate("USD", LATEST).orElseThrow();
+
+        assertEquals("max-age=31536000, public, immutable", historical.cacheControl().getHeaderValue());
+        assertEquals("max-age=75600, public", current.cacheControl().getHeaderValue());
+    }
+
+    @Test
+    void byDate_shouldChangeTagWhenRatesAreRewritten() {
+        SnapshotVersion afterBackfill = new SnapshotVersion(4, "a1b2c3d4e5f60718", LATEST, REFRESHED_AT.plusSeconds(90));
+        when(exchangeRateCache.getCompleteVersion()).thenReturn(Optional.of(version()), Optional.of(afterBackfill));
+        RateHttpCachePolicy policy = policy("2025-11-17T10:00:00Z");
+        LocalDate date = LocalDate.of(2024, 1, 15);
+
+        RateValidators original = policy.byDate("USD", date).orElseThrow();
+        RateValidators corrected = policy.byDate("USD", date).orElseThrow();
+
+        assertNotEquals(original.eTag(), corrected.eTag());
+    }
+
+    @Test
+    void snapshotByDate_shouldTagEachDayAndScopeSeparately() {
+        when(exchangeRateCache.getCompleteVersion()).thenReturn(Optional.of(version()));
+        RateHttpCachePolicy policy = policy("2025-11-17T10:00:00Z");
+        LocalDate date = LocalDate.of(2024, 1, 15);
+
+        RateValidators day = policy.snapshotByDate(date).orElseThrow();
+
+        assertEquals(day.eTag(), policy.snapshotByDate(date).orElseThrow().eTag());
+        assertNotEquals(day.eTag(), policy.snapshotByDate(date.plusDays(1)).orElseThrow().eTag());
+        assertNotEquals(day.eTag(), policy.byDate("USD", date).orElseThrow().eTag());
+        assertEquals(policy.byDate("usd", date).orElseThrow().eTag(), policy.byDate("USD", date).orElseThrow().eTag());
+    }
+
+    @Test
+    void validators_shouldBeAbsentUntilSnapshotIsComplete() {
+        when(exchangeRateCache.getCompleteVersion()).thenReturn(Optional.empty());
+        RateHttpCachePolicy policy = policy("2025-11-17T10:00:00Z");
+
+        assertTrue(policy.byDate("USD", LocalDate.of(2024, 1, 15)).isEmpty());
+    }
+
+    private RateHttpCachePolicy policy(String now) {
+        return new RateHttpCachePolicy(exchangeRateCache, "0 0 9 * * *", Duration.ofDays(365), Duration.ofSeconds(60),
+                Clock.fixed(Instant.parse(now), KYIV));
+    }
+
+    private static ExchangeRateResponse rate(String currencyCode, String rate, LocalDate date) {
+        return ExchangeRateResponse.builder()
+                .currencyCode(currencyCode)
+                .currencyName(currencyCode)
+                .rate(new BigDecimal(rate))
+                .exchangeDate(date)
+                .build();
+    }
+
+    private static CrossRateMatrix matrix(String usdRate) {
+        return CrossRateMatrix.of(List.of(ExchangeRate.builder()
+                .r030(840)
+                .currencyCode("USD")
+                .rate(new BigDecimal(usdRate))
+                .exchangeDate(LATEST)
+                .build()));
+    }
+
+    private static SnapshotVersion version() {
+        return new SnapshotVersion(3, "a1b2c3d4e5f60718", LATEST, REFRESHED_AT);
+    }
+}
@@ -0,0 +1,149 @@
+package ua.dmytrolutsiuk.backend.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ua.dmytrolutsiuk.backend.alert.AlertRuleIndex;
+import ua.dmytrolutsiuk.backend.event.AlertRuleChangedEvent;
+import ua.dmytrolutsiuk.backend.event.ExchangeRatesUpdatedEvent;
+import ua.dmytrolutsiuk.backend.model.AlertType;
+import ua.dmytrolutsiuk.backend.repository.IndexedAlertRule;
+import ua.dmytrolutsiuk.backend.repository.UpsertResult;
+import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
+import ua.dmytrolutsiuk.backend.service.SchedulerLockService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateSnapshotInvalidatorTest {
+
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    @Mock
+    private AlertRuleIndex alertRuleIndex;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void onNotifications_shouldReloadOnceForABatchFromOtherNodes() {
+        RateSnapshotInvalidator invalidator = invalidator("jdbc:postgresql://localhost:5432/exchange_rate_db");
+
+        invalidator.onNotifications(List.of("node-b", "node-c"));
+
+        verify(exchangeRateService, times(1)).refreshLatestRates();
+        assertEquals(0, invalidator.pendingAnnouncements());
+        assertEquals(1, meterRegistry.get("exchange.rate.snapshot.propagation").timer().count());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.snapshot.reloads").tag("reason", "notification").counter().count());
+    }
+
+    @Test
+    void onNotifications_shouldReloadForEveryAnnouncementFromAnotherNode() {
+        RateSnapshotInvalidator invalidator = invalidator("jdbc:postgresql://localhost:5432/exchange_rate_db");
+
+        invalidator.onNotifications(List.of("node-b"));
+        invalidator.onNotifications(List.of("node-b"));
+
+        verify(exchangeRateService, times(2)).refreshLatestRates();
+    }
+
+    @Test
+    void onNotifications_shouldIgnoreOwnAnnouncements() {
+        RateSnapshotInvalidator invalidator = invalidator("jdbc:postgresql://localhost:5432/exchange_rate_db");
+
+        invalidator.onNotifications(List.of("node-a", "node-a"));
+
+        verify(exchangeRateService, never()).refreshLatestRates();
+        assertEquals(0, invalidator.pendingAnnouncements());
+    }
+
+    @Test
+    void onNotifications_shouldReportPendingAnnouncementsUntilAFailedReloadIsRetried() {
+        RateSnapshotInvalidator invalidator = invalidator("jdbc:postgresql://localhost:5432/exchange_rate_db");
+        doThrow(new IllegalStateException("database unavailable")).doNothing()
+                .when(exchangeRateService).refreshLatestRates();
+
+        assertThrows(IllegalStateException.class, () -> invalidator.onNotifications(List.of("node-b")));
+        assertEquals(1, invalidator.pendingAnnouncements());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.snapshot.announcements.pending").gauge().value());
+
+        invalidator.onNotifications(List.of("node-c"));
+        assertEquals(0, invalidator.pendingAnnouncements());
+    }
+
+    @Test
+    void onExchangeRatesUpdated_shouldAnnounceNodeOnPostgres() {
+        RateSnapshotInvalidator invalidator = invalidator("jdbc:postgresql://localhost:5432/exchange_rate_db");
+
+        invalidator.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(new UpsertResult(3, 0, 0)));
+
+        verify(jdbcTemplate).queryForList("SELECT pg_notify(?, ?)", "rate_snapshot", "node-a");
+    }
+
+    @Test
+    void onExchangeRatesUpdated_shouldStayLocalOnOtherDatabases() {
+        RateSnapshotInvalidator invalidator = invalidator("jdbc:h2:mem:exchange_rate_db");
+
+        invalidator.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(new UpsertResult(3, 0, 0)));
+        invalidator.start();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void onAlertRuleChanged_shouldRoundTripToOtherNodesIndex() throws Exception {
+        RateSnapshotInvalidator invalidator = invalidator("jdbc:postgresql://localhost:5432/exchange_rate_db");
+        IndexedAlertRule rule = new IndexedAlertRule(7L, 16L, "EUR", AlertType.CROSSES_ABOVE, new BigDecimal("45.50"));
+
+        invalidator.onAlertRuleChanged(new AlertRuleChangedEvent(rule, false));
+
+        String payload = objectMapper.writeValueAsString(new RateSnapshotInvalidator.RuleAnnouncement("node-a", false, rule));
+        verify(jdbcTemplate).queryForList("SELECT pg_notify(?, ?)", "alert_rules", payload);
+
+        invalidator.onRuleNotifications(List.of(payload.replace("node-a", "node-b"),
+                objectMapper.writeValueAsString(new RateSnapshotInvalidator.RuleAnnouncement("node-c", true, rule))));
+
+        verify(alertRuleIndex).add(rule);
+        verify(alertRuleIndex).remove(rule);
+        verify(alertRuleIndex, never()).reload();
+    }
+
+    @Test
+    void onRuleNotifications_shouldIgnoreOwnAndMalformedAnnouncements() throws Exception {
+        RateSnapshotInvalidator invalidator = invalidator("jdbc:postgresql://localhost:5432/exchange_rate_db");
+        IndexedAlertRule rule = new IndexedAlertRule(7L, 16L, "EUR", AlertType.CROSSES_ABOVE, new BigDecimal("45.50"));
+
+        invalidator.onRuleNotifications(List.of(
+                objectMapper.writeValueAsString(new RateSnapshotInvalidator.RuleAnnouncement("node-a", false, rule)),
+                "not-json"));
+
+        verifyNoInteractions(alertRuleIndex);
+    }
+
+    private RateSnapshotInvalidator invalidator(String url) {
+        when(schedulerLockService.getNodeId()).thenReturn("node-a");
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(url);
+        return new RateSnapshotInvalidator(exchangeRateService, alertRuleIndex, objectMapper, jdbcTemplate, properties,
+                schedulerLockService, meterRegistry, true, "rate_snapshot", "alert_rules", Duration.ofSeconds(10),
+                Duration.ofSeconds(5));
+    }
+}
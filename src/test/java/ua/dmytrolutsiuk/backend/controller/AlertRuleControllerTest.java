@@ -0,0 +1,83 @@
+package ua.dmytrolutsiuk.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ua.dmytrolutsiuk.backend.dto.AlertRuleRequest;
+import ua.dmytrolutsiuk.backend.dto.AlertRuleResponse;
+import ua.dmytrolutsiuk.backend.exception.GlobalExceptionHandler;
+import ua.dmytrolutsiuk.backend.model.AlertType;
+import ua.dmytrolutsiuk.backend.service.AlertRuleService;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest({AlertRuleController.class, GlobalExceptionHandler.class})
+class AlertRuleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private AlertRuleService alertRuleService;
+
+    @Test
+    void addRule_shouldCreateRule() throws Exception {
+        AlertRuleRequest request = AlertRuleRequest.builder()
+                .type(AlertType.CROSSES_ABOVE)
+                .threshold(new BigDecimal("45.00"))
+                .build();
+        when(alertRuleService.addRule(eq(1L), any(AlertRuleRequest.class))).thenReturn(AlertRuleResponse.builder()
+                .id(7L)
+                .subscriptionId(1L)
+                .currencyCode("EUR")
+                .type(AlertType.CROSSES_ABOVE)
+                .threshold(new BigDecimal("45.00"))
+                .build());
+
+        mockMvc.perform(post("/api/subscriptions/1/alerts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.currencyCode").value("EUR"))
+                .andExpect(jsonPath("$.type").value("CROSSES_ABOVE"));
+    }
+
+    @Test
+    void addRule_shouldRejectNonPositiveThreshold() throws Exception {
+        AlertRuleRequest request = AlertRuleRequest.builder()
+                .type(AlertType.CHANGE_PERCENT)
+                .threshold(BigDecimal.ZERO)
+                .build();
+
+        mockMvc.perform(post("/api/subscriptions/1/alerts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.threshold").value("Threshold must be positive"));
+
+        verify(alertRuleService, never()).addRule(any(), any());
+    }
+
+    @Test
+    void deleteRule_shouldReturnNoContent() throws Exception {
+        mockMvc.perform(delete("/api/subscriptions/1/alerts/7"))
+                .andExpect(status().isNoContent());
+
+        verify(alertRuleService).deleteRule(1L, 7L);
+    }
+}
@@ -0,0 +1,74 @@
+package ua.dmytrolutsiuk.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ua.dmytrolutsiuk.backend.dto.BackfillStatus;
+import ua.dmytrolutsiuk.backend.exception.GlobalExceptionHandler;
+import ua.dmytrolutsiuk.backend.service.ExchangeRateBackfillService;
+
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest({BackfillController.class, GlobalExceptionHandler.class})
+class BackfillControllerTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExchangeRateBackfillService backfillService;
+
+    @Test
+    void startBackfill_shouldReturnAcceptedWhenStarted() throws Exception {
+        when(backfillService.startBackfill(FROM, TO)).thenReturn(true);
+        when(backfillService.getStatus()).thenReturn(new BackfillStatus(true, null));
+
+        mockMvc.perform(post("/api/admin/backfill")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.running").value(true));
+    }
+
+    @Test
+    void startBackfill_shouldReturnConflictWhenAlreadyRunning() throws Exception {
+        when(backfillService.startBackfill(FROM, TO)).thenReturn(false);
+        when(backfillService.getStatus()).thenReturn(new BackfillStatus(true, null));
+
+        mockMvc.perform(post("/api/admin/backfill")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void startBackfill_shouldReturnBadRequestForInvalidRange() throws Exception {
+        when(backfillService.startBackfill(TO, FROM))
+                .thenThrow(new IllegalArgumentException("'from' date must not be after 'to' date"));
+
+        mockMvc.perform(post("/api/admin/backfill")
+                        .param("from", "2024-12-31")
+                        .param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("'from' date must not be after 'to' date"));
+    }
+
+    @Test
+    void getStatus_shouldReturnCurrentStatus() throws Exception {
+        when(backfillService.getStatus()).thenReturn(new BackfillStatus(false, null));
+
+        mockMvc.perform(get("/api/admin/backfill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running").value(false));
+    }
+}
@@ -5,14 +5,37 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.http.CacheControl;
+import ua.dmytrolutsiuk.backend.cache.RateHttpCachePolicy;
+import ua.dmytrolutsiuk.backend.cache.RateValidators;
+import ua.dmytrolutsiuk.backend.cache.SerializedSnapshot;
+import ua.dmytrolutsiuk.backend.cache.SnapshotVersion;
+import ua.dmytrolutsiuk.backend.cache.CrossRateMatrix;
+import ua.dmytrolutsiuk.backend.cache.CrossRateSnapshot;
+import ua.dmytrolutsiuk.backend.dto.CrossRateResponse;
 import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.dto.RateHistoryQuery;
 import ua.dmytrolutsiuk.backend.exception.GlobalExceptionHandler;
+import ua.dmytrolutsiuk.backend.history.HistoryFormat;
+import ua.dmytrolutsiuk.backend.history.RateHistoryExporter;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
 import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,6 +48,12 @@ class ExchangeRateControllerTest {
     @MockBean
     private ExchangeRateService exchangeRateService;
 
+    @MockBean
+    private RateHistoryExporter rateHistoryExporter;
+
+    @MockBean
+    private RateHttpCachePolicy rateHttpCachePolicy;
+
     @Test
     void getLatestRate_shouldReturnRate() throws Exception {
         ExchangeRateResponse response = ExchangeRateResponse.builder()
@@ -63,6 +92,182 @@ class ExchangeRateControllerTest {
                 .andExpect(jsonPath("$.exchangeDate").value("2025-11-17"));
     }
 
+    @Test
+    void getLatestRate_shouldSendValidatorsAndCacheControl() throws Exception {
+        ExchangeRateResponse usd = ExchangeRateResponse.builder()
+                .currencyCode("USD")
+                .rate(new BigDecimal("42.0423"))
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build();
+        when(exchangeRateService.getLatestRate("USD")).thenReturn(usd);
+        when(rateHttpCachePolicy.latest(usd)).thenReturn(Optional.of(new RateValidators(
+                "\"3f2a9c\"", Instant.parse("2025-11-17T07:00:00Z"), CacheControl.maxAge(Duration.ofHours(2)).cachePublic())));
+
+        mockMvc.perform(get("/api/rates/USD"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3f2a9c\""))
+                .andExpect(header().string("Last-Modified", "Mon, 17 Nov 2025 07:00:00 GMT"))
+                .andExpect(header().string("Cache-Control", "max-age=7200, public"))
+                .andExpect(jsonPath("$.currencyCode").value("USD"));
+    }
+
+    @Test
+    void getLatestRate_shouldAnswerNotModifiedForMatchingTag() throws Exception {
+        ExchangeRateResponse usd = ExchangeRateResponse.builder()
+                .currencyCode("USD")
+                .rate(new BigDecimal("42.0423"))
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build();
+        when(exchangeRateService.getLatestRate("USD")).thenReturn(usd);
+        when(rateHttpCachePolicy.latest(usd)).thenReturn(Optional.of(new RateValidators(
+                "\"3f2a9c\"", Instant.parse("2025-11-17T07:00:00Z"), CacheControl.maxAge(Duration.ofHours(2)).cachePublic())));
+
+        mockMvc.perform(get("/api/rates/USD").header("If-None-Match", "\"3f2a9c\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3f2a9c\""))
+                .andExpect(header().string("Cache-Control", "max-age=7200, public"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getLatestRate_shouldReportUnknownCurrencyEvenWithMatchingTag() throws Exception {
+        when(exchangeRateService.getLatestRate("XYZ"))
+                .thenThrow(new RuntimeException("Exchange rate not found for currency: XYZ"));
+
+        mockMvc.perform(get("/api/rates/XYZ").header("If-None-Match", "\"3f2a9c\""))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Exchange rate not found for currency: XYZ"));
+
+        verifyNoInteractions(rateHttpCachePolicy);
+    }
+
+    @Test
+    void getRateByDate_shouldAnswerNotModifiedWithoutLoadingRate() throws Exception {
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        when(rateHttpCachePolicy.byDate("USD", date)).thenReturn(Optional.of(new RateValidators(
+                "\"USD-2024-01-15-19a90a1f7a8\"", Instant.parse("2024-01-15T00:00:00Z"),
+                CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())));
+
+        mockMvc.perform(get("/api/rates/USD/history")
+                        .param("date", "2024-01-15")
+                        .header("If-None-Match", "\"USD-2024-01-15-19a90a1f7a8\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+
+        verify(exchangeRateService, never()).getRateByDate(any(), any());
+    }
+
+    @Test
+    void getSnapshotByDate_shouldAnswerNotModifiedWithoutLoadingRates() throws Exception {
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        when(rateHttpCachePolicy.snapshotByDate(date)).thenReturn(Optional.of(new RateValidators(
+                "\"all-2024-01-15-19a90a1f7a8\"", Instant.parse("2024-01-15T00:00:00Z"),
+                CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())));
+
+        mockMvc.perform(get("/api/rates")
+                        .param("date", "2024-01-15")
+                        .header("If-None-Match", "\"all-2024-01-15-19a90a1f7a8\""))
+                .andExpect(status().isNotModified());
+
+        verify(exchangeRateService, never()).getRatesByDate(any());
+    }
+
+    @Test
+    void getLatestSnapshot_shouldServePrecomputedBodyForRequestedEncoding() throws Exception {
+        SnapshotVersion version = new SnapshotVersion(2, "3f2a9c", LocalDate.of(2025, 11, 17), Instant.parse("2025-11-17T07:00:00Z"));
+        byte[] json = "[{\"currencyCode\":\"USD\"}]".getBytes();
+        byte[] gzip = {31, -117, 8, 0};
+        when(exchangeRateService.getLatestSnapshot()).thenReturn(new SerializedSnapshot(version, json, gzip));
+        when(rateHttpCachePolicy.snapshot(version, null)).thenReturn(new RateValidators(
+                "\"3f2a9c\"", version.refreshedAt(), CacheControl.maxAge(Duration.ofHours(2)).cachePublic()));
+        when(rateHttpCachePolicy.snapshot(version, "gzip")).thenReturn(new RateValidators(
+                "\"3f2a9c-gzip\"", version.refreshedAt(), CacheControl.maxAge(Duration.ofHours(2)).cachePublic()));
+
+        mockMvc.perform(get("/api/rates"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(header().string("ETag", "\"3f2a9c\""))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().bytes(json));
+
+        mockMvc.perform(get("/api/rates").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3f2a9c-gzip\""))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().bytes(gzip));
+
+        mockMvc.perform(get("/api/rates").header("Accept-Encoding", "gzip").header("If-None-Match", "\"3f2a9c-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getCrossRate_shouldReturnRate() throws Exception {
+        CrossRateMatrix matrix = CrossRateMatrix.of(List.of());
+        CrossRateSnapshot snapshot = new CrossRateSnapshot(
+                new SnapshotVersion(2, "3f2a9c", LocalDate.of(2025, 11, 17), Instant.parse("2025-11-17T07:00:00Z")), matrix);
+        when(exchangeRateService.getCrossRateSnapshot()).thenReturn(snapshot);
+        when(exchangeRateService.getCrossRate(matrix, "EUR", "USD"))
+                .thenReturn(new CrossRateResponse("EUR", "USD", 1.15, LocalDate.of(2025, 11, 17)));
+        when(rateHttpCachePolicy.cross(snapshot)).thenReturn(new RateValidators(
+                "\"x-" + matrix.fingerprint() + "\"", Instant.parse("2025-11-17T07:00:00Z"), CacheControl.noCache()));
+
+        mockMvc.perform(get("/api/rates/cross/EUR/USD"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"x-" + matrix.fingerprint() + "\""))
+                .andExpect(jsonPath("$.base").value("EUR"))
+                .andExpect(jsonPath("$.quote").value("USD"))
+                .andExpect(jsonPath("$.rate").value(1.15))
+                .andExpect(jsonPath("$.exchangeDate").value("2025-11-17"));
+    }
+
+    @Test
+    void getCrossRateMatrix_shouldReturnAllPairs() throws Exception {
+        SnapshotVersion version = new SnapshotVersion(2, "3f2a9c", LocalDate.of(2025, 11, 17), Instant.parse("2025-11-17T07:00:00Z"));
+        CrossRateSnapshot snapshot = new CrossRateSnapshot(version, CrossRateMatrix.of(List.of(ExchangeRate.builder()
+                .r030(840)
+                .currencyCode("USD")
+                .rate(new BigDecimal("40"))
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build())));
+        when(exchangeRateService.getCrossRateSnapshot()).thenReturn(snapshot);
+        when(rateHttpCachePolicy.cross(snapshot)).thenReturn(new RateValidators(
+                "\"x-" + snapshot.matrix().fingerprint() + "\"", version.refreshedAt(), CacheControl.noCache()));
+
+        mockMvc.perform(get("/api/rates/cross"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.exchangeDate").value("2025-11-17"))
+                .andExpect(jsonPath("$.currencies[0]").value("UAH"))
+                .andExpect(jsonPath("$.currencies[1]").value("USD"))
+                .andExpect(jsonPath("$.rates[0][1]").value(0.025))
+                .andExpect(jsonPath("$.rates[1][0]").value(40.0));
+    }
+
+    @Test
+    void getSnapshotByDate_shouldReturnAllCurrenciesForDate() throws Exception {
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        when(exchangeRateService.getRatesByDate(date)).thenReturn(List.of(
+                ExchangeRateResponse.builder().currencyCode("EUR").rate(new BigDecimal("41.4")).exchangeDate(date).build(),
+                ExchangeRateResponse.builder().currencyCode("USD").rate(new BigDecimal("37.9")).exchangeDate(date).build()));
+
+        mockMvc.perform(get("/api/rates").param("date", "2024-01-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].currencyCode").value("USD"));
+
+        verify(exchangeRateService, never()).getLatestSnapshot();
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQualityValues() {
+        assertTrue(ExchangeRateController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ExchangeRateController.acceptsGzip("*;q=0.5"));
+        assertFalse(ExchangeRateController.acceptsGzip("gzip;q=0, *"));
+        assertFalse(ExchangeRateController.acceptsGzip("identity"));
+        assertFalse(ExchangeRateController.acceptsGzip(null));
+    }
+
     @Test
     void getLatestRate_shouldReturn500WhenServiceThrowsException() throws Exception {
         when(exchangeRateService.getLatestRate("INVALID"))
@@ -73,4 +278,38 @@ class ExchangeRateControllerTest {
                 .andExpect(jsonPath("$.status").value(500))
                 .andExpect(jsonPath("$.message").value("Currency not found"));
     }
+
+    @Test
+    void getRateHistory_shouldStreamExportInRequestedFormat() throws Exception {
+        RateHistoryQuery query = new RateHistoryQuery(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), List.of("USD", "EUR"));
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("currency_code,exchange_date,rate\n".getBytes());
+            return null;
+        }).when(rateHistoryExporter).export(eq(query), eq(HistoryFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/rates/history")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-31")
+                        .param("currencies", "usd,EUR")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("currency_code,exchange_date,rate\n"));
+    }
+
+    @Test
+    void getRateHistory_shouldRejectInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/rates/history")
+                        .param("from", "2025-02-01")
+                        .param("to", "2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("'from' date must not be after 'to' date"));
+
+        verifyNoInteractions(rateHistoryExporter);
+    }
 }
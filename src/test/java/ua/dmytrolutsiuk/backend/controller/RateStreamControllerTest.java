@@ -0,0 +1,55 @@
+package ua.dmytrolutsiuk.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ua.dmytrolutsiuk.backend.exception.GlobalExceptionHandler;
+import ua.dmytrolutsiuk.backend.stream.RateStreamBroadcaster;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest({RateStreamController.class, GlobalExceptionHandler.class})
+class RateStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RateStreamBroadcaster rateStreamBroadcaster;
+
+    @Test
+    void stream_shouldOpenEventStreamForRequestedCurrencies() throws Exception {
+        when(rateStreamBroadcaster.open(Set.of("USD", "EUR"))).thenReturn(Optional.of(new SseEmitter()));
+
+        mockMvc.perform(get("/api/rates/stream").param("currencies", "usd, EUR"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void stream_shouldAnswer503WhenNodeIsFull() throws Exception {
+        when(rateStreamBroadcaster.open(Set.of())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/rates/stream"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+
+    @Test
+    void stream_shouldRejectInvalidCurrencyCode() throws Exception {
+        mockMvc.perform(get("/api/rates/stream").param("currencies", "USDT"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verify(rateStreamBroadcaster, never()).open(any());
+    }
+}
@@ -7,16 +7,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ua.dmytrolutsiuk.backend.dto.MultiCurrencySubscriptionRequest;
 import ua.dmytrolutsiuk.backend.dto.SubscriptionRequest;
 import ua.dmytrolutsiuk.backend.dto.SubscriptionResponse;
 import ua.dmytrolutsiuk.backend.exception.GlobalExceptionHandler;
 import ua.dmytrolutsiuk.backend.service.SubscriptionService;
+import ua.dmytrolutsiuk.backend.subscription.SubscriptionExporter;
+import ua.dmytrolutsiuk.backend.subscription.SubscriptionFormat;
+import ua.dmytrolutsiuk.backend.subscription.SubscriptionImporter;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +45,60 @@ class SubscriptionControllerTest {
     @MockBean
     private SubscriptionService subscriptionService;
 
+    @MockBean
+    private SubscriptionImporter subscriptionImporter;
+
+    @MockBean
+    private SubscriptionExporter subscriptionExporter;
+
+    @Test
+    void importSubscriptions_shouldStreamPerRowResultsForCsvBody() throws Exception {
+        doAnswer(invocation -> {
+            String body = new String(invocation.<InputStream>getArgument(0).readAllBytes(), StandardCharsets.UTF_8);
+            invocation.<OutputStream>getArgument(2).write(
+                    ("{\"line\":1,\"status\":\"CREATED\",\"echo\":\"" + body.trim() + "\"}\n").getBytes());
+            return null;
+        }).when(subscriptionImporter).importSubscriptions(any(), eq(SubscriptionFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(post("/api/subscriptions/import")
+                        .contentType("text/csv")
+                        .content("a@example.com,USD"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string("{\"line\":1,\"status\":\"CREATED\",\"echo\":\"a@example.com,USD\"}\n"));
+    }
+
+    @Test
+    void importSubscriptions_shouldRejectUnsupportedContentType() throws Exception {
+        mockMvc.perform(post("/api/subscriptions/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<subscriptions/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(subscriptionImporter);
+    }
+
+    @Test
+    void exportSubscriptions_shouldStreamRequestedFormat() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("id,email,currency_code,locale,active,created_at\n".getBytes());
+            return 0L;
+        }).when(subscriptionExporter).export(eq(SubscriptionFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/subscriptions/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,email,currency_code,locale,active,created_at\n"));
+    }
+
     @Test
     void subscribe_shouldCreateSubscription() throws Exception {
         SubscriptionRequest request = SubscriptionRequest.builder()
@@ -101,6 +168,42 @@ class SubscriptionControllerTest {
         verify(subscriptionService, never()).subscribe(any());
     }
 
+    @Test
+    void subscribeAll_shouldCreateSubscriptionPerCurrency() throws Exception {
+        MultiCurrencySubscriptionRequest request = MultiCurrencySubscriptionRequest.builder()
+                .email("test@example.com")
+                .currencyCodes(List.of("USD", "EUR"))
+                .build();
+
+        when(subscriptionService.subscribeAll(any(MultiCurrencySubscriptionRequest.class))).thenReturn(List.of(
+                SubscriptionResponse.builder().id(1L).email("test@example.com").currencyCode("EUR").active(true).build(),
+                SubscriptionResponse.builder().id(2L).email("test@example.com").currencyCode("USD").active(true).build()));
+
+        mockMvc.perform(post("/api/subscriptions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].currencyCode").value("EUR"))
+                .andExpect(jsonPath("$[1].currencyCode").value("USD"));
+    }
+
+    @Test
+    void subscribeAll_shouldReturnBadRequestForInvalidCurrencyInList() throws Exception {
+        MultiCurrencySubscriptionRequest request = MultiCurrencySubscriptionRequest.builder()
+                .email("test@example.com")
+                .currencyCodes(List.of("USD", "EURO"))
+                .build();
+
+        mockMvc.perform(post("/api/subscriptions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['currencyCodes[1]']").value("Currency code must be 3 characters"));
+
+        verify(subscriptionService, never()).subscribeAll(any());
+    }
+
     @Test
     void unsubscribe_shouldRemoveSubscription() throws Exception {
         doNothing().when(subscriptionService).unsubscribe("test@example.com", "USD");
@@ -0,0 +1,42 @@
+package ua.dmytrolutsiuk.backend.history;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ColumnarJsonHistoryWriterTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 1, 2);
+
+    @Test
+    void write_shouldEmitOneColumnarSeriesPerCurrency() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarJsonHistoryWriter writer = new ColumnarJsonHistoryWriter(new JsonFactory(), out, FROM, TO);
+
+        writer.write("EUR", FROM, new BigDecimal("48.100000"));
+        writer.write("EUR", TO, new BigDecimal("48.250000"));
+        writer.write("USD", FROM, new BigDecimal("42.042300"));
+        writer.finish();
+
+        assertEquals("{\"from\":\"2025-01-01\",\"to\":\"2025-01-02\",\"series\":["
+                        + "{\"currencyCode\":\"EUR\",\"dates\":[\"2025-01-01\",\"2025-01-02\"],\"rates\":[48.1,48.25]},"
+                        + "{\"currencyCode\":\"USD\",\"dates\":[\"2025-01-01\"],\"rates\":[42.0423]}]}",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void finish_shouldWriteEmptySeriesWhenNoRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new ColumnarJsonHistoryWriter(new JsonFactory(), out, FROM, TO).finish();
+
+        assertEquals("{\"from\":\"2025-01-01\",\"to\":\"2025-01-02\",\"series\":[]}", out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,44 @@
+package ua.dmytrolutsiuk.backend.mail;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailTemplateTest {
+
+    @Test
+    void render_shouldSubstituteEveryPlaceholder() {
+        MailTemplate template = MailTemplate.parse("{{code}}: {{ rate }} UAH on {{date}}");
+
+        String result = template.render(Map.of("code", "USD", "rate", "42.0423", "date", "2025-11-17"));
+
+        assertEquals("USD: 42.0423 UAH on 2025-11-17", result);
+        assertEquals(List.of("code", "rate", "date"), template.variables());
+    }
+
+    @Test
+    void render_shouldKeepTemplatesWithoutPlaceholders() {
+        assertEquals("plain text", MailTemplate.parse("plain text").render(Map.of()));
+    }
+
+    @Test
+    void render_shouldApplyEscaperToValuesOnly() {
+        MailTemplate template = MailTemplate.parse("<b>{{name}}</b>");
+
+        assertEquals("<b>A &amp; B</b>", template.render(Map.of("name", "A & B"), HtmlUtils::htmlEscape));
+    }
+
+    @Test
+    void render_shouldRejectMissingValues() {
+        MailTemplate template = MailTemplate.parse("Hello {{name}}");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> template.render(Map.of()));
+
+        assertEquals("Missing value for template variable: name", exception.getMessage());
+    }
+}
@@ -0,0 +1,115 @@
+package ua.dmytrolutsiuk.backend.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class PooledJavaMailSenderTest {
+
+    private static final int MESSAGES = 300;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private PooledJavaMailSender pooledSender;
+
+    @AfterEach
+    void tearDown() {
+        if (pooledSender != null) {
+            pooledSender.destroy();
+        }
+    }
+
+    @Test
+    void send_shouldReuseConnectionsAcrossConcurrentSingleMessages() throws Exception {
+        pooledSender = configure(new PooledJavaMailSender(4, 50, Duration.ofMinutes(1)));
+
+        double pooledRate = sendConcurrently(pooledSender, MESSAGES);
+
+        assertEquals(MESSAGES, greenMail.getReceivedMessages().length);
+        assertTrue(pooledSender.getOpenedConnections() <= MESSAGES / 50 + 4,
+                "opened " + pooledSender.getOpenedConnections() + " connections");
+        log.info("Pooled transport: {} msg/s over {} connections",
+                "%.0f".formatted(pooledRate), pooledSender.getOpenedConnections());
+    }
+
+    @Test
+    void send_shouldDeliverVarargsBatchOverSingleConnection() {
+        pooledSender = configure(new PooledJavaMailSender(2, 100, Duration.ofMinutes(1)));
+
+        pooledSender.send(messages(100).toArray(SimpleMailMessage[]::new));
+
+        assertEquals(100, greenMail.getReceivedMessages().length);
+        assertEquals(1, pooledSender.getOpenedConnections());
+        assertEquals(0, pooledSender.getIdleConnections());
+    }
+
+    @Test
+    void send_shouldEvictIdleConnections() throws Exception {
+        pooledSender = configure(new PooledJavaMailSender(2, 100, Duration.ofMillis(200)));
+
+        pooledSender.send(messages(1).getFirst());
+        assertEquals(1, pooledSender.getIdleConnections());
+
+        Thread.sleep(1500);
+
+        assertEquals(0, pooledSender.getIdleConnections());
+    }
+
+    @Test
+    void send_shouldOutperformConnectionPerMessageTransport() throws Exception {
+        JavaMailSenderImpl plainSender = configure(new JavaMailSenderImpl());
+        pooledSender = configure(new PooledJavaMailSender(4, 100, Duration.ofMinutes(1)));
+
+        double plainRate = sendConcurrently(plainSender, MESSAGES);
+        double pooledRate = sendConcurrently(pooledSender, MESSAGES);
+
+        assertEquals(2 * MESSAGES, greenMail.getReceivedMessages().length);
+        log.info("Connection per message: {} msg/s, pooled: {} msg/s",
+                "%.0f".formatted(plainRate), "%.0f".formatted(pooledRate));
+    }
+
+    private static double sendConcurrently(JavaMailSenderImpl sender, int count) throws Exception {
+        List<SimpleMailMessage> messages = messages(count);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (SimpleMailMessage message : messages) {
+                executor.submit(() -> sender.send(message));
+            }
+        }
+        return count / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private static <T extends JavaMailSenderImpl> T configure(T sender) {
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        return sender;
+    }
+
+    private static List<SimpleMailMessage> messages(int count) {
+        List<SimpleMailMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom("noreply@example.com");
+            message.setTo("user" + i + "@example.com");
+            message.setSubject("Exchange Rate Update: USD");
+            message.setText("Rate: 42.0423 UAH");
+            messages.add(message);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,84 @@
+package ua.dmytrolutsiuk.backend.mail;
+
+import org.junit.jupiter.api.Test;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateNotificationRendererTest {
+
+    private final RateNotificationRenderer renderer = new RateNotificationRenderer();
+
+    @Test
+    void render_shouldReuseRenderedBodyForSameRateAndLocale() {
+        RenderedMail first = renderer.render(rate("USD", "42.0423"), NotificationLocale.EN);
+        RenderedMail second = renderer.render(rate("USD", "42.0423"), NotificationLocale.EN);
+
+        assertSame(first, second);
+        assertSame(first.text(), second.text());
+    }
+
+    @Test
+    void render_shouldRenderSeparatelyPerLocaleAndRate() {
+        RenderedMail english = renderer.render(rate("USD", "42.0423"), NotificationLocale.EN);
+        RenderedMail ukrainian = renderer.render(rate("USD", "42.0423"), NotificationLocale.UK);
+        RenderedMail updated = renderer.render(rate("USD", "42.1000"), NotificationLocale.EN);
+
+        assertNotSame(english, ukrainian);
+        assertNotSame(english, updated);
+        assertTrue(new String(updated.text(), StandardCharsets.UTF_8).contains("Rate: 42.1000 UAH"));
+        assertTrue(new String(ukrainian.text(), StandardCharsets.UTF_8).contains("Дата: 17.11.2025"));
+    }
+
+    @Test
+    void render_shouldEscapeValuesInHtmlBody() {
+        ExchangeRateResponse rate = ExchangeRateResponse.builder()
+                .currencyCode("XDR")
+                .currencyName("SDR <special>")
+                .rate(BigDecimal.TEN)
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build();
+
+        RenderedMail mail = renderer.render(rate, NotificationLocale.EN);
+
+        assertTrue(new String(mail.html(), StandardCharsets.UTF_8).contains("SDR &lt;special&gt;"));
+        assertTrue(new String(mail.text(), StandardCharsets.UTF_8).contains("SDR <special>"));
+    }
+
+    @Test
+    void renderDigest_shouldListEveryCurrencyInOneMail() {
+        ExchangeRateResponse special = ExchangeRateResponse.builder()
+                .currencyCode("XDR")
+                .currencyName("SDR <special>")
+                .rate(BigDecimal.TEN)
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build();
+
+        RenderedMail mail = renderer.renderDigest(List.of(rate("EUR", "48.7000"), rate("USD", "42.0423"), special),
+                NotificationLocale.EN);
+
+        String text = new String(mail.text(), StandardCharsets.UTF_8);
+        String html = new String(mail.html(), StandardCharsets.UTF_8);
+        assertEquals("Exchange Rate Update: EUR, USD, XDR", mail.subject());
+        assertTrue(text.contains("for the 3 currencies you follow"));
+        assertTrue(text.contains("(EUR): 48.7000 UAH, 2025-11-17"), text);
+        assertTrue(text.contains("(USD): 42.0423 UAH, 2025-11-17"), text);
+        assertTrue(html.contains("SDR &lt;special&gt;"));
+        assertTrue(html.contains("<strong>48.7000</strong> UAH"));
+    }
+
+    private static ExchangeRateResponse rate(String code, String value) {
+        return ExchangeRateResponse.builder()
+                .currencyCode(code)
+                .currencyName("Долар США")
+                .rate(new BigDecimal(value))
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package ua.dmytrolutsiuk.backend.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+import ua.dmytrolutsiuk.backend.service.EmailService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    private static final ExchangeRateResponse RATE = ExchangeRateResponse.builder()
+            .currencyCode("USD")
+            .currencyName("Долар США")
+            .rate(new BigDecimal("42.0423"))
+            .exchangeDate(LocalDate.of(2025, 11, 17))
+            .build();
+
+    @Mock
+    private EmailService emailService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void dispatch_shouldSendEveryTaskAndReportOutcomes() {
+        doNothing().when(emailService).sendExchangeRateNotification(any(), any(), any());
+        doThrow(new RuntimeException("Mailbox unavailable"))
+                .when(emailService).sendExchangeRateNotification(eq("broken@example.com"), any(), any());
+        NotificationDispatcher dispatcher = new NotificationDispatcher(emailService, meterRegistry, 4, 1, true, 0, 0, 0);
+        List<NotificationTask> failedTasks = new CopyOnWriteArrayList<>();
+
+        List<NotificationTask> tasks = tasks(50, "example.com");
+        tasks.add(new NotificationTask(51L, "broken@example.com", RATE));
+
+        DispatchReport report = dispatcher.dispatch(tasks, new DispatchListener() {
+            @Override
+            public void onFailed(NotificationTask task, Exception error) {
+                failedTasks.add(task);
+            }
+        });
+
+        assertEquals(50, report.sent());
+        assertEquals(1, report.failed());
+        assertTrue(report.throughputPerSecond() > 0);
+        assertEquals(List.of(51L), failedTasks.stream().flatMap(task -> task.outboxIds().stream()).toList());
+        verify(emailService, times(51)).sendExchangeRateNotification(any(), eq(RATE), eq(NotificationLocale.EN));
+        assertEquals(50, meterRegistry.get("notification.email.send").tags("mode", "single", "outcome", "success").timer().count());
+        assertEquals(1.0, meterRegistry.get("notification.email.failures").tag("reason", "other").counter().count());
+        assertEquals(0.0, meterRegistry.get("notification.dispatch.in.flight").gauge().value());
+    }
+
+    @Test
+    void dispatch_shouldNotExceedConfiguredConcurrency() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        doAnswer(invocation -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            active.decrementAndGet();
+            return null;
+        }).when(emailService).sendExchangeRateNotification(any(), any(), any());
+        NotificationDispatcher dispatcher = new NotificationDispatcher(emailService, meterRegistry, 3, 1, false, 0, 0, 0);
+
+        DispatchReport report = dispatcher.dispatch(tasks(40, "example.com"));
+
+        assertEquals(40, report.sent());
+        assertTrue(peak.get() <= 3, "peak concurrency was " + peak.get());
+        assertTrue(report.p50().toMillis() >= 5);
+    }
+
+    @Test
+    void dispatch_shouldBoundConcurrentSmtpSendsBelowDispatchConcurrency() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        doAnswer(invocation -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            active.decrementAndGet();
+            return null;
+        }).when(emailService).sendExchangeRateNotification(any(), any(), any());
+        NotificationDispatcher dispatcher = new NotificationDispatcher(emailService, meterRegistry, 64, 1, true, 0, 0, 2);
+
+        DispatchReport report = dispatcher.dispatch(tasks(40, "example.com"));
+
+        assertEquals(40, report.sent());
+        assertTrue(peak.get() <= 2, "peak SMTP concurrency was " + peak.get());
+    }
+
+    @Test
+    void dispatch_shouldThrottlePerRecipientDomain() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(emailService, meterRegistry, 8, 1, true, 0, 20, 0);
+
+        List<NotificationTask> tasks = tasks(30, "slow.example");
+        tasks.addAll(tasks(30, "fast.example").subList(0, 5));
+
+        DispatchReport report = dispatcher.dispatch(tasks);
+
+        assertEquals(35, report.sent());
+        assertTrue(report.elapsed().toMillis() >= 400, "elapsed " + report.elapsed().toMillis() + " ms");
+    }
+
+    @Test
+    void dispatchBatches_shouldSendChunksThroughBatchPath() {
+        Map<MimeMessage, String> recipients = new ConcurrentHashMap<>();
+        when(emailService.buildExchangeRateNotification(any(), any(), any())).thenAnswer(invocation -> {
+            MimeMessage message = new MimeMessage((Session) null);
+            recipients.put(message, invocation.getArgument(0));
+            return message;
+        });
+        when(emailService.sendAll(anyList())).thenAnswer(invocation -> {
+            List<MimeMessage> messages = invocation.getArgument(0);
+            return messages.stream()
+                    .filter(message -> recipients.get(message).startsWith("user3@"))
+                    .collect(Collectors.toMap(message -> message, message -> (Exception) new RuntimeException("rejected")));
+        });
+        NotificationDispatcher dispatcher = new NotificationDispatcher(emailService, meterRegistry, 2, 4, true, 0, 0, 0);
+
+        DispatchReport report = dispatcher.dispatchBatches(List.of(tasks(10, "example.com")), DispatchListener.NONE);
+
+        assertEquals(9, report.sent());
+        assertEquals(1, report.failed());
+        verify(emailService, times(3)).sendAll(anyList());
+        assertEquals(2, meterRegistry.get("notification.email.send").tags("mode", "batch", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("notification.email.send").tags("mode", "batch", "outcome", "failure").timer().count());
+        verify(emailService, never()).sendExchangeRateNotification(any(), any(), any());
+    }
+
+    @Test
+    void dispatchBatches_shouldReportPerMessageShareOfBatchLatency() {
+        when(emailService.buildExchangeRateNotification(any(), any(), any()))
+                .thenAnswer(invocation -> new MimeMessage((Session) null));
+        when(emailService.sendAll(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(80);
+            return Map.of();
+        });
+        NotificationDispatcher dispatcher = new NotificationDispatcher(emailService, meterRegistry, 1, 8, true, 0, 0, 0);
+
+        DispatchReport report = dispatcher.dispatchBatches(List.of(tasks(8, "example.com")), DispatchListener.NONE);
+
+        assertEquals(8, report.sent());
+        assertTrue(report.max().toMillis() >= 10, "max " + report.max().toMillis() + " ms");
+        assertTrue(report.max().toMillis() < 80, "max " + report.max().toMillis() + " ms");
+        assertEquals(1, meterRegistry.get("notification.email.send").tags("mode", "batch", "outcome", "success").timer().count());
+    }
+
+    private static List<NotificationTask> tasks(int count, String domain) {
+        List<NotificationTask> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new NotificationTask((long) i, "user" + i + "@" + domain, RATE));
+        }
+        return tasks;
+    }
+}
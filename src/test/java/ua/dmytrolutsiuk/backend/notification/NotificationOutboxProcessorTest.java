@@ -0,0 +1,202 @@
+package ua.dmytrolutsiuk.backend.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.model.NotificationRun;
+import ua.dmytrolutsiuk.backend.model.NotificationRunStatus;
+import ua.dmytrolutsiuk.backend.model.OutboxEntry;
+import ua.dmytrolutsiuk.backend.service.EmailService;
+import ua.dmytrolutsiuk.backend.service.ExchangeRateService;
+import ua.dmytrolutsiuk.backend.service.NotificationOutboxService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxProcessorTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2025, 11, 17);
+    private static final Set<Integer> PARTITIONS = Set.of(0, 1, 2);
+
+    @Mock
+    private NotificationOutboxService outboxService;
+
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private OutboxPartitions outboxPartitions;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NotificationOutboxProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(emailService, meterRegistry, 2, 1, true, 0, 0, 0);
+        processor = new NotificationOutboxProcessor(
+                outboxService, dispatcher, exchangeRateService, outboxPartitions, meterRegistry, 10, Duration.ofMillis(10));
+    }
+
+    @Test
+    void process_shouldSendClaimedEntriesAndRecordOutcomes() {
+        when(outboxService.startRun(RUN_DATE)).thenReturn(run(NotificationRunStatus.IN_PROGRESS));
+        when(outboxPartitions.acquire()).thenReturn(PARTITIONS);
+        when(outboxService.claimBatch(RUN_DATE, 10, PARTITIONS))
+                .thenReturn(List.of(entry(1L, "ok@example.com"), entry(2L, "broken@example.com")))
+                .thenReturn(List.of());
+        when(outboxService.findNextWakeUp(RUN_DATE)).thenReturn(Optional.empty());
+        when(exchangeRateService.getLatestRate("USD")).thenReturn(rate());
+        doNothing().when(emailService).sendExchangeRateNotification(any(), any(), any());
+        doThrow(new RuntimeException("Mailbox unavailable"))
+                .when(emailService).sendExchangeRateNotification(eq("broken@example.com"), any(), any());
+
+        DispatchReport report = processor.process(RUN_DATE);
+
+        assertEquals(1, report.sent());
+        assertEquals(1, report.failed());
+        verify(outboxService).markFailed(2L, "Mailbox unavailable");
+        verify(outboxService).completeRun(RUN_DATE);
+        verify(outboxPartitions).releaseAll();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> sentIds = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxService, atLeastOnce()).markSent(sentIds.capture());
+        assertEquals(List.of(1L), sentIds.getAllValues().stream().flatMap(Collection::stream).toList());
+        assertEquals(0.0, meterRegistry.get("notification.outbox.queue.depth").gauge().value());
+    }
+
+    @Test
+    void process_shouldSendOneDigestPerRecipient() {
+        when(outboxService.startRun(RUN_DATE)).thenReturn(run(NotificationRunStatus.IN_PROGRESS));
+        when(outboxPartitions.acquire()).thenReturn(PARTITIONS);
+        when(outboxService.claimBatch(RUN_DATE, 10, PARTITIONS))
+                .thenReturn(List.of(
+                        entry(1L, "multi@example.com", "USD"),
+                        entry(2L, "multi@example.com", "EUR"),
+                        entry(3L, "multi@example.com", "XAU"),
+                        entry(4L, "single@example.com", "USD")))
+                .thenReturn(List.of());
+        when(outboxService.findNextWakeUp(RUN_DATE)).thenReturn(Optional.empty());
+        when(exchangeRateService.getLatestRate("USD")).thenReturn(rate("USD"));
+        when(exchangeRateService.getLatestRate("EUR")).thenReturn(rate("EUR"));
+        when(exchangeRateService.getLatestRate("XAU")).thenThrow(new RuntimeException("not found"));
+
+        DispatchReport report = processor.process(RUN_DATE);
+
+        assertEquals(2, report.sent());
+        verify(emailService).sendRateDigest(
+                eq("multi@example.com"), eq(List.of(rate("EUR"), rate("USD"))), any());
+        verify(emailService).sendExchangeRateNotification(eq("single@example.com"), eq(rate("USD")), any());
+        verify(outboxService).markFailed(eq(3L), contains("XAU"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> sentIds = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxService, atLeastOnce()).markSent(sentIds.capture());
+        assertEquals(List.of(1L, 2L, 4L),
+                sentIds.getAllValues().stream().flatMap(Collection::stream).sorted().toList());
+        assertEquals(2, meterRegistry.get("notification.digest.currencies").summary().count());
+        assertEquals(0.0, meterRegistry.get("notification.outbox.queue.depth").gauge().value());
+    }
+
+    @Test
+    void process_shouldRescheduleEntriesWhoseRateIsMissing() {
+        when(outboxService.startRun(RUN_DATE)).thenReturn(run(NotificationRunStatus.IN_PROGRESS));
+        when(outboxPartitions.acquire()).thenReturn(PARTITIONS);
+        when(outboxService.claimBatch(RUN_DATE, 10, PARTITIONS))
+                .thenReturn(List.of(entry(1L, "ok@example.com")))
+                .thenReturn(List.of());
+        when(outboxService.findNextWakeUp(RUN_DATE)).thenReturn(Optional.empty());
+        when(exchangeRateService.getLatestRate("USD")).thenThrow(new RuntimeException("not found"));
+
+        processor.process(RUN_DATE);
+
+        verify(outboxService).markFailed(eq(1L), contains("USD"));
+        verifyNoInteractions(emailService);
+        assertEquals(1.0, meterRegistry.get("notification.email.failures").tag("reason", "rate_not_found").counter().count());
+    }
+
+    @Test
+    void process_shouldSkipCompletedRun() {
+        when(outboxService.startRun(RUN_DATE)).thenReturn(run(NotificationRunStatus.COMPLETED));
+
+        DispatchReport report = processor.process(RUN_DATE);
+
+        assertEquals(0, report.total());
+        verify(outboxService, never()).claimBatch(any(), anyInt(), any());
+        verify(outboxService, never()).completeRun(any());
+    }
+
+    @Test
+    void awaitRun_shouldWaitUntilAnotherNodeStartsTheRun() {
+        when(outboxService.findRun(RUN_DATE))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(run(NotificationRunStatus.IN_PROGRESS)));
+
+        assertTrue(processor.awaitRun(RUN_DATE, Duration.ofSeconds(5)));
+        verify(outboxService, times(3)).findRun(RUN_DATE);
+    }
+
+    @Test
+    void awaitRun_shouldGiveUpAfterTimeout() {
+        when(outboxService.findRun(RUN_DATE)).thenReturn(Optional.empty());
+
+        assertFalse(processor.awaitRun(RUN_DATE, Duration.ofMillis(50)));
+    }
+
+    private static NotificationRun run(NotificationRunStatus status) {
+        return NotificationRun.builder()
+                .id(1L)
+                .runDate(RUN_DATE)
+                .status(status)
+                .enqueuedCount(2)
+                .build();
+    }
+
+    private static OutboxEntry entry(Long id, String email) {
+        return entry(id, email, "USD");
+    }
+
+    private static OutboxEntry entry(Long id, String email, String currencyCode) {
+        return OutboxEntry.builder()
+                .id(id)
+                .runDate(RUN_DATE)
+                .subscriptionId(id)
+                .email(email)
+                .currencyCode(currencyCode)
+                .build();
+    }
+
+    private static ExchangeRateResponse rate() {
+        return rate("USD");
+    }
+
+    private static ExchangeRateResponse rate(String currencyCode) {
+        return ExchangeRateResponse.builder()
+                .currencyCode(currencyCode)
+                .currencyName("Долар США")
+                .rate(new BigDecimal("42.0423"))
+                .exchangeDate(RUN_DATE)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package ua.dmytrolutsiuk.backend.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.dmytrolutsiuk.backend.service.SchedulerLockService;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxPartitionsTest {
+
+    @Mock
+    private SchedulerLockService lockService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Set<String> heldElsewhere = new HashSet<>();
+
+    private OutboxPartitions partitions;
+
+    @BeforeEach
+    void setUp() {
+        when(lockService.getNodeId()).thenReturn("node-a");
+        when(lockService.tryAcquire(anyString(), any())).thenAnswer(invocation ->
+                !heldElsewhere.contains(invocation.<String>getArgument(0)));
+        partitions = new OutboxPartitions(lockService, meterRegistry, 12, Duration.ZERO);
+    }
+
+    @Test
+    void acquire_shouldTakeFairShareOfFreePartitions() {
+        when(lockService.countHeld(OutboxPartitions.NODE_LOCK)).thenReturn(3L);
+
+        Set<Integer> owned = partitions.acquire();
+
+        assertEquals(4, owned.size());
+        assertEquals(4.0, meterRegistry.get("notification.outbox.partitions.owned").gauge().value());
+        verify(lockService).tryAcquire(eq("notification-node:node-a"), any());
+    }
+
+    @Test
+    void acquire_shouldGiveUpPartitionsWhenMoreNodesJoin() {
+        when(lockService.countHeld(OutboxPartitions.NODE_LOCK)).thenReturn(1L, 4L);
+
+        assertEquals(12, partitions.acquire().size());
+        Set<Integer> owned = partitions.acquire();
+
+        assertEquals(3, owned.size());
+        verify(lockService, times(9)).release(startsWith(OutboxPartitions.PARTITION_LOCK), eq(Duration.ZERO));
+    }
+
+    @Test
+    void acquire_shouldSkipPartitionsHeldByOtherNodes() {
+        when(lockService.countHeld(OutboxPartitions.NODE_LOCK)).thenReturn(1L);
+        for (int partition = 0; partition < 10; partition++) {
+            heldElsewhere.add(OutboxPartitions.PARTITION_LOCK + partition);
+        }
+
+        assertEquals(Set.of(10, 11), partitions.acquire());
+    }
+
+    @Test
+    void releaseAll_shouldFreePartitionsAndLeaveTheNodeCount() {
+        when(lockService.countHeld(OutboxPartitions.NODE_LOCK)).thenReturn(2L);
+        partitions.acquire();
+
+        partitions.releaseAll();
+
+        verify(lockService, times(6)).release(startsWith(OutboxPartitions.PARTITION_LOCK), eq(Duration.ZERO));
+        verify(lockService).delete("notification-node:node-a");
+        assertEquals(0.0, meterRegistry.get("notification.outbox.partitions.owned").gauge().value());
+    }
+}
@@ -0,0 +1,129 @@
+package ua.dmytrolutsiuk.backend.provider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ua.dmytrolutsiuk.backend.dto.NbuPayload;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateProviderGatewayTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RateProviderGateway> gateways = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        gateways.forEach(RateProviderGateway::destroy);
+    }
+
+    @Test
+    void shouldHedgeSlowRequestAndReturnTheFirstResponse() {
+        StubProvider nbu = new StubProvider("nbu", Duration.ofSeconds(5), Duration.ZERO);
+        RateProviderGateway gateway = gateway(List.of(nbu), Duration.ofMillis(50));
+
+        long start = System.nanoTime();
+        Optional<NbuPayload> payload = gateway.fetchExchangeRatesIfChanged();
+
+        assertTrue(payload.isPresent());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2_000);
+        assertEquals(2, nbu.calls.get());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.provider.hedges").tag("provider", "nbu").counter().count());
+        assertEquals(1, meterRegistry.get("exchange.rate.provider.latency")
+                .tags("provider", "nbu", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void shouldFailOverAndOpenTheCircuitOfAFailingProvider() {
+        StubProvider broken = StubProvider.failing("broken");
+        StubProvider mirror = new StubProvider("mirror", Duration.ZERO);
+        RateProviderGateway gateway = gateway(List.of(broken, mirror), Duration.ofSeconds(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(gateway.fetchExchangeRatesIfChanged().isPresent());
+        }
+
+        assertEquals(2, broken.calls.get());
+        assertEquals(3, mirror.calls.get());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.provider.circuit.open").tag("provider", "broken").gauge().value());
+    }
+
+    @Test
+    void shouldMarkPayloadProcessedOnTheProviderThatDeliveredIt() {
+        StubProvider broken = StubProvider.failing("broken");
+        StubProvider mirror = new StubProvider("mirror", Duration.ZERO);
+        RateProviderGateway gateway = gateway(List.of(broken, mirror), Duration.ofSeconds(1));
+
+        NbuPayload payload = gateway.fetchExchangeRatesIfChanged().orElseThrow();
+        gateway.markProcessed(payload);
+
+        assertSame(payload, mirror.processed);
+        assertNull(broken.processed);
+    }
+
+    @Test
+    void shouldThrowWhenEveryProviderFails() {
+        RateProviderGateway gateway = gateway(List.of(StubProvider.failing("nbu")), Duration.ofSeconds(1));
+
+        RateProviderUnavailableException exception = assertThrows(RateProviderUnavailableException.class,
+                gateway::fetchExchangeRatesIfChanged);
+
+        assertTrue(exception.getMessage().contains("nbu: NBU API responded with 503"));
+    }
+
+    private RateProviderGateway gateway(List<RateProvider> providers, Duration initialHedgeDelay) {
+        RateProviderGateway gateway = new RateProviderGateway(providers, meterRegistry, Duration.ofSeconds(10),
+                true, 95, initialHedgeDelay, Duration.ofMillis(10), 2, Duration.ofMinutes(5));
+        gateways.add(gateway);
+        return gateway;
+    }
+
+    private static final class StubProvider implements RateProvider {
+
+        private final String name;
+        private final List<Duration> delays;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile NbuPayload processed;
+
+        StubProvider(String name, Duration... delays) {
+            this.name = name;
+            this.delays = List.of(delays);
+        }
+
+        static StubProvider failing(String name) {
+            return new StubProvider(name);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Optional<NbuPayload> fetchExchangeRatesIfChanged() {
+            int call = calls.getAndIncrement();
+            if (delays.isEmpty()) {
+                throw new IllegalStateException("NBU API responded with 503");
+            }
+            try {
+                Thread.sleep(delays.get(Math.min(call, delays.size() - 1)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted", e);
+            }
+            return Optional.of(new NbuPayload(List.of(), null, null, name + call));
+        }
+
+        @Override
+        public void markProcessed(NbuPayload payload) {
+            processed = payload;
+        }
+    }
+}
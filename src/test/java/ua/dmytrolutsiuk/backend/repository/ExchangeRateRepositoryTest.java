@@ -0,0 +1,203 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ExchangeRateRepositoryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 11, 17);
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Test
+    void upsertAll_shouldInsertNewRates() {
+        UpsertResult result = exchangeRateRepository.upsertAll(List.of(
+                rate(840, "USD", "Долар США", "42.0423"),
+                rate(978, "EUR", "Євро", "48.7512")));
+
+        assertEquals(2, result.saved());
+        assertEquals(0, result.updated());
+        assertEquals(2, exchangeRateRepository.count());
+    }
+
+    @Test
+    void upsertAll_shouldUpdateExistingRates() {
+        exchangeRateRepository.upsertAll(List.of(rate(840, "USD", "Долар США", "42.0423")));
+
+        UpsertResult result = exchangeRateRepository.upsertAll(List.of(
+                rate(840, "USD", "Долар США", "42.1000"),
+                rate(978, "EUR", "Євро", "48.7512")));
+
+        assertEquals(1, result.saved());
+        assertEquals(1, result.updated());
+
+        ExchangeRate usd = exchangeRateRepository.findByCurrencyCodeAndExchangeDate("USD", DATE).orElseThrow();
+        assertEquals(0, new BigDecimal("42.1000").compareTo(usd.getRate()));
+        assertEquals(2, exchangeRateRepository.count());
+    }
+
+    @Test
+    void upsertAll_shouldSplitLargePayloadIntoBatches() {
+        List<ExchangeRate> rates = new ArrayList<>();
+        for (int day = 0; day < 30; day++) {
+            for (int code = 0; code < 40; code++) {
+                rates.add(ExchangeRate.builder()
+                        .r030(code)
+                        .currencyCode("C%02d".formatted(code))
+                        .currencyName("Currency " + code)
+                        .rate(BigDecimal.valueOf(code + day, 2))
+                        .exchangeDate(DATE.minusDays(day))
+                        .build());
+            }
+        }
+
+        UpsertResult result = exchangeRateRepository.upsertAll(rates);
+
+        assertEquals(1200, result.saved());
+        assertEquals(1200, exchangeRateRepository.count());
+    }
+
+    @Test
+    void upsertAll_shouldSkipRowsThatDidNotChange() {
+        exchangeRateRepository.upsertAll(List.of(
+                rate(840, "USD", "Долар США", "42.0423"),
+                rate(978, "EUR", "Євро", "48.7512")));
+
+        UpsertResult result = exchangeRateRepository.upsertAll(List.of(
+                rate(840, "USD", "Долар США", "42.042300"),
+                rate(978, "EUR", "Євро", "48.8000"),
+                rate(826, "GBP", "Фунт стерлінгів", "55.1000")));
+
+        assertEquals(1, result.saved());
+        assertEquals(1, result.updated());
+        assertEquals(1, result.unchanged());
+        ExchangeRate eur = exchangeRateRepository.findByCurrencyCodeAndExchangeDate("EUR", DATE).orElseThrow();
+        assertEquals(0, new BigDecimal("48.8000").compareTo(eur.getRate()));
+    }
+
+    @Test
+    void upsertAll_shouldKeepLastDuplicateWithinPayload() {
+        UpsertResult result = exchangeRateRepository.upsertAll(List.of(
+                rate(840, "USD", "Долар США", "42.0000"),
+                rate(840, "USD", "Долар США", "42.5000")));
+
+        assertEquals(1, result.total());
+        ExchangeRate usd = exchangeRateRepository.findByCurrencyCodeAndExchangeDate("USD", DATE).orElseThrow();
+        assertEquals(0, new BigDecimal("42.5000").compareTo(usd.getRate()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void upsertAll_shouldNotFailWhenConcurrentWritersInsertTheSameRows() throws Exception {
+        List<ExchangeRate> rates = new ArrayList<>();
+        for (int code = 0; code < 100; code++) {
+            rates.add(dated(code, "C%02d".formatted(code), DATE, "1." + code));
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<UpsertResult> first = executor.submit(() -> exchangeRateRepository.upsertAll(rates));
+            Future<UpsertResult> second = executor.submit(() -> exchangeRateRepository.upsertAll(rates));
+
+            UpsertResult a = first.get(30, TimeUnit.SECONDS);
+            UpsertResult b = second.get(30, TimeUnit.SECONDS);
+
+            assertEquals(100, a.saved() + b.saved());
+            assertEquals(0, a.updated() + b.updated());
+            assertEquals(100, exchangeRateRepository.count());
+        } finally {
+            exchangeRateRepository.deleteAllInBatch();
+        }
+    }
+
+    @Test
+    void findLatestRates_shouldReturnMostRecentRatePerCurrency() {
+        exchangeRateRepository.upsertAll(List.of(
+                rate(840, "USD", "Долар США", "42.0423"),
+                rate(978, "EUR", "Євро", "48.7512"),
+                ExchangeRate.builder()
+                        .r030(840)
+                        .currencyCode("USD")
+                        .currencyName("Долар США")
+                        .rate(new BigDecimal("41.9000"))
+                        .exchangeDate(DATE.minusDays(1))
+                        .build()));
+
+        List<ExchangeRate> latest = exchangeRateRepository.findLatestRates();
+
+        assertEquals(2, latest.size());
+        assertTrue(latest.stream().allMatch(rate -> rate.getExchangeDate().equals(DATE)));
+    }
+
+    @Test
+    void streamRange_shouldReturnRowsWithinRangeOrderedByCurrencyAndDate() {
+        List<ExchangeRate> rates = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            rates.add(dated(840, "USD", DATE.minusDays(day), "42.0" + day));
+            rates.add(dated(978, "EUR", DATE.minusDays(day), "48.0" + day));
+            rates.add(dated(826, "GBP", DATE.minusDays(day), "55.0" + day));
+        }
+        exchangeRateRepository.upsertAll(rates);
+        List<String> rows = new ArrayList<>();
+
+        exchangeRateRepository.streamRange(DATE.minusDays(3), DATE.minusDays(2), List.of("USD", "EUR"),
+                (currencyCode, exchangeDate, rate) -> rows.add(currencyCode + " " + exchangeDate + " " + rate.stripTrailingZeros()));
+
+        assertEquals(List.of(
+                "EUR 2025-11-14 48.03",
+                "EUR 2025-11-15 48.02",
+                "USD 2025-11-14 42.03",
+                "USD 2025-11-15 42.02"), rows);
+    }
+
+    @Test
+    void streamRange_shouldReturnAllCurrenciesWhenNoneRequested() {
+        exchangeRateRepository.upsertAll(List.of(
+                rate(840, "USD", "Долар США", "42.0423"),
+                rate(978, "EUR", "Євро", "48.7512")));
+        List<String> currencies = new ArrayList<>();
+
+        exchangeRateRepository.streamRange(DATE, DATE, List.of(), (currencyCode, exchangeDate, rate) -> currencies.add(currencyCode));
+
+        assertEquals(List.of("EUR", "USD"), currencies);
+    }
+
+    private static ExchangeRate dated(int r030, String currencyCode, LocalDate date, String rate) {
+        return ExchangeRate.builder()
+                .r030(r030)
+                .currencyCode(currencyCode)
+                .currencyName(currencyCode)
+                .rate(new BigDecimal(rate))
+                .exchangeDate(date)
+                .build();
+    }
+
+    private static ExchangeRate rate(int r030, String currencyCode, String currencyName, String rate) {
+        return ExchangeRate.builder()
+                .r030(r030)
+                .currencyCode(currencyCode)
+                .currencyName(currencyName)
+                .rate(new BigDecimal(rate))
+                .exchangeDate(DATE)
+                .build();
+    }
+}
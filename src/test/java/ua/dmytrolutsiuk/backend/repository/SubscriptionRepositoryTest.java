@@ -0,0 +1,86 @@
+package ua.dmytrolutsiuk.backend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+import ua.dmytrolutsiuk.backend.model.Subscription;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SubscriptionRepositoryTest {
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void upsertAll_shouldInsertReactivateAndUpdateInOneStatement() {
+        subscriptionRepository.save(subscription("inactive@example.com", "USD", false));
+        subscriptionRepository.save(subscription("active@example.com", "USD", true));
+        subscriptionRepository.save(subscription("locale@example.com", "EUR", true));
+
+        List<SubscriptionUpsertOutcome> outcomes = subscriptionRepository.upsertAll(List.of(
+                imported("new@example.com", "USD", NotificationLocale.UK),
+                imported("inactive@example.com", "USD", NotificationLocale.EN),
+                imported("active@example.com", "USD", NotificationLocale.EN),
+                imported("locale@example.com", "EUR", NotificationLocale.UK)));
+        entityManager.clear();
+
+        assertEquals(List.of(
+                SubscriptionUpsertOutcome.CREATED,
+                SubscriptionUpsertOutcome.REACTIVATED,
+                SubscriptionUpsertOutcome.UNCHANGED,
+                SubscriptionUpsertOutcome.UPDATED), outcomes);
+
+        Subscription created = subscriptionRepository.findByEmailAndCurrencyCode("new@example.com", "USD").orElseThrow();
+        assertTrue(created.getActive());
+        assertEquals(NotificationLocale.UK, created.getLocale());
+        assertNotNull(created.getCreatedAt());
+        assertTrue(subscriptionRepository.findByEmailAndCurrencyCode("inactive@example.com", "USD").orElseThrow().getActive());
+        assertEquals(NotificationLocale.UK,
+                subscriptionRepository.findByEmailAndCurrencyCode("locale@example.com", "EUR").orElseThrow().getLocale());
+        assertEquals(4, subscriptionRepository.count());
+    }
+
+    @Test
+    void findByIdGreaterThanOrderById_shouldPageThroughAllSubscriptions() {
+        Subscription first = subscriptionRepository.save(subscription("a@example.com", "USD", true));
+        Subscription second = subscriptionRepository.save(subscription("b@example.com", "EUR", false));
+        Subscription third = subscriptionRepository.save(subscription("c@example.com", "GBP", true));
+
+        List<Subscription> firstPage = subscriptionRepository.findByIdGreaterThanOrderById(0L, Limit.of(2));
+        List<Subscription> secondPage = subscriptionRepository.findByIdGreaterThanOrderById(
+                firstPage.getLast().getId(), Limit.of(2));
+
+        assertEquals(List.of(first.getId(), second.getId()), firstPage.stream().map(Subscription::getId).toList());
+        assertEquals(List.of(third.getId()), secondPage.stream().map(Subscription::getId).toList());
+    }
+
+    private static Subscription imported(String email, String currencyCode, NotificationLocale locale) {
+        return Subscription.builder()
+                .email(email)
+                .currencyCode(currencyCode)
+                .locale(locale)
+                .build();
+    }
+
+    private static Subscription subscription(String email, String currencyCode, boolean active) {
+        return Subscription.builder()
+                .email(email)
+                .currencyCode(currencyCode)
+                .active(active)
+                .build();
+    }
+}
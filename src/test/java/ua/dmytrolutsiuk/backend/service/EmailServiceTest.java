@@ -1,19 +1,28 @@
 package ua.dmytrolutsiuk.backend.service;
 
+import jakarta.mail.BodyPart;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.util.ReflectionTestUtils;
 import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+import ua.dmytrolutsiuk.backend.mail.RateNotificationRenderer;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,14 +34,15 @@ class EmailServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
-    @InjectMocks
     private EmailService emailService;
 
     private ExchangeRateResponse exchangeRate;
 
     @BeforeEach
     void setUp() {
+        emailService = new EmailService(mailSender, new RateNotificationRenderer());
         ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@example.com");
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
 
         exchangeRate = ExchangeRateResponse.builder()
                 .currencyCode("USD")
@@ -43,28 +53,75 @@ class EmailServiceTest {
     }
 
     @Test
-    void sendExchangeRateNotification_shouldSendEmail() {
+    void sendExchangeRateNotification_shouldSendEmail() throws Exception {
         String toEmail = "test@example.com";
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        ArgumentCaptor<MimeMessage> messageCaptor = ArgumentCaptor.forClass(MimeMessage.class);
 
         emailService.sendExchangeRateNotification(toEmail, exchangeRate);
 
         verify(mailSender, times(1)).send(messageCaptor.capture());
-        SimpleMailMessage sentMessage = messageCaptor.getValue();
+        MimeMessage sentMessage = messageCaptor.getValue();
 
         assertNotNull(sentMessage);
-        assertEquals("noreply@example.com", sentMessage.getFrom());
-        assertEquals(toEmail, sentMessage.getTo()[0]);
+        assertEquals("noreply@example.com", sentMessage.getFrom()[0].toString());
+        assertEquals(toEmail, sentMessage.getAllRecipients()[0].toString());
         assertEquals("Exchange Rate Update: USD", sentMessage.getSubject());
-        assertTrue(sentMessage.getText().contains("USD"));
-        assertTrue(sentMessage.getText().contains("42.0423"));
-        assertTrue(sentMessage.getText().contains("Долар США"));
+
+        String text = part(sentMessage, 0);
+        assertTrue(text.contains("USD"));
+        assertTrue(text.contains("42.0423"));
+        assertTrue(text.contains("Долар США"));
+        assertTrue(text.contains("2025-11-17"));
+        assertTrue(part(sentMessage, 1).contains("<strong>42.0423</strong>"));
+    }
+
+    @Test
+    void buildExchangeRateNotification_shouldUseLocalizedTemplate() throws Exception {
+        MimeMessage message = emailService.buildExchangeRateNotification("test@example.com", exchangeRate, NotificationLocale.UK);
+
+        assertEquals("Оновлення курсу валют: USD", message.getSubject());
+        assertTrue(part(message, 0).contains("Курс: 42.0423 грн"));
+        assertTrue(part(message, 0).contains("17.11.2025"));
+        assertTrue(part(message, 1).contains("lang=\"uk\""));
+    }
+
+    @Test
+    void sendExchangeRateNotification_shouldPropagateSendFailure() {
+        doThrow(new RuntimeException("Mail server error")).when(mailSender).send(any(MimeMessage.class));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> emailService.sendExchangeRateNotification("test@example.com", exchangeRate));
+
+        assertEquals("Mail server error", exception.getMessage());
     }
 
     @Test
-    void sendExchangeRateNotification_shouldHandleExceptionGracefully() {
-        doThrow(new RuntimeException("Mail server error")).when(mailSender).send(any(SimpleMailMessage.class));
+    void sendAll_shouldReportOnlyFailedMessages() {
+        MimeMessage first = emailService.buildExchangeRateNotification("first@example.com", exchangeRate, NotificationLocale.EN);
+        MimeMessage second = emailService.buildExchangeRateNotification("second@example.com", exchangeRate, NotificationLocale.EN);
+        doThrow(new MailSendException(Map.of(second, new RuntimeException("Mailbox unavailable"))))
+                .when(mailSender).send(any(MimeMessage[].class));
+
+        Map<MimeMessage, Exception> failures = emailService.sendAll(List.of(first, second));
+
+        assertEquals(1, failures.size());
+        assertSame(second, failures.keySet().iterator().next());
+    }
+
+    @Test
+    void sendAll_shouldFailWholeBatchWhenConnectionFails() {
+        MimeMessage first = emailService.buildExchangeRateNotification("first@example.com", exchangeRate, NotificationLocale.EN);
+        MimeMessage second = emailService.buildExchangeRateNotification("second@example.com", exchangeRate, NotificationLocale.EN);
+        doThrow(new MailSendException("Connection refused"))
+                .when(mailSender).send(any(MimeMessage[].class));
+
+        Map<MimeMessage, Exception> failures = emailService.sendAll(List.of(first, second));
+
+        assertEquals(2, failures.size());
+    }
 
-        assertDoesNotThrow(() -> emailService.sendExchangeRateNotification("test@example.com", exchangeRate));
+    private static String part(MimeMessage message, int index) throws Exception {
+        BodyPart part = ((MimeMultipart) message.getContent()).getBodyPart(index);
+        return new String(part.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
     }
 }
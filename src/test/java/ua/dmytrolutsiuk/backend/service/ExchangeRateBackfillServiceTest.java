@@ -0,0 +1,163 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestClientAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ua.dmytrolutsiuk.backend.config.RateProviderConfig;
+import ua.dmytrolutsiuk.backend.dto.BackfillReport;
+import ua.dmytrolutsiuk.backend.repository.BackfillCheckpointRepository;
+import ua.dmytrolutsiuk.backend.repository.ExchangeRateRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "exchange-rate.backfill.parallelism=3",
+        "exchange-rate.backfill.max-attempts=3",
+        "exchange-rate.backfill.backoff=10ms",
+        "exchange-rate.ingest.batch-size=4"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, RestClientAutoConfiguration.class})
+@Import({ExchangeRateBackfillService.class, RateProviderConfig.class})
+class ExchangeRateBackfillServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+    private static final DateTimeFormatter NBU_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private static final Map<String, AtomicInteger> REQUESTS = new ConcurrentHashMap<>();
+    private static final Set<String> FAIL_ONCE = ConcurrentHashMap.newKeySet();
+    private static final Set<String> ALWAYS_FAIL = ConcurrentHashMap.newKeySet();
+    private static final HttpServer NBU_STUB = startStub();
+
+    @Autowired
+    private ExchangeRateBackfillService backfillService;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private BackfillCheckpointRepository checkpointRepository;
+
+    @DynamicPropertySource
+    static void nbuProperties(DynamicPropertyRegistry registry) {
+        registry.add("nbu.api.url", () -> "http://localhost:" + NBU_STUB.getAddress().getPort()
+                + "/NBUStatService/v1/statdirectory/exchange?json");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        NBU_STUB.stop(0);
+    }
+
+    @BeforeEach
+    void resetStub() {
+        REQUESTS.clear();
+        FAIL_ONCE.clear();
+        ALWAYS_FAIL.clear();
+    }
+
+    @Test
+    void backfill_shouldStoreEveryDayAndRetryTransientFailures() {
+        FAIL_ONCE.add("20240303");
+
+        BackfillReport report = backfillService.backfill(START, START.plusDays(5));
+
+        assertEquals(6, report.completedDays());
+        assertEquals(0, report.skippedDays());
+        assertEquals(12, report.saved());
+        assertTrue(report.failedDates().isEmpty());
+        assertEquals(12, exchangeRateRepository.count());
+        assertEquals(6, checkpointRepository.count());
+        assertEquals(2, REQUESTS.get("20240303").get());
+        assertTrue(exchangeRateRepository.findByCurrencyCodeAndExchangeDate("USD", START.plusDays(2)).isPresent());
+    }
+
+    @Test
+    void backfill_shouldSkipCheckpointedDaysOnResume() {
+        backfillService.backfill(START, START.plusDays(2));
+        REQUESTS.clear();
+
+        BackfillReport report = backfillService.backfill(START, START.plusDays(5));
+
+        assertEquals(3, report.skippedDays());
+        assertEquals(3, report.completedDays());
+        assertEquals(Set.of("20240304", "20240305", "20240306"), REQUESTS.keySet());
+        assertEquals(12, exchangeRateRepository.count());
+    }
+
+    @Test
+    void backfill_shouldReportDaysThatKeepFailingWithoutCheckpointingThem() {
+        ALWAYS_FAIL.add("20240302");
+
+        BackfillReport report = backfillService.backfill(START, START.plusDays(2));
+
+        assertEquals(List.of(START.plusDays(1)), report.failedDates());
+        assertEquals(2, report.completedDays());
+        assertEquals(3, REQUESTS.get("20240302").get());
+        assertFalse(checkpointRepository.existsById(START.plusDays(1)));
+    }
+
+    @Test
+    void backfill_shouldRejectFutureRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> backfillService.backfill(LocalDate.now(), LocalDate.now().plusDays(1)));
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/NBUStatService/v1/statdirectory/exchange", ExchangeRateBackfillServiceTest::handle);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String date = exchange.getRequestURI().getQuery().replaceAll(".*date=(\\d{8}).*", "$1");
+        REQUESTS.computeIfAbsent(date, key -> new AtomicInteger()).incrementAndGet();
+
+        if (ALWAYS_FAIL.contains(date) || FAIL_ONCE.remove(date)) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+
+        String nbuDate = LocalDate.parse(date, DateTimeFormatter.BASIC_ISO_DATE).format(NBU_DATE);
+        byte[] body = """
+                [{"r030":840,"txt":"Долар США","rate":41.1234,"cc":"USD","exchangedate":"%s"},
+                 {"r030":978,"txt":"Євро","rate":44.5678,"cc":"EUR","exchangedate":"%s"}]
+                """.formatted(nbuDate, nbuDate).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -1,24 +1,44 @@
 package ua.dmytrolutsiuk.backend.service;
 
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ua.dmytrolutsiuk.backend.alert.AlertRuleIndex;
+import ua.dmytrolutsiuk.backend.cache.CrossRateMatrix;
+import ua.dmytrolutsiuk.backend.cache.ExchangeRateCache;
+import ua.dmytrolutsiuk.backend.dto.CrossRateResponse;
 import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
-import ua.dmytrolutsiuk.backend.dto.NbuExchangeRateDto;
+import ua.dmytrolutsiuk.backend.dto.NbuPayload;
+import ua.dmytrolutsiuk.backend.dto.NbuRate;
+import ua.dmytrolutsiuk.backend.event.ExchangeRatesUpdatedEvent;
 import ua.dmytrolutsiuk.backend.model.ExchangeRate;
+import ua.dmytrolutsiuk.backend.provider.RateProviderGateway;
+import ua.dmytrolutsiuk.backend.provider.RateProviderUnavailableException;
 import ua.dmytrolutsiuk.backend.repository.ExchangeRateRepository;
+import ua.dmytrolutsiuk.backend.repository.UpsertResult;
+import ua.dmytrolutsiuk.backend.stream.RateStreamBroadcaster;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,23 +48,35 @@ class ExchangeRateServiceTest {
     private ExchangeRateRepository exchangeRateRepository;
 
     @Mock
-    private NbuApiClient nbuApiClient;
+    private RateProviderGateway rateProviderGateway;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AlertRuleIndex alertRuleIndex;
+
+    @Mock
+    private NotificationOutboxService notificationOutboxService;
+
+    @Mock
+    private RateStreamBroadcaster rateStreamBroadcaster;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ExchangeRateCache exchangeRateCache = new ExchangeRateCache(new SimpleMeterRegistry(), JsonMapper.builder().findAndAddModules().build());
 
     @InjectMocks
     private ExchangeRateService exchangeRateService;
 
-    private NbuExchangeRateDto nbuDto;
+    private NbuRate nbuRate;
     private ExchangeRate exchangeRate;
 
     @BeforeEach
     void setUp() {
-        nbuDto = NbuExchangeRateDto.builder()
-                .r030(840)
-                .txt("Долар США")
-                .rate(new BigDecimal("42.0423"))
-                .cc("USD")
-                .exchangedate("17.11.2025")
-                .build();
+        nbuRate = new NbuRate(840, "USD", "Долар США", new BigDecimal("42.0423"), LocalDate.of(2025, 11, 17));
 
         exchangeRate = ExchangeRate.builder()
                 .id(1L)
@@ -57,30 +89,66 @@ class ExchangeRateServiceTest {
     }
 
     @Test
-    void fetchAndSaveExchangeRates_shouldSaveNewRates() {
-        List<NbuExchangeRateDto> nbuRates = Arrays.asList(nbuDto);
-        when(nbuApiClient.fetchExchangeRates()).thenReturn(nbuRates);
-        when(exchangeRateRepository.findByCurrencyCodeAndExchangeDate(any(), any()))
-                .thenReturn(Optional.empty());
-        when(exchangeRateRepository.save(any(ExchangeRate.class))).thenReturn(exchangeRate);
+    void fetchAndSaveExchangeRates_shouldUpsertMappedRates() {
+        when(rateProviderGateway.fetchExchangeRatesIfChanged()).thenReturn(payload(List.of(nbuRate)));
+        when(exchangeRateRepository.upsertAll(anyList())).thenReturn(new UpsertResult(1, 0, 0));
 
-        exchangeRateService.fetchAndSaveExchangeRates();
+        UpsertResult result = exchangeRateService.fetchAndSaveExchangeRates();
 
-        verify(nbuApiClient, times(1)).fetchExchangeRates();
-        verify(exchangeRateRepository, times(1)).save(any(ExchangeRate.class));
+        verify(rateProviderGateway, times(1)).fetchExchangeRatesIfChanged();
+        verify(exchangeRateRepository, times(1)).upsertAll(argThat(rates -> rates.size() == 1
+                && rates.getFirst().getCurrencyCode().equals("USD")
+                && rates.getFirst().getExchangeDate().equals(LocalDate.of(2025, 11, 17))
+                && rates.getFirst().getRate().equals(new BigDecimal("42.0423"))));
+        verify(exchangeRateRepository, never()).save(any(ExchangeRate.class));
+        verify(eventPublisher).publishEvent(any(ExchangeRatesUpdatedEvent.class));
+        assertEquals(1, result.saved());
+        assertEquals(0, result.updated());
     }
 
     @Test
-    void fetchAndSaveExchangeRates_shouldUpdateExistingRates() {
-        List<NbuExchangeRateDto> nbuRates = Arrays.asList(nbuDto);
-        when(nbuApiClient.fetchExchangeRates()).thenReturn(nbuRates);
-        when(exchangeRateRepository.findByCurrencyCodeAndExchangeDate(any(), any()))
-                .thenReturn(Optional.of(exchangeRate));
-        when(exchangeRateRepository.save(any(ExchangeRate.class))).thenReturn(exchangeRate);
+    void fetchAndSaveExchangeRates_shouldEnqueueSubscriptionsWhoseAlertsTrigger() {
+        exchangeRateCache.replaceAll(List.of(ExchangeRateResponse.builder()
+                .currencyCode("USD")
+                .currencyName("Долар США")
+                .rate(new BigDecimal("41.9000"))
+                .exchangeDate(LocalDate.of(2025, 11, 16))
+                .build()), CrossRateMatrix.of(List.of()));
+        when(rateProviderGateway.fetchExchangeRatesIfChanged()).thenReturn(payload(List.of(nbuRate)));
+        when(exchangeRateRepository.upsertAll(anyList())).thenReturn(new UpsertResult(1, 0, 0));
+        when(alertRuleIndex.collectTriggered(eq("USD"), eq(new BigDecimal("41.9000")), eq(new BigDecimal("42.0423")), anyCollection()))
+                .thenAnswer(invocation -> {
+                    invocation.<Collection<Long>>getArgument(3).add(5L);
+                    return 1;
+                });
 
         exchangeRateService.fetchAndSaveExchangeRates();
 
-        verify(exchangeRateRepository, times(1)).save(any(ExchangeRate.class));
+        verify(alertRuleIndex, never()).reload();
+        verify(alertRuleIndex).collectTriggered(eq("USD"), any(), any(), anyCollection());
+        verify(notificationOutboxService).enqueueTriggered(LocalDate.now(), Set.of(5L));
+    }
+
+    @Test
+    void fetchAndSaveExchangeRates_shouldReportUpdatedRates() {
+        when(rateProviderGateway.fetchExchangeRatesIfChanged()).thenReturn(payload(List.of(nbuRate)));
+        when(exchangeRateRepository.upsertAll(anyList())).thenReturn(new UpsertResult(0, 1, 0));
+
+        UpsertResult result = exchangeRateService.fetchAndSaveExchangeRates();
+
+        assertEquals(0, result.saved());
+        assertEquals(1, result.updated());
+    }
+
+    @Test
+    void fetchAndSaveExchangeRates_shouldNotWriteWhenNbuReturnsNothing() {
+        when(rateProviderGateway.fetchExchangeRatesIfChanged()).thenReturn(payload(List.of()));
+
+        UpsertResult result = exchangeRateService.fetchAndSaveExchangeRates();
+
+        assertEquals(0, result.total());
+        verify(exchangeRateRepository, never()).upsertAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -97,6 +165,56 @@ class ExchangeRateServiceTest {
         assertEquals(LocalDate.of(2025, 11, 17), response.getExchangeDate());
     }
 
+    @Test
+    void getLatestRate_shouldServeRepeatedLookupsFromCache() {
+        when(exchangeRateRepository.findFirstByCurrencyCodeOrderByExchangeDateDesc("USD"))
+                .thenReturn(Optional.of(exchangeRate));
+
+        exchangeRateService.getLatestRate("USD");
+        ExchangeRateResponse response = exchangeRateService.getLatestRate("usd");
+
+        assertEquals("USD", response.getCurrencyCode());
+        verify(exchangeRateRepository, times(1)).findFirstByCurrencyCodeOrderByExchangeDateDesc("USD");
+    }
+
+    @Test
+    void getLatestRate_shouldNotQueryDatabaseAfterRefresh() {
+        when(exchangeRateRepository.findLatestRates()).thenReturn(List.of(exchangeRate));
+
+        exchangeRateService.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(new UpsertResult(1, 0, 0)));
+
+        assertEquals("USD", exchangeRateService.getLatestRate("USD").getCurrencyCode());
+        assertThrows(RuntimeException.class, () -> exchangeRateService.getLatestRate("EUR"));
+        verify(exchangeRateRepository, never()).findFirstByCurrencyCodeOrderByExchangeDateDesc(any());
+        verify(rateStreamBroadcaster).publish(argThat(rates -> rates.size() == 1
+                && rates.iterator().next().getCurrencyCode().equals("USD")));
+    }
+
+    @Test
+    void getCrossRate_shouldDeriveRatesFromLatestSnapshotIncludingUah() {
+        ExchangeRate euro = ExchangeRate.builder()
+                .id(2L)
+                .r030(978)
+                .currencyCode("EUR")
+                .currencyName("Євро")
+                .rate(new BigDecimal("48.0"))
+                .exchangeDate(LocalDate.of(2025, 11, 17))
+                .build();
+        when(exchangeRateRepository.findLatestRates()).thenReturn(List.of(exchangeRate, euro));
+
+        exchangeRateService.refreshLatestRates();
+        CrossRateResponse eurUsd = exchangeRateService.getCrossRate("eur", "USD");
+        CrossRateResponse uahUsd = exchangeRateService.getCrossRate("UAH", "USD");
+
+        assertEquals("EUR", eurUsd.base());
+        assertEquals("USD", eurUsd.quote());
+        assertEquals(48.0 / 42.0423, eurUsd.rate(), 1e-12);
+        assertEquals(LocalDate.of(2025, 11, 17), eurUsd.exchangeDate());
+        assertEquals(1 / 42.0423, uahUsd.rate(), 1e-12);
+        assertThrows(RuntimeException.class, () -> exchangeRateService.getCrossRate("EUR", "GBP"));
+        verify(exchangeRateRepository, times(1)).findLatestRates();
+    }
+
     @Test
     void getLatestRate_shouldThrowExceptionWhenNotFound() {
         when(exchangeRateRepository.findFirstByCurrencyCodeOrderByExchangeDateDesc("USD"))
@@ -126,4 +244,64 @@ class ExchangeRateServiceTest {
 
         assertThrows(RuntimeException.class, () -> exchangeRateService.getRateByDate("USD", date));
     }
+
+    @Test
+    void fetchAndSaveExchangeRates_shouldSkipUnchangedPayload() {
+        when(rateProviderGateway.fetchExchangeRatesIfChanged()).thenReturn(Optional.empty());
+
+        UpsertResult result = exchangeRateService.fetchAndSaveExchangeRates();
+
+        assertEquals(0, result.total());
+        verify(exchangeRateRepository, never()).upsertAll(anyList());
+        verify(rateProviderGateway, never()).markProcessed(any());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.ingest.payloads").tag("result", "unchanged").counter().count());
+    }
+
+    @Test
+    void fetchAndSaveExchangeRates_shouldCountRowsAndRememberProcessedPayload() {
+        Optional<NbuPayload> payload = payload(List.of(nbuRate));
+        when(rateProviderGateway.fetchExchangeRatesIfChanged()).thenReturn(payload);
+        when(exchangeRateRepository.upsertAll(anyList())).thenReturn(new UpsertResult(0, 0, 1));
+
+        exchangeRateService.fetchAndSaveExchangeRates();
+
+        verify(rateProviderGateway).markProcessed(payload.get());
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.ingest.rows").tag("result", "unchanged").counter().count());
+        assertEquals(0.0, meterRegistry.get("exchange.rate.ingest.rows").tag("result", "changed").counter().count());
+    }
+
+    @Test
+    void lookups_shouldBeTimedAndCountedPerCurrencyAndOutcome() {
+        LocalDate date = LocalDate.of(2025, 11, 17);
+        when(exchangeRateRepository.findByCurrencyCodeAndExchangeDate("USD", date)).thenReturn(Optional.of(exchangeRate));
+        when(exchangeRateRepository.findByCurrencyCodeAndExchangeDate("XYZ", date)).thenReturn(Optional.empty());
+
+        exchangeRateService.getRateByDate("usd", date);
+        assertThrows(RuntimeException.class, () -> exchangeRateService.getRateByDate("xyz", date));
+
+        assertEquals(1, meterRegistry.get("exchange.rate.lookup").tags("query", "by_date", "outcome", "found").timer().count());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.lookup.requests")
+                .tags("currency", "USD", "outcome", "found").counter().count());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.lookup.requests")
+                .tags("currency", "unknown", "outcome", "not_found").counter().count());
+    }
+
+    @Test
+    void fetchAndSaveExchangeRates_shouldFallBackToStoredRatesWhenNoProviderIsAvailable() {
+        when(rateProviderGateway.fetchExchangeRatesIfChanged())
+                .thenThrow(new RateProviderUnavailableException("No exchange rate provider succeeded"));
+        when(exchangeRateRepository.findLatestRates()).thenReturn(List.of(exchangeRate));
+
+        UpsertResult result = exchangeRateService.fetchAndSaveExchangeRates();
+
+        assertEquals(0, result.total());
+        verify(exchangeRateRepository, never()).upsertAll(anyList());
+        assertEquals(new BigDecimal("42.0423"), exchangeRateService.getLatestRate("USD").getRate());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.ingest.payloads").tag("result", "fallback").counter().count());
+    }
+
+    private static Optional<NbuPayload> payload(List<NbuRate> rates) {
+        return Optional.of(new NbuPayload(rates, null, null, Integer.toHexString(rates.hashCode())));
+    }
 }
@@ -0,0 +1,83 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import ua.dmytrolutsiuk.backend.dto.NbuPayload;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class NbuApiClientTest {
+
+    private static final String URL = "https://bank.gov.ua/NBUStatService/v1/statdirectory/exchange?json";
+    private static final String BODY = """
+            [{"r030":840,"txt":"Долар США","rate":41.1234,"cc":"USD","exchangedate":"17.11.2025"}]
+            """;
+
+    private MockRestServiceServer server;
+    private NbuApiClient nbuApiClient;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        nbuApiClient = new NbuApiClient(builder, new ObjectMapper(), URL);
+    }
+
+    @Test
+    void fetchExchangeRatesIfChanged_shouldSendValidatorsAndHonourNotModified() {
+        HttpHeaders validators = new HttpHeaders();
+        validators.setETag("\"v1\"");
+        server.expect(requestTo(URL))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(validators));
+        server.expect(requestTo(URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        NbuPayload first = nbuApiClient.fetchExchangeRatesIfChanged().orElseThrow();
+        nbuApiClient.markProcessed(first);
+        Optional<NbuPayload> second = nbuApiClient.fetchExchangeRatesIfChanged();
+
+        assertEquals("USD", first.rates().getFirst().currencyCode());
+        assertEquals("\"v1\"", first.etag());
+        assertTrue(second.isEmpty());
+        server.verify();
+    }
+
+    @Test
+    void fetchExchangeRatesIfChanged_shouldSkipIdenticalPayloadOnceProcessed() {
+        server.expect(requestTo(URL)).andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(URL)).andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(URL)).andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        NbuPayload first = nbuApiClient.fetchExchangeRatesIfChanged().orElseThrow();
+        Optional<NbuPayload> unprocessedRetry = nbuApiClient.fetchExchangeRatesIfChanged();
+        nbuApiClient.markProcessed(first);
+        Optional<NbuPayload> afterProcessing = nbuApiClient.fetchExchangeRatesIfChanged();
+
+        assertTrue(unprocessedRetry.isPresent());
+        assertTrue(afterProcessing.isEmpty());
+        server.verify();
+    }
+
+    @Test
+    void fetchExchangeRatesIfChanged_shouldFailOnServerError() {
+        server.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, nbuApiClient::fetchExchangeRatesIfChanged);
+
+        assertEquals("Failed to fetch exchange rates from NBU API", exception.getMessage());
+    }
+}
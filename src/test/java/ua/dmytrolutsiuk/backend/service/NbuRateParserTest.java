@@ -0,0 +1,66 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+import ua.dmytrolutsiuk.backend.dto.NbuRate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NbuRateParserTest {
+
+    private final NbuRateParser parser = new NbuRateParser(new JsonFactory());
+
+    @Test
+    void parse_shouldEmitCompactRatesWithSharedDates() throws IOException {
+        List<NbuRate> rates = new ArrayList<>();
+
+        int parsed = parser.parse(stream("""
+                [{"r030":840,"txt":"Долар США","rate":41.1234,"cc":"USD","exchangedate":"17.11.2025","special":null},
+                 {"r030":978,"txt":"Євро","rate":48.7512,"cc":"EUR","exchangedate":"17.11.2025","extra":{"a":[1]}}]
+                """), rates::add);
+
+        assertEquals(2, parsed);
+        assertEquals(new NbuRate(840, "USD", "Долар США", new BigDecimal("41.1234"), LocalDate.of(2025, 11, 17)),
+                rates.getFirst());
+        assertEquals("EUR", rates.get(1).currencyCode());
+        assertSame(rates.getFirst().exchangeDate(), rates.get(1).exchangeDate());
+    }
+
+    @Test
+    void parse_shouldSkipRowsWithInvalidOrMissingFields() throws IOException {
+        List<NbuRate> rates = new ArrayList<>();
+
+        int parsed = parser.parse(stream("""
+                [{"r030":840,"txt":"Долар США","rate":41.1234,"cc":"USD","exchangedate":"17.11.2025"},
+                 {"r030":978,"txt":"Євро","rate":48.7512,"cc":"EUR","exchangedate":"2025-11-17"},
+                 {"r030":826,"txt":"Фунт стерлінгів","cc":"GBP","exchangedate":"17.11.2025"}]
+                """), rates::add);
+
+        assertEquals(1, parsed);
+        assertEquals("USD", rates.getFirst().currencyCode());
+    }
+
+    @Test
+    void parse_shouldTreatEmptyBodyAsNoRates() throws IOException {
+        assertEquals(0, parser.parse(stream(""), rate -> fail("unexpected rate " + rate)));
+    }
+
+    @Test
+    void parse_shouldRejectNonArrayPayload() {
+        assertThrows(JsonParseException.class, () -> parser.parse(stream("{\"error\":\"busy\"}"), rate -> { }));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
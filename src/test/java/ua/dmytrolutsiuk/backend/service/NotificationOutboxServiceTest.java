@@ -0,0 +1,247 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ua.dmytrolutsiuk.backend.model.*;
+import ua.dmytrolutsiuk.backend.repository.OutboxEntryRepository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "notification.outbox.max-attempts=2",
+        "notification.outbox.backoff.initial=1m"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(NotificationOutboxService.class)
+class NotificationOutboxServiceTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2025, 11, 17);
+
+    @Autowired
+    private NotificationOutboxService outboxService;
+
+    @Autowired
+    private OutboxEntryRepository outboxEntryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(subscription("first@example.com", "USD", true));
+        Subscription localized = subscription("second@example.com", "EUR", true);
+        localized.setLocale(NotificationLocale.UK);
+        entityManager.persist(localized);
+        entityManager.persist(subscription("inactive@example.com", "USD", false));
+        entityManager.flush();
+    }
+
+    @Test
+    void startRun_shouldEnqueueActiveSubscriptionsOnce() {
+        NotificationRun run = outboxService.startRun(RUN_DATE);
+        NotificationRun resumed = outboxService.startRun(RUN_DATE);
+
+        assertEquals(2, run.getEnqueuedCount());
+        assertEquals(run.getId(), resumed.getId());
+        assertEquals(2, outboxEntryRepository.count());
+        assertEquals(List.of(NotificationLocale.EN, NotificationLocale.UK),
+                outboxEntryRepository.findAll().stream()
+                        .sorted(Comparator.comparing(OutboxEntry::getEmail))
+                        .map(OutboxEntry::getLocale)
+                        .toList());
+    }
+
+    @Test
+    void startRun_shouldSkipSubscriptionsWithAlertRulesUntilTheyTrigger() {
+        Subscription conditional = entityManager.persist(subscription("alerts@example.com", "USD", true));
+        entityManager.persist(AlertRule.builder()
+                .subscriptionId(conditional.getId())
+                .type(AlertType.CHANGE_PERCENT)
+                .threshold(new BigDecimal("0.5"))
+                .build());
+        entityManager.flush();
+
+        NotificationRun run = outboxService.startRun(RUN_DATE);
+        outboxService.completeRun(RUN_DATE);
+        int triggered = outboxService.enqueueTriggered(RUN_DATE, List.of(conditional.getId()));
+        int repeated = outboxService.enqueueTriggered(RUN_DATE, List.of(conditional.getId()));
+
+        assertEquals(2, run.getEnqueuedCount());
+        assertEquals(1, triggered);
+        assertEquals(0, repeated);
+        assertEquals(NotificationRunStatus.IN_PROGRESS, run.getStatus());
+        assertEquals(List.of("alerts@example.com"), outboxService.claimBatch(RUN_DATE, 10).stream()
+                .map(OutboxEntry::getEmail)
+                .filter(email -> email.startsWith("alerts"))
+                .toList());
+    }
+
+    @Test
+    void claimBatch_shouldLeaseEntriesSoTheyAreNotClaimedTwice() {
+        outboxService.startRun(RUN_DATE);
+
+        List<OutboxEntry> first = outboxService.claimBatch(RUN_DATE, 1);
+        List<OutboxEntry> second = outboxService.claimBatch(RUN_DATE, 10);
+        List<OutboxEntry> third = outboxService.claimBatch(RUN_DATE, 10);
+
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertNotEquals(first.getFirst().getId(), second.getFirst().getId());
+        assertTrue(third.isEmpty());
+        assertEquals(OutboxStatus.SENDING, first.getFirst().getStatus());
+        assertEquals(1, first.getFirst().getAttempts());
+    }
+
+    @Test
+    void claimBatch_shouldClaimEveryEntryOfARecipientTogether() {
+        entityManager.persist(subscription("first@example.com", "EUR", true));
+        entityManager.persist(subscription("first@example.com", "GBP", true));
+        entityManager.flush();
+        outboxService.startRun(RUN_DATE);
+
+        List<OutboxEntry> first = outboxService.claimBatch(RUN_DATE, 1);
+        List<OutboxEntry> second = outboxService.claimBatch(RUN_DATE, 1);
+
+        assertEquals(List.of("EUR", "GBP", "USD"),
+                first.stream().map(OutboxEntry::getCurrencyCode).sorted().toList());
+        assertTrue(first.stream().allMatch(entry -> entry.getEmail().equals("first@example.com")));
+        assertEquals(List.of("second@example.com"), second.stream().map(OutboxEntry::getEmail).toList());
+    }
+
+    @Test
+    void claimBatch_shouldSkipRecipientsLockedByAnotherWorker() throws Exception {
+        entityManager.persist(subscription("first@example.com", "EUR", true));
+        entityManager.flush();
+        outboxService.startRun(RUN_DATE);
+
+        try (Connection otherWorker = dataSource.getConnection();
+             PreparedStatement lock = otherWorker.prepareStatement(
+                     "SELECT pg_advisory_lock(hashtext('notification_outbox'), hashtext(?))")) {
+            lock.setString(1, "first@example.com");
+            lock.execute();
+
+            List<OutboxEntry> claimed = outboxService.claimBatch(RUN_DATE, 1);
+
+            assertEquals(List.of("second@example.com"), claimed.stream().map(OutboxEntry::getEmail).toList());
+            try (PreparedStatement unlock = otherWorker.prepareStatement("SELECT pg_advisory_unlock_all()")) {
+                unlock.execute();
+            }
+        }
+
+        assertEquals(List.of("EUR", "USD"), outboxService.claimBatch(RUN_DATE, 1).stream()
+                .map(OutboxEntry::getCurrencyCode)
+                .sorted()
+                .toList());
+    }
+
+    @Test
+    void claimBatch_shouldOnlyClaimRecipientsOfOwnedPartitions() {
+        entityManager.persist(subscription("first@example.com", "EUR", true));
+        entityManager.flush();
+        outboxService.startRun(RUN_DATE);
+        List<OutboxEntry> entries = outboxEntryRepository.findAll();
+        int firstPartition = partitionOf(entries, "first@example.com");
+        int secondPartition = partitionOf(entries, "second@example.com");
+
+        List<OutboxEntry> claimed = outboxService.claimBatch(RUN_DATE, 10, Set.of(firstPartition));
+
+        assertNotEquals(firstPartition, secondPartition);
+        assertEquals(2, claimed.size());
+        assertTrue(claimed.stream().allMatch(entry -> entry.getEmail().equals("first@example.com")));
+        assertTrue(outboxService.claimBatch(RUN_DATE, 10, Set.of()).isEmpty());
+        assertEquals(1, outboxService.claimBatch(RUN_DATE, 10, Set.of(secondPartition)).size());
+    }
+
+    @Test
+    void claimBatch_shouldReclaimEntriesWithExpiredLease() {
+        outboxService.startRun(RUN_DATE);
+        List<OutboxEntry> claimed = outboxService.claimBatch(RUN_DATE, 10);
+        claimed.forEach(entry -> entry.setLeaseUntil(LocalDateTime.now().minusSeconds(1)));
+        entityManager.flush();
+
+        List<OutboxEntry> reclaimed = outboxService.claimBatch(RUN_DATE, 10);
+
+        assertEquals(2, reclaimed.size());
+        assertTrue(reclaimed.stream().allMatch(entry -> entry.getAttempts() == 2));
+    }
+
+    @Test
+    void markFailed_shouldRescheduleWithBackoffAndGiveUpAfterMaxAttempts() {
+        outboxService.startRun(RUN_DATE);
+        OutboxEntry entry = outboxService.claimBatch(RUN_DATE, 1).getFirst();
+
+        outboxService.markFailed(entry.getId(), "Mailbox unavailable");
+
+        assertEquals(OutboxStatus.PENDING, entry.getStatus());
+        assertTrue(entry.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+        assertEquals("Mailbox unavailable", entry.getLastError());
+
+        entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        entityManager.flush();
+        OutboxEntry retried = outboxService.claimBatch(RUN_DATE, 10).stream()
+                .filter(claimed -> claimed.getId().equals(entry.getId()))
+                .findFirst()
+                .orElseThrow();
+        outboxService.markFailed(retried.getId(), "Mailbox unavailable");
+
+        assertEquals(OutboxStatus.FAILED, retried.getStatus());
+    }
+
+    @Test
+    void markSent_shouldLeaveNothingToWakeUpFor() {
+        outboxService.startRun(RUN_DATE);
+        List<Long> ids = outboxService.claimBatch(RUN_DATE, 10).stream().map(OutboxEntry::getId).toList();
+
+        outboxService.markSent(ids);
+        entityManager.clear();
+
+        assertTrue(outboxService.findNextWakeUp(RUN_DATE).isEmpty());
+        assertEquals(2, outboxEntryRepository.countByRunDateAndStatus(RUN_DATE, OutboxStatus.SENT));
+    }
+
+    @Test
+    void backoff_shouldGrowExponentiallyUpToTheCap() {
+        assertEquals(Duration.ofMinutes(1), outboxService.backoff(1));
+        assertEquals(Duration.ofMinutes(4), outboxService.backoff(3));
+        assertEquals(Duration.ofMinutes(30), outboxService.backoff(10));
+    }
+
+    private static int partitionOf(List<OutboxEntry> entries, String email) {
+        Set<Integer> partitions = entries.stream()
+                .filter(entry -> entry.getEmail().equals(email))
+                .map(OutboxEntry::getPartitionNo)
+                .collect(Collectors.toSet());
+        assertEquals(1, partitions.size());
+        return partitions.iterator().next();
+    }
+
+    private static Subscription subscription(String email, String currencyCode, boolean active) {
+        return Subscription.builder()
+                .email(email)
+                .currencyCode(currencyCode)
+                .active(active)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package ua.dmytrolutsiuk.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ua.dmytrolutsiuk.backend.model.SchedulerLock;
+import ua.dmytrolutsiuk.backend.repository.SchedulerLockRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchedulerLockServiceTest {
+
+    private static final String LOCK = "exchange-rate-ingest";
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SchedulerLockService first;
+    private SchedulerLockService second;
+
+    @BeforeEach
+    void setUp() {
+        first = new SchedulerLockService(schedulerLockRepository, "node-a");
+        second = new SchedulerLockService(schedulerLockRepository, "node-b");
+    }
+
+    @Test
+    void tryAcquire_shouldGrantLockToOneNodeUntilLeaseExpires() {
+        assertTrue(first.tryAcquire(LOCK, Duration.ofMinutes(10)));
+        assertFalse(second.tryAcquire(LOCK, Duration.ofMinutes(10)));
+        assertTrue(first.tryAcquire(LOCK, Duration.ZERO));
+
+        assertTrue(second.tryAcquire(LOCK, Duration.ofMinutes(10)));
+        assertEquals("node-b", schedulerLockRepository.findById(LOCK).orElseThrow().getLockedBy());
+    }
+
+    @Test
+    void release_shouldKeepLockForMinimumHoldTime() {
+        first.tryAcquire(LOCK, Duration.ofMinutes(10));
+        first.release(LOCK, Duration.ofMinutes(1));
+        assertFalse(second.tryAcquire(LOCK, Duration.ofMinutes(10)));
+
+        first.tryAcquire(LOCK, Duration.ofMinutes(10));
+        first.release(LOCK, Duration.ZERO);
+        assertTrue(second.tryAcquire(LOCK, Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void release_shouldCountMinimumHoldFromFirstAcquisitionAcrossRenewals() {
+        first.tryAcquire(LOCK, Duration.ofMinutes(10));
+        SchedulerLock lock = schedulerLockRepository.findById(LOCK).orElseThrow();
+        lock.setLockedAt(lock.getLockedAt().minusMinutes(5));
+        schedulerLockRepository.saveAndFlush(lock);
+
+        assertTrue(first.tryAcquire(LOCK, Duration.ofMinutes(10)));
+        first.release(LOCK, Duration.ofMinutes(1));
+
+        assertTrue(second.tryAcquire(LOCK, Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void tryAcquire_shouldKeepLeasesInUtcWhateverTheSessionTimeZone() {
+        jdbcTemplate.execute("SET TIME ZONE 'Europe/Kyiv'");
+        first.tryAcquire(LOCK, Duration.ofMinutes(10));
+
+        LocalDateTime lockedUntil = schedulerLockRepository.findById(LOCK).orElseThrow().getLockedUntil();
+        Duration remaining = Duration.between(LocalDateTime.now(ZoneOffset.UTC), lockedUntil);
+
+        assertTrue(remaining.compareTo(Duration.ofMinutes(9)) > 0 && remaining.compareTo(Duration.ofMinutes(11)) < 0,
+                "lease should end about 10 minutes from now in UTC, was " + remaining);
+        assertFalse(second.tryAcquire(LOCK, Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void countHeld_shouldOnlyCountLiveLocksWithPrefix() {
+        first.tryAcquire("notification-node:node-a", Duration.ofMinutes(1));
+        second.tryAcquire("notification-node:node-b", Duration.ofMinutes(1));
+        second.tryAcquire("notification-partition-0", Duration.ofMinutes(1));
+        second.delete("notification-node:node-b");
+
+        assertEquals(1, first.countHeld("notification-node:"));
+        assertEquals(1, first.countHeld("notification-partition-"));
+    }
+}
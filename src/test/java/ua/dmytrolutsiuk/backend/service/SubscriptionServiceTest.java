@@ -6,16 +6,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ua.dmytrolutsiuk.backend.dto.MultiCurrencySubscriptionRequest;
 import ua.dmytrolutsiuk.backend.dto.SubscriptionRequest;
 import ua.dmytrolutsiuk.backend.dto.SubscriptionResponse;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
 import ua.dmytrolutsiuk.backend.model.Subscription;
 import ua.dmytrolutsiuk.backend.repository.SubscriptionRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -61,6 +65,19 @@ class SubscriptionServiceTest {
         verify(subscriptionRepository, times(1)).save(any(Subscription.class));
     }
 
+    @Test
+    void subscribe_shouldStoreRequestedLocale() {
+        request.setLocale("uk");
+        when(subscriptionRepository.findByEmailAndCurrencyCode("test@example.com", "USD"))
+                .thenReturn(Optional.empty());
+        when(subscriptionRepository.save(any(Subscription.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SubscriptionResponse response = subscriptionService.subscribe(request);
+
+        assertEquals("uk", response.getLocale());
+        verify(subscriptionRepository).save(argThat(saved -> saved.getLocale() == NotificationLocale.UK));
+    }
+
     @Test
     void subscribe_shouldReactivateInactiveSubscription() {
         subscription.setActive(false);
@@ -96,6 +113,30 @@ class SubscriptionServiceTest {
         assertEquals("USD", response.getCurrencyCode());
     }
 
+    @Test
+    void subscribeAll_shouldCreateMissingAndReactivateExistingSubscriptions() {
+        Subscription inactive = Subscription.builder()
+                .id(2L)
+                .email("test@example.com")
+                .currencyCode("EUR")
+                .active(false)
+                .build();
+        when(subscriptionRepository.findByEmailAndCurrencyCodeIn("test@example.com", List.of("EUR", "USD")))
+                .thenReturn(List.of(inactive));
+        when(subscriptionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<SubscriptionResponse> responses = subscriptionService.subscribeAll(MultiCurrencySubscriptionRequest.builder()
+                .email("test@example.com")
+                .currencyCodes(List.of("usd", "EUR", "USD"))
+                .locale("uk")
+                .build());
+
+        assertEquals(List.of("EUR", "USD"), responses.stream().map(SubscriptionResponse::getCurrencyCode).toList());
+        assertEquals(2L, responses.getFirst().getId());
+        assertTrue(responses.stream().allMatch(SubscriptionResponse::getActive));
+        assertTrue(responses.stream().allMatch(response -> "uk".equals(response.getLocale())));
+    }
+
     @Test
     void unsubscribe_shouldDeactivateSubscription() {
         when(subscriptionRepository.findByEmailAndCurrencyCode("test@example.com", "USD"))
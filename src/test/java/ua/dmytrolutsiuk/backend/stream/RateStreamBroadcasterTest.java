@@ -0,0 +1,188 @@
+package ua.dmytrolutsiuk.backend.stream;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ua.dmytrolutsiuk.backend.dto.ExchangeRateResponse;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateStreamBroadcasterTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 11, 17);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateStreamBroadcaster broadcaster = broadcaster(10, 64);
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void publish_shouldPushOnlyChangedRatesToMatchingConnections() throws Exception {
+        RecordingEmitter usdOnly = new RecordingEmitter();
+        RecordingEmitter all = new RecordingEmitter();
+        assertTrue(broadcaster.register(connection(usdOnly, Set.of("USD"))));
+        assertTrue(broadcaster.register(connection(all, Set.of())));
+
+        assertEquals(2, broadcaster.publish(List.of(rate("USD", "42.0"), rate("EUR", "48.0"))));
+        await(() -> all.events().size() == 2 && usdOnly.events().size() == 1);
+        assertEquals(1, broadcaster.publish(List.of(rate("USD", "42.1"), rate("EUR", "48.0"))));
+
+        await(() -> all.events().size() == 3 && usdOnly.events().size() == 2);
+        assertEquals(List.of("USD 42.0", "USD 42.1"), usdOnly.events());
+        assertEquals(Set.of("USD 42.0", "EUR 48.0", "USD 42.1"), Set.copyOf(all.events()));
+        assertEquals(5.0, meterRegistry.get("rate.stream.events").tag("result", "delivered").counter().count());
+    }
+
+    @Test
+    void register_shouldSendLatestRatesOnConnect() throws Exception {
+        broadcaster.publish(List.of(rate("USD", "42.0"), rate("EUR", "48.0")));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        broadcaster.register(connection(emitter, Set.of("EUR")));
+
+        await(() -> emitter.events().size() == 1);
+        assertEquals(List.of("EUR 48.0"), emitter.events());
+    }
+
+    @Test
+    void publish_shouldBoundPendingEventsOfSlowConnection() throws Exception {
+        broadcaster = broadcaster(10, 2);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(items);
+            }
+        };
+        broadcaster.register(connection(slow, Set.of()));
+
+        broadcaster.publish(List.of(rate("USD", "42.0")));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        broadcaster.publish(List.of(rate("USD", "42.1"), rate("EUR", "48.0"), rate("GBP", "55.0")));
+        broadcaster.publish(List.of(rate("USD", "42.1"), rate("EUR", "48.2"), rate("GBP", "55.0")));
+        release.countDown();
+
+        await(() -> slow.events().size() == 3);
+        assertEquals(Set.of("USD 42.0", "EUR 48.2", "GBP 55.0"), Set.copyOf(slow.events()));
+        assertEquals(1.0, meterRegistry.get("rate.stream.events").tag("result", "dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("rate.stream.events").tag("result", "conflated").counter().count());
+    }
+
+    @Test
+    void heartbeat_shouldKeepIdleConnectionsAliveAndDropBrokenOnes() throws Exception {
+        RecordingEmitter idle = new RecordingEmitter();
+        RecordingEmitter broken = new RecordingEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        broadcaster.register(connection(idle, Set.of()));
+        broadcaster.register(connection(broken, Set.of()));
+
+        broadcaster.heartbeat();
+
+        await(() -> idle.frames().size() == 1 && broadcaster.connections() == 1);
+        assertTrue(idle.frames().getFirst().startsWith(":keep-alive"));
+        assertEquals(1.0, meterRegistry.get("rate.stream.connections").gauge().value());
+    }
+
+    @Test
+    void register_shouldRejectConnectionsBeyondLimit() {
+        broadcaster = broadcaster(1, 64);
+
+        assertTrue(broadcaster.register(connection(new RecordingEmitter(), Set.of())));
+        assertFalse(broadcaster.register(connection(new RecordingEmitter(), Set.of())));
+
+        assertEquals(1, broadcaster.connections());
+        assertEquals(1.0, meterRegistry.get("rate.stream.rejected").counter().count());
+    }
+
+    @Test
+    void heartbeat_shouldRunOnItsOwnSchedulerWithPlatformThreads() throws Exception {
+        broadcaster.destroy();
+        broadcaster = broadcaster(10, 64, Duration.ofMillis(20), false);
+        RecordingEmitter idle = new RecordingEmitter();
+        broadcaster.register(connection(idle, Set.of()));
+
+        await(() -> idle.frames().size() >= 2);
+        assertTrue(idle.frames().stream().allMatch(frame -> frame.startsWith(":keep-alive")));
+    }
+
+    private RateStreamBroadcaster broadcaster(int maxConnections, int maxPending) {
+        return broadcaster(maxConnections, maxPending, Duration.ofMinutes(30), true);
+    }
+
+    private RateStreamBroadcaster broadcaster(int maxConnections, int maxPending, Duration heartbeatInterval,
+                                              boolean virtualThreads) {
+        meterRegistry.clear();
+        return new RateStreamBroadcaster(JsonMapper.builder().findAndAddModules().build(), meterRegistry,
+                Duration.ofMinutes(30), maxConnections, maxPending, heartbeatInterval, virtualThreads, 1);
+    }
+
+    private RateStreamConnection connection(SseEmitter emitter, Set<String> currencyCodes) {
+        return broadcaster.newConnection(emitter, currencyCodes);
+    }
+
+    private static ExchangeRateResponse rate(String currencyCode, String rate) {
+        return ExchangeRateResponse.builder()
+                .currencyCode(currencyCode)
+                .rate(new BigDecimal(rate))
+                .exchangeDate(TODAY)
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            frames.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        List<String> frames() {
+            return frames;
+        }
+
+        List<String> events() {
+            return frames.stream()
+                    .filter(frame -> frame.contains("event:rate"))
+                    .map(frame -> frame.replaceAll("(?s).*\"currencyCode\":\"(\\w+)\".*\"rate\":([\\d.]+).*", "$1 $2"))
+                    .toList();
+        }
+    }
+}
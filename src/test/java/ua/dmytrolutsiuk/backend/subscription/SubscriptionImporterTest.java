@@ -0,0 +1,162 @@
+package ua.dmytrolutsiuk.backend.subscription;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.dmytrolutsiuk.backend.model.NotificationLocale;
+import ua.dmytrolutsiuk.backend.model.Subscription;
+import ua.dmytrolutsiuk.backend.repository.SubscriptionRepository;
+import ua.dmytrolutsiuk.backend.repository.SubscriptionUpsertOutcome;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionImporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void importSubscriptions_shouldReportEveryNdjsonRowInInputOrder() throws Exception {
+        when(subscriptionRepository.upsertAll(anyList())).thenAnswer(invocation -> {
+            List<Subscription> batch = invocation.getArgument(0);
+            return batch.stream()
+                    .map(subscription -> subscription.getEmail().startsWith("old")
+                            ? SubscriptionUpsertOutcome.REACTIVATED
+                            : SubscriptionUpsertOutcome.CREATED)
+                    .toList();
+        });
+        String ndjson = """
+                {"email":"first@example.com","currencyCode":"usd","locale":"uk"}
+                {"email":"not-an-email","currencyCode":"USD"}
+
+                {"email":"old@example.com","currencyCode":"EUR"}
+                {"email":"first@example.com","currencyCode":"USD"}
+                {broken
+                """;
+
+        List<Map<String, Object>> lines = run(importer(2), ndjson, SubscriptionFormat.NDJSON);
+
+        assertEquals(List.of(1, 2, 4, 5, 6), lines.subList(0, 5).stream().map(line -> line.get("line")).toList());
+        assertEquals(List.of("CREATED", "INVALID", "REACTIVATED", "CREATED", "INVALID"),
+                lines.subList(0, 5).stream().map(line -> line.get("status")).toList());
+        assertEquals("email: Email must be valid", lines.get(1).get("error"));
+        assertTrue(lines.get(4).get("error").toString().startsWith("Malformed JSON"));
+        assertEquals(5, lines.get(5).get("rows"));
+
+        ArgumentCaptor<List<Subscription>> batches = ArgumentCaptor.captor();
+        verify(subscriptionRepository, times(2)).upsertAll(batches.capture());
+        Subscription first = batches.getAllValues().getFirst().getFirst();
+        assertEquals("USD", first.getCurrencyCode());
+        assertEquals(NotificationLocale.UK, first.getLocale());
+    }
+
+    @Test
+    void importSubscriptions_shouldMapCsvColumnsByHeaderAndFlagDuplicatesWithinBatch() throws Exception {
+        List<List<Subscription>> batches = Collections.synchronizedList(new ArrayList<>());
+        when(subscriptionRepository.upsertAll(anyList())).thenAnswer(invocation -> {
+            List<Subscription> batch = invocation.getArgument(0);
+            batches.add(batch);
+            return Collections.nCopies(batch.size(), SubscriptionUpsertOutcome.UNCHANGED);
+        });
+        String csv = """
+                id,currency_code,email,locale
+                1,eur,a@example.com,uk
+                2,EUR,a@example.com,en
+                3,GBP,b@example.com,
+                """;
+
+        List<Map<String, Object>> lines = run(importer(100), csv, SubscriptionFormat.CSV);
+
+        assertEquals(List.of("UNCHANGED", "DUPLICATE", "UNCHANGED"),
+                lines.subList(0, 3).stream().map(line -> line.get("status")).toList());
+        assertEquals(List.of(2, 3, 4), lines.subList(0, 3).stream().map(line -> line.get("line")).toList());
+        assertEquals(1, batches.size());
+        assertEquals(List.of("a@example.com", "b@example.com"), batches.getFirst().stream().map(Subscription::getEmail).toList());
+        assertEquals(NotificationLocale.EN, batches.getFirst().get(1).getLocale());
+    }
+
+    @Test
+    void importSubscriptions_shouldParseQuotedCsvFieldsSpanningLines() throws Exception {
+        List<List<Subscription>> batches = Collections.synchronizedList(new ArrayList<>());
+        when(subscriptionRepository.upsertAll(anyList())).thenAnswer(invocation -> {
+            List<Subscription> batch = invocation.getArgument(0);
+            batches.add(batch);
+            return Collections.nCopies(batch.size(), SubscriptionUpsertOutcome.CREATED);
+        });
+        String csv = """
+                email,currency_code,locale
+                "quoted@example.com","usd",uk
+                "broken
+                line@example.com",EUR,
+                c@example.com,GBP,"en"
+                """;
+
+        List<Map<String, Object>> lines = run(importer(100), csv, SubscriptionFormat.CSV);
+
+        assertEquals(List.of(2, 3, 5), lines.subList(0, 3).stream().map(line -> line.get("line")).toList());
+        assertEquals(List.of("CREATED", "INVALID", "CREATED"),
+                lines.subList(0, 3).stream().map(line -> line.get("status")).toList());
+        assertEquals("email: Email must be valid", lines.get(1).get("error"));
+        Subscription quoted = batches.getFirst().getFirst();
+        assertEquals("quoted@example.com", quoted.getEmail());
+        assertEquals("USD", quoted.getCurrencyCode());
+        assertEquals(NotificationLocale.UK, quoted.getLocale());
+        assertEquals("c@example.com", batches.getFirst().get(1).getEmail());
+    }
+
+    @Test
+    void importSubscriptions_shouldNotTouchDatabaseWhenEveryRowIsInvalid() throws Exception {
+        List<Map<String, Object>> lines = run(importer(10), "a@example.com,US\n", SubscriptionFormat.CSV);
+
+        assertEquals("INVALID", lines.getFirst().get("status"));
+        assertEquals("currencyCode: Currency code must be 3 characters", lines.getFirst().get("error"));
+        verifyNoInteractions(subscriptionRepository);
+    }
+
+    private SubscriptionImporter importer(int batchSize) {
+        return new SubscriptionImporter(subscriptionRepository, transactionTemplate, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), batchSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> run(SubscriptionImporter importer, String input, SubscriptionFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importer.importSubscriptions(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format, out);
+
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readValue(line, Map.class));
+        }
+        return lines;
+    }
+}